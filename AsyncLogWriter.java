@@ -0,0 +1,316 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the lines of the simulation log on a background thread.
+ * <p>
+ * {@link #log(String)} only places the line in a bounded queue; the writer
+ * thread takes the pending lines in batches and writes each batch to the
+ * selected {@link LogSink}s with a single call per destination. Since there is
+ * a single queue and a single writer thread, lines are written in the order
+ * they were logged. When the queue is full, {@link #log(String)} waits, so a
+ * fast simulation cannot use unbounded memory.
+ * </p>
+ * <p>
+ * {@link #close()} must be called to guarantee that every line has been
+ * written; it also closes the file.
+ * </p>
+ * <p>
+ * If the writer thread is interrupted, the writer is marked as failed: the
+ * lines still queued and those logged afterwards are written on the thread
+ * that logs them, in order, so no caller waits for a thread that is gone.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class AsyncLogWriter
+{
+    /** Default number of lines the queue can hold. */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /** Marker that tells the writer thread to finish. */
+    private static final Object END = new Object();
+    /** Milliseconds a caller waits on the queue before checking whether the writer thread has failed. */
+    private static final long FAILURE_CHECK_MILLIS = 100;
+
+    private LogSink sink;
+    private Writer file;
+    private PrintStream console;
+    /**
+     * Pending items: lines, flush requests ({@link CountDownLatch}) and the {@link #END} marker.
+     */
+    private BlockingQueue<Object> queue;
+    private Thread thread;
+    private volatile boolean closed;
+    /** Whether the writer thread has stopped before {@link #close()}; lines are then written by the callers. */
+    private volatile boolean failed;
+    /** Lock held to write the lines of the queue once the writer thread has failed. */
+    private final Object fallbackLock = new Object();
+
+    /**
+     * Constructs a writer with the default capacity that writes to the console on {@code System.out}.
+     *
+     * @param sink The destinations of the lines. Must not be {@code null}.
+     * @param file The output file, or {@code null} to skip it even if the sink includes it.
+     * @throws NullPointerException If {@code sink} is {@code null}.
+     */
+    public AsyncLogWriter(LogSink sink, Writer file)
+    {
+        this(sink, file, System.out, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a writer.
+     *
+     * @param sink The destinations of the lines. Must not be {@code null}.
+     * @param file The output file, or {@code null} to skip it even if the sink includes it.
+     * @param console The console stream, or {@code null} to skip it even if the sink includes it.
+     * @param capacity The number of lines the queue can hold. Must be positive.
+     * @throws NullPointerException If {@code sink} is {@code null}.
+     * @throws IllegalArgumentException If {@code capacity} is not positive.
+     */
+    public AsyncLogWriter(LogSink sink, Writer file, PrintStream console, int capacity)
+    {
+        if (sink == null) {
+            throw new NullPointerException("AsyncLogWriter need a sink");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of AsyncLogWriter must be positive");
+        }
+        this.sink = sink;
+        this.file = sink.writesFile() ? file : null;
+        this.console = sink.writesConsole() ? console : null;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        if (this.file != null || this.console != null) {
+            this.thread = new Thread(this::drain, "simulation-log");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+    }
+
+    /**
+     * @return The destinations of the lines.
+     */
+    public LogSink getSink()
+    {
+        return sink;
+    }
+
+    /**
+     * @return The writer thread, or {@code null} if there are no destinations.
+     */
+    Thread getWriterThread()
+    {
+        return thread;
+    }
+
+    /**
+     * Queues a line to be written. Waits while the queue is full.
+     * Lines logged after {@link #close()} are discarded.
+     *
+     * @param message The line, without line separator.
+     */
+    public void log(String message)
+    {
+        if (thread == null || closed) {
+            return; //sin destinos no se encola nada
+        }
+        if (failed || !put(message)) {
+            writePending(message); //el hilo escritor ya no existe
+        }
+    }
+
+    /**
+     * Waits until every line logged so far has been written and the destinations flushed.
+     */
+    public void flush()
+    {
+        if (thread == null || closed) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        if (failed || !put(done)) {
+            writePending(null);
+            return;
+        }
+        try {
+            while (!done.await(FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failed) {
+                    writePending(null); //libera también nuestra petición
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the pending lines, stops the writer thread and closes the file.
+     * Further calls have no effect.
+     */
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (thread != null) {
+            if (!failed && put(END)) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failed) {
+                writePending(null);
+            }
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                System.err.println("Error cerrando el fichero: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds an item to the queue, waiting while it is full and the writer thread is running.
+     *
+     * @param item The item to add.
+     * @return {@code true} if the item was queued, {@code false} if the writer thread has
+     *         failed or the caller was interrupted while waiting.
+     */
+    private boolean put(Object item)
+    {
+        try {
+            while (!failed) {
+                if (queue.offer(item, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Writes the items left in the queue once the writer thread has failed, and then a line.
+     * Flush requests among them are released.
+     *
+     * @param message The line to write after them, or {@code null} to write none.
+     */
+    private void writePending(String message)
+    {
+        synchronized (fallbackLock) {
+            List<Object> batch = new ArrayList<>();
+            queue.drainTo(batch);
+            StringBuilder text = new StringBuilder();
+            for (Object item : batch) {
+                if (item instanceof String) {
+                    text.append((String) item).append(System.lineSeparator());
+                }
+            }
+            if (message != null) {
+                text.append(message).append(System.lineSeparator());
+            }
+            write(text);
+            flushDestinations();
+            for (Object item : batch) {
+                if (item instanceof CountDownLatch) {
+                    ((CountDownLatch) item).countDown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Body of the writer thread: takes the pending items in batches and writes
+     * the lines of each batch, until the {@link #END} marker arrives. If the
+     * thread is interrupted, it marks the writer as failed and writes what is
+     * left in the queue.
+     */
+    private void drain()
+    {
+        List<Object> batch = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        String separator = System.lineSeparator();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take()); //espera al primer elemento y recoge el resto sin esperar
+            } catch (InterruptedException e) {
+                failed = true; //los que escriben dejan de esperar a la cola
+                writePending(null);
+                return;
+            }
+            queue.drainTo(batch);
+            for (Object item : batch) {
+                if (item instanceof String) {
+                    text.append((String) item).append(separator);
+                } else {
+                    write(text);
+                    text.setLength(0);
+                    flushDestinations();
+                    if (item == END) {
+                        running = false;
+                    } else {
+                        ((CountDownLatch) item).countDown();
+                    }
+                }
+            }
+            write(text);
+            text.setLength(0);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch of lines to every destination.
+     *
+     * @param text The lines of the batch, each one followed by the line separator.
+     */
+    private void write(StringBuilder text)
+    {
+        if (text.length() == 0) {
+            return;
+        }
+        if (console != null) {
+            console.print(text);
+        }
+        if (file != null) {
+            try {
+                file.append(text);
+            } catch (IOException e) {
+                System.err.println("Error escribiendo en el fichero: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flushes every destination.
+     */
+    private void flushDestinations()
+    {
+        if (console != null) {
+            console.flush();
+        }
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                System.err.println("Error escribiendo en el fichero: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+
+/**
+ * Test class for the {@link AsyncLogWriter} class.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Lines written in order to every selected sink, also with a full queue.</li>
+ *   <li>Sinks that are not selected receiving nothing.</li>
+ *   <li>Flushing and closing.</li>
+ *   <li>Writing on the callers' thread after the writer thread is interrupted.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class AsyncLogWriterTest
+{
+    /**
+     * Default constructor for test class AsyncLogWriterTest.
+     */
+    public AsyncLogWriterTest()
+    {
+    }
+
+    /**
+     * Builds the text expected for a number of numbered lines.
+     *
+     * @param lines The number of lines.
+     * @return The lines, each one followed by the line separator.
+     */
+    private String expectedText(int lines)
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append("line ").append(i).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Tests that lines reach both sinks in order with a queue much smaller than the output.
+     */
+    @Test
+    public void testOrderWithSmallQueue()
+    {
+        StringWriter file = new StringWriter();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsyncLogWriter writer = new AsyncLogWriter(LogSink.BOTH, file, new PrintStream(bytes, true), 4);
+        for (int i = 0; i < 1000; i++) {
+            writer.log("line " + i);
+        }
+        writer.close();
+        assertEquals(expectedText(1000), file.toString());
+        assertEquals(expectedText(1000), bytes.toString());
+    }
+
+    /**
+     * Tests that only the selected sinks receive lines.
+     */
+    @Test
+    public void testSinkSelection()
+    {
+        StringWriter file = new StringWriter();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsyncLogWriter writer = new AsyncLogWriter(LogSink.FILE, file, new PrintStream(bytes, true), 16);
+        writer.log("line 0");
+        writer.close();
+        assertEquals(expectedText(1), file.toString());
+        assertEquals(0, bytes.size());
+
+        file = new StringWriter();
+        writer = new AsyncLogWriter(LogSink.NONE, file, new PrintStream(bytes, true), 16);
+        writer.log("line 0");
+        writer.close();
+        assertEquals("", file.toString());
+        assertEquals(0, bytes.size());
+    }
+
+    /**
+     * Tests that flush waits for the pending lines and that lines logged after close are discarded.
+     */
+    @Test
+    public void testFlushAndClose()
+    {
+        StringWriter file = new StringWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(LogSink.FILE, file, null, 16);
+        for (int i = 0; i < 50; i++) {
+            writer.log("line " + i);
+        }
+        writer.flush();
+        assertEquals(expectedText(50), file.toString());
+
+        writer.close();
+        writer.log("late");
+        writer.close();
+        assertEquals(expectedText(50), file.toString());
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogWriter(LogSink.BOTH, null, null, 0));
+    }
+
+    /**
+     * Tests that after the writer thread is interrupted no line is lost and no caller
+     * blocks on the full queue.
+     */
+    @Test
+    public void testInterruptedWriter() throws InterruptedException
+    {
+        StringWriter file = new StringWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(LogSink.FILE, file, null, 2);
+        writer.log("line 0");
+        writer.flush();
+        Thread thread = writer.getWriterThread();
+        thread.interrupt();
+        thread.join();
+        for (int i = 1; i < 20; i++) {
+            writer.log("line " + i);
+        }
+        writer.flush();
+        assertEquals(expectedText(20), file.toString());
+        writer.close();
+        assertEquals(expectedText(20), file.toString());
+    }
+}
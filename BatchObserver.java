@@ -0,0 +1,18 @@
+/**
+ * Observer that receives the recharges registered by the company in batches
+ * (see {@link NotificadorAbstracto#addBatchObserver(BatchObserver, RechargeTopic, int)}).
+ * Observers that write to disk or aggregate the recharges can then pay their
+ * fixed costs once per batch instead of once per recharge.
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public interface BatchObserver
+{
+    /**
+     * Called with a group of consecutive recharges of the same step.
+     *
+     * @param batch The recharges.
+     */
+    void onRechargesRegistered(RechargeBatch batch);
+}
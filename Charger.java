@@ -1,6 +1,5 @@
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Collections;
 
 /**
  * Represents a charging unit within a {@link ChargingStation}.
@@ -14,13 +13,30 @@ import java.util.Collections;
  */
 public abstract class Charger
 {
+    /**
+     * Default number of recharges retained in the history of each charger.
+     */
+    public static final int DEFAULT_HISTORY_CAPACITY = 1024;
+    
     private String id; 
     private int chargingSpeed;
     private double chargingFee;
-    private List<ElectricVehicle> eVsRecharged;
+    /**
+     * Most recent recharges of this charger, and number of recharges ever performed.
+     */
+    private RechargeHistory history;
     private double amountCollected;
+    /**
+     * Total kWh delivered by this charger.
+     */
+    private int kwsRecharged;
     private boolean free;
     protected List<Enum> types;
+    /**
+     * {@link ChargingStation} this charger belongs to, notified when the indexed
+     * attributes (speed, fee, availability, types) change.
+     */
+    private ChargingStation station;
     
     /**
      * Constructs a new {@code Charger}.
@@ -44,8 +60,9 @@ public abstract class Charger
             this.id=id;
             this.chargingSpeed=speed;
             this.chargingFee = fee;
-            this.eVsRecharged = new ArrayList<ElectricVehicle>();
+            this.history = new RechargeHistory(DEFAULT_HISTORY_CAPACITY);
             this.amountCollected = 0;
+            this.kwsRecharged = 0;
             this.free = true;
             types=new ArrayList<Enum>();
         } catch(RuntimeException e){
@@ -79,10 +96,18 @@ public abstract class Charger
     }
     
     /**
-     * @return An unmodifiable list of electric vehicles that have been recharged by this charger.
+     * @return An unmodifiable list of the electric vehicles of the recharges retained in
+     *         the history of this charger, oldest first.
      */
     public List<ElectricVehicle> getEVsRecharged(){
-        return Collections.unmodifiableList(this.eVsRecharged);
+        return history.vehicles();
+    }
+    
+    /**
+     * @return The history of the most recent recharges of this charger.
+     */
+    public RechargeHistory getHistory(){
+        return this.history;
     }
     
     /**
@@ -92,6 +117,13 @@ public abstract class Charger
         return this.amountCollected;
     }
     
+    /**
+     * @return The total kWh delivered by this charger.
+     */
+    public int getKwsRecharged(){
+        return this.kwsRecharged;
+    }
+    
     /**
      * @return {@code true} if the charger is available for use, {@code false} otherwise.
      */
@@ -103,7 +135,14 @@ public abstract class Charger
      * @return The total number of {@link ElectricVehicle}s that have been recharged by this charger.
      */
     public int getNumberEVRecharged(){
-        return eVsRecharged.size();
+        return history.getTotal();
+    }
+    
+    /**
+     * @return The {@link ChargingStation} this charger belongs to, or {@code null} if it has none.
+     */
+    public ChargingStation getStation(){
+        return this.station;
     }
     
     // -------------------------------------------------
@@ -126,6 +165,7 @@ public abstract class Charger
      */
     public void setChargingSpeed(int speed){
         this.chargingSpeed=speed;
+        notifyStation();
     }
     
     /**
@@ -135,6 +175,7 @@ public abstract class Charger
      */
     public void setChargingFee(double fee){
         this.chargingFee = fee;
+        notifyStation();
     }
     
     /**
@@ -143,7 +184,9 @@ public abstract class Charger
      * @param amount The new total amount collected.
      */
     public void setAmountCollected(double amount){
+        double old = this.amountCollected;
         this.amountCollected = amount;
+        notifyStationTotals(0, amount - old, 0);
     }
     
     /**
@@ -152,15 +195,47 @@ public abstract class Charger
      * @param free {@code true} if the charger is available, {@code false} otherwise.
      */
     public void setFree(boolean free){
-        this.free=free;
+        if (this.free != free) {
+            this.free=free;
+            if (station != null) {
+                station.chargerAvailabilityUpdated(this);
+            }
+        }
+    }
+    
+    /**
+     * Sets the {@link ChargingStation} this charger belongs to.
+     * Invoked by {@link ChargingStation#addCharger(Charger)}.
+     * 
+     * @param station The station that contains this charger.
+     */
+    void setStation(ChargingStation station){
+        this.station = station;
+    }
+    
+    /**
+     * Sets the number of recharges retained in the history of this charger.
+     * The most recent ones are kept.
+     * 
+     * @param capacity The number of recharges to retain. Must be positive.
+     * @throws IllegalArgumentException If {@code capacity} is not positive.
+     */
+    public void setHistoryCapacity(int capacity){
+        this.history = history.copy(capacity);
     }
     
     //No hacemos setEVsRecharged porque rompe la encapsulación y no hace falta,
     //ya que tenemos el método addEvRecharged
     
+    /**
+     * Adds a vehicle type to the types supported by this charger.
+     * 
+     * @param type The vehicle type to support.
+     */
     public void addType(Enum type) {
         if (!this.types.contains(type)) {
             this.types.add(type);
+            notifyStation();
         }
     }
     
@@ -188,7 +263,7 @@ public abstract class Charger
     public String getCompleteInfo()
     {
          String texto = this.toString();
-         for(ElectricVehicle v: eVsRecharged){
+         for(ElectricVehicle v: getEVsRecharged()){
             texto +="\n"+ v.toString();
          }
          texto+="\n";
@@ -197,18 +272,34 @@ public abstract class Charger
     
     
     /**
-     * Adds an {@link ElectricVehicle} to the list of vehicles that have been recharged.
+     * Adds an {@link ElectricVehicle} to the history of recharges, without kWh or cost.
      * 
      * @param vehicle The electric vehicle that was recharged.
      */
     public void addEvRecharged(ElectricVehicle vehicle){
-        eVsRecharged.add(vehicle);
+        history.add(vehicle, 0, 0, RechargeHistory.NO_STEP);
+        notifyStationTotals(1, 0, 0);
+    }
+    
+    /**
+     * Replaces the recharges of this charger with those of another state of the simulation.
+     * The totals of the station are not updated: it must recalculate them once
+     * its chargers have been restored (see {@link ChargingStation#recalculateTotals()}).
+     * 
+     * @param saved The history at that state; it is copied.
+     * @param amount The amount collected at that state.
+     * @param kws The kWh delivered at that state.
+     */
+    void restoreRecharges(RechargeHistory saved, double amount, int kws){
+        this.history = saved.copy();
+        this.amountCollected = amount;
+        this.kwsRecharged = kws;
     }
     
     /**
      * Simulates the charging process for an {@link ElectricVehicle}.
-     * This method marks the charger as busy, calculates the fee based on the 
-     * number of kWh recharged, updates the total amount collected, and registers 
+     * The recharge is instantaneous, so the charger is left free. This method
+     * calculates the fee based on the number of kWh recharged, updates the total amount collected, and registers 
      * the vehicle as recharged.
      * 
      * @param vehicle The electric vehicle to recharge.
@@ -216,25 +307,76 @@ public abstract class Charger
      * @return The total cost of the recharge operation.
      */
     public final double recharge(ElectricVehicle vehicle,int kwsRecharging){
+        return recharge(vehicle, kwsRecharging, RechargeHistory.NO_STEP);
+    }
+    
+    /**
+     * Simulates the charging process for an {@link ElectricVehicle} during a step
+     * of the simulation, which is kept in the history of recharges
+     * (see {@link #recharge(ElectricVehicle, int)}).
+     * 
+     * @param vehicle The electric vehicle to recharge.
+     * @param kwsRecharging The number of kWh to recharge.
+     * @param step The step of the simulation.
+     * @return The total cost of the recharge operation.
+     */
+    public final double recharge(ElectricVehicle vehicle, int kwsRecharging, int step){
         
         if (!canCharge(vehicle)) {
             return 0.0;
         }
 
-        setFree(false);
-        
         // Delegamos en las subclases el cálculo específico del precio
         // Template Method
         double fee=calculateFee(kwsRecharging);
         
         updateAmountCollected(fee);
-        addEvRecharged(vehicle);
+        history.add(vehicle, kwsRecharging, fee, step);
+        this.kwsRecharged += kwsRecharging;
+        notifyStationTotals(1, 0, kwsRecharging);
         
-        setFree(true); //el cargador se termina de utilizar, lo ponemos inmediatamente despues porque la carga es inmediata 
-                       //y no coinciden dos coches en el mismo cargador
+        setFree(true); //la carga es inmediata: el cargador queda libre (si ya lo estaba no se toca el índice)
         return fee;
     }
     
+    /**
+     * Informs the station that one of the indexed attributes of this charger has changed.
+     */
+    private void notifyStation(){
+        if (station != null) {
+            station.chargerUpdated(this);
+        }
+    }
+    
+    /**
+     * Informs the station of a change in the recharges, amount collected or kWh
+     * delivered by this charger, so that its totals stay up to date.
+     * 
+     * @param recharges The change in the number of recharges.
+     * @param amount The change in the amount collected.
+     * @param kws The change in the kWh delivered.
+     */
+    private void notifyStationTotals(int recharges, double amount, int kws){
+        if (station != null) {
+            station.chargerTotalsUpdated(recharges, amount, kws);
+        }
+    }
+    
+    /**
+     * Calculates the cost that {@link #recharge(ElectricVehicle, int)} would charge
+     * a vehicle, without modifying the charger.
+     * 
+     * @param vehicle The electric vehicle to recharge.
+     * @param kwsRecharging The number of kWh to recharge.
+     * @return The cost of the recharge, or 0 if this charger cannot recharge the vehicle.
+     */
+    public double quoteRecharge(ElectricVehicle vehicle, int kwsRecharging){
+        if (!canCharge(vehicle)) {
+            return 0.0;
+        }
+        return calculateFee(kwsRecharging);
+    }
+    
     /**
      * Hook method for fee calculation.
      * 
@@ -256,6 +398,7 @@ public abstract class Charger
      */
     public void updateAmountCollected(double money){
         this.amountCollected+=money;
+        notifyStationTotals(0, money, 0);
     }
     
     /**
@@ -306,11 +449,23 @@ public abstract class Charger
             return false; 
         }
         
+        return acceptsType(vehicle.getType()); 
+    }
+    
+    /**
+     * Checks whether this {@code Charger} can recharge vehicles of the given type.
+     * A charger without type restrictions accepts every type.
+     *
+     * @param type The vehicle type to be checked
+     * @return {@code true} if the charger has no restrictions or supports the type,
+     *         {@code false} otherwise
+     */
+    public boolean acceptsType(Enum<?> type){
         if (this.types.isEmpty()) {
             return true;
         }
         
-        return compareType(vehicle.getType()); 
+        return compareType(type);
     }
     
     /**
@@ -0,0 +1,365 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Ordered index of the free {@link Charger}s of a {@link ChargingStation}.
+ * <p>
+ * For every {@link VehicleTier} the index keeps the free compatible chargers
+ * ordered by fee and by speed, so that the best free charger for a tier is
+ * obtained in O(log n) instead of scanning the whole list of chargers. Ties
+ * are resolved by the position of the charger in the station, as the linear
+ * scans did.
+ * </p>
+ * <p>
+ * Availability is also tracked in bitmaps indexed by position: one for all the
+ * chargers and, per tier, one for the compatible chargers and one for the
+ * chargers that declare the tier. Availability checks and first-free lookups
+ * are then word-level operations on those bitmaps.
+ * </p>
+ * <p>
+ * The index stores a snapshot of the fee, speed, availability and supported
+ * types of each charger. {@link #update(Charger)} must be called whenever one
+ * of them changes, or {@link #updateAvailability(Charger)} when only the
+ * availability does; {@link Charger} does it through its station.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class ChargerIndex
+{
+    /**
+     * Snapshot of the indexed attributes of a charger.
+     */
+    private static final class Entry
+    {
+        private final Charger charger;
+        private final int position;
+        private final double fee;
+        private final int speed;
+        private boolean free;
+        /** Tiers the charger can recharge (an untyped charger accepts every tier). */
+        private final List<VehicleTier> tiers;
+        /** Tiers explicitly declared by the charger. */
+        private final List<VehicleTier> declaredTiers;
+
+        private Entry(Charger charger, int position)
+        {
+            this.charger = charger;
+            this.position = position;
+            this.fee = charger.getChargingFee();
+            this.speed = charger.getChargingSpeed();
+            this.free = charger.getFree();
+            this.tiers = new ArrayList<>();
+            this.declaredTiers = new ArrayList<>();
+            for (VehicleTier tier : VehicleTier.values()) {
+                if (charger.acceptsType(tier)) {
+                    tiers.add(tier);
+                }
+                if (charger.compareType(tier)) {
+                    declaredTiers.add(tier);
+                }
+            }
+        }
+    }
+
+    private static final Comparator<Entry> BY_POSITION =
+        (e1, e2) -> Integer.compare(e1.position, e2.position);
+    private static final Comparator<Entry> BY_FEE =
+        (e1, e2) -> {
+            int c = Double.compare(e1.fee, e2.fee);
+            return c != 0 ? c : BY_POSITION.compare(e1, e2);
+        };
+    private static final Comparator<Entry> BY_SPEED =
+        (e1, e2) -> {
+            int c = Integer.compare(e2.speed, e1.speed); //mayor velocidad primero
+            return c != 0 ? c : BY_POSITION.compare(e1, e2);
+        };
+
+    /**
+     * Current snapshot of every indexed charger.
+     */
+    private Map<Charger, Entry> entries;
+    /**
+     * Free chargers compatible with each tier, ordered by fee.
+     */
+    private Map<VehicleTier, TreeSet<Entry>> freeByFee;
+    /**
+     * Free chargers compatible with each tier, ordered by speed.
+     */
+    private Map<VehicleTier, TreeSet<Entry>> freeBySpeed;
+    /**
+     * Bitmap of the free chargers compatible with each tier, indexed by position.
+     */
+    private Map<VehicleTier, BitSet> freeCompatible;
+    /**
+     * Bitmap of the free chargers that declare each tier, indexed by position.
+     */
+    private Map<VehicleTier, BitSet> freeDeclared;
+    /**
+     * Bitmap of every free charger, indexed by position.
+     */
+    private BitSet free;
+    /**
+     * Indexed chargers by position, to translate the bits of the bitmaps.
+     */
+    private List<Charger> slots;
+
+    /**
+     * Constructs an empty index.
+     */
+    public ChargerIndex()
+    {
+        entries = new IdentityHashMap<>();
+        freeByFee = new EnumMap<>(VehicleTier.class);
+        freeBySpeed = new EnumMap<>(VehicleTier.class);
+        freeCompatible = new EnumMap<>(VehicleTier.class);
+        freeDeclared = new EnumMap<>(VehicleTier.class);
+        for (VehicleTier tier : VehicleTier.values()) {
+            freeByFee.put(tier, new TreeSet<>(BY_FEE));
+            freeBySpeed.put(tier, new TreeSet<>(BY_SPEED));
+            freeCompatible.put(tier, new BitSet());
+            freeDeclared.put(tier, new BitSet());
+        }
+        free = new BitSet();
+        slots = new ArrayList<>();
+    }
+
+    // ------------------------------------------------
+    // ------------------- Updates --------------------
+    // ------------------------------------------------
+
+    /**
+     * Adds a charger to the index. A charger that is already indexed keeps its
+     * original position.
+     *
+     * @param charger The charger to add.
+     * @param position The position of the charger in its station.
+     */
+    public void add(Charger charger, int position)
+    {
+        if (charger == null || entries.containsKey(charger)) {
+            return;
+        }
+        while (slots.size() <= position) {
+            slots.add(null);
+        }
+        slots.set(position, charger);
+        insert(new Entry(charger, position));
+    }
+
+    /**
+     * Refreshes the snapshot of a charger after its fee, speed, availability or
+     * supported types have changed.
+     *
+     * @param charger The charger that has changed.
+     */
+    public void update(Charger charger)
+    {
+        Entry old = entries.get(charger);
+        if (old == null) {
+            return;
+        }
+        discard(old);
+        insert(new Entry(charger, old.position));
+    }
+
+    /**
+     * Refreshes the availability of a charger whose other indexed attributes
+     * have not changed. The snapshot of the charger is kept and only moved in or
+     * out of the ordered sets and bitmaps.
+     *
+     * @param charger The charger that has become free or busy.
+     */
+    public void updateAvailability(Charger charger)
+    {
+        Entry entry = entries.get(charger);
+        if (entry == null || entry.free == charger.getFree()) {
+            return;
+        }
+        if (entry.free) {
+            unlink(entry);
+            entry.free = false;
+        } else {
+            entry.free = true;
+            link(entry);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the chargers of a station, taking their
+     * positions from the order of the list.
+     *
+     * @param chargers The chargers of the station, in order.
+     */
+    public void rebuild(List<Charger> chargers)
+    {
+        entries.clear();
+        free.clear();
+        slots.clear();
+        for (VehicleTier tier : VehicleTier.values()) {
+            freeByFee.get(tier).clear();
+            freeBySpeed.get(tier).clear();
+            freeCompatible.get(tier).clear();
+            freeDeclared.get(tier).clear();
+        }
+        for (int i = 0; i < chargers.size(); i++) {
+            add(chargers.get(i), i);
+        }
+    }
+
+    // ------------------------------------------------
+    // ------------------- Queries --------------------
+    // ------------------------------------------------
+
+    /**
+     * @param tier The tier of the vehicle.
+     * @return The cheapest free charger compatible with the tier, or {@code null} if none.
+     */
+    public Charger cheapestFree(VehicleTier tier)
+    {
+        return first(freeByFee.get(tier));
+    }
+
+    /**
+     * @param tier The tier of the vehicle.
+     * @return The fastest free charger compatible with the tier, or {@code null} if none.
+     */
+    public Charger fastestFree(VehicleTier tier)
+    {
+        return first(freeBySpeed.get(tier));
+    }
+
+    /**
+     * @param tier The tier of the vehicle.
+     * @return The first free charger, in station order, that declares the tier, or {@code null} if none.
+     */
+    public Charger firstFree(VehicleTier tier)
+    {
+        return slot(freeDeclared.get(tier).nextSetBit(0));
+    }
+
+    /**
+     * @return The first free charger in station order, or {@code null} if none.
+     */
+    public Charger firstFree()
+    {
+        return slot(free.nextSetBit(0));
+    }
+
+    /**
+     * @return {@code true} if at least one charger is free.
+     */
+    public boolean hasFree()
+    {
+        return !free.isEmpty();
+    }
+
+    /**
+     * @param tier The tier of the vehicle.
+     * @return {@code true} if at least one free charger is compatible with the tier.
+     */
+    public boolean hasFree(VehicleTier tier)
+    {
+        return !freeCompatible.get(tier).isEmpty();
+    }
+
+    /**
+     * @param tier The tier of the vehicle.
+     * @return The number of free chargers compatible with the tier.
+     */
+    public int countFree(VehicleTier tier)
+    {
+        return freeCompatible.get(tier).cardinality();
+    }
+
+    // ------------------------------------------------
+    // -------------------- Others --------------------
+    // ------------------------------------------------
+
+    /**
+     * Stores an entry and, if the charger is free, adds it to the ordered sets.
+     *
+     * @param entry The entry to store.
+     */
+    private void insert(Entry entry)
+    {
+        entries.put(entry.charger, entry);
+        if (entry.free) {
+            link(entry);
+        }
+    }
+
+    /**
+     * Removes an entry from every ordered set it belongs to.
+     *
+     * @param entry The entry to remove.
+     */
+    private void discard(Entry entry)
+    {
+        entries.remove(entry.charger);
+        if (entry.free) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Adds a free entry to the ordered sets and bitmaps of its tiers.
+     *
+     * @param entry The entry.
+     */
+    private void link(Entry entry)
+    {
+        free.set(entry.position);
+        for (VehicleTier tier : entry.tiers) {
+            freeByFee.get(tier).add(entry);
+            freeBySpeed.get(tier).add(entry);
+            freeCompatible.get(tier).set(entry.position);
+        }
+        for (VehicleTier tier : entry.declaredTiers) {
+            freeDeclared.get(tier).set(entry.position);
+        }
+    }
+
+    /**
+     * Removes an entry from the ordered sets and bitmaps of its tiers.
+     *
+     * @param entry The entry.
+     */
+    private void unlink(Entry entry)
+    {
+        free.clear(entry.position);
+        for (VehicleTier tier : entry.tiers) {
+            freeByFee.get(tier).remove(entry);
+            freeBySpeed.get(tier).remove(entry);
+            freeCompatible.get(tier).clear(entry.position);
+        }
+        for (VehicleTier tier : entry.declaredTiers) {
+            freeDeclared.get(tier).clear(entry.position);
+        }
+    }
+
+    /**
+     * @param set An ordered set of entries.
+     * @return The charger of the first entry, or {@code null} if the set is empty.
+     */
+    private static Charger first(TreeSet<Entry> set)
+    {
+        return set.isEmpty() ? null : set.first().charger;
+    }
+
+    /**
+     * @param position A position of the station, or a negative value.
+     * @return The charger at that position, or {@code null} if the position is negative.
+     */
+    private Charger slot(int position)
+    {
+        return position < 0 ? null : slots.get(position);
+    }
+}
@@ -157,6 +157,23 @@ public class ChargerTest
         assertEquals(1, charger3.getNumberEVRecharged());
     }
     
+    /**
+     * Tests that the number of recharged vehicles counts every recharge
+     * when the history only retains the most recent ones.
+     */
+    @Test
+    public void testHistoryCapacity()
+    {
+        charger2.setHistoryCapacity(2);
+        charger2.recharge(eVehicle2, 20);
+        charger2.recharge(eVehicle2, 25);
+        charger2.recharge(eVehicle2, 30);
+        assertEquals(3, charger2.getNumberEVRecharged());
+        assertEquals(2, charger2.getEVsRecharged().size());
+        assertEquals(25, charger2.getHistory().getKws(0));
+        assertEquals(75, charger2.getKwsRecharged());
+    }
+
     /**
      * Tests the {@code addEvRecharged()} method.
      * <p>
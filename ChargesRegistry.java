@@ -0,0 +1,207 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the vehicles recharged at each {@link Charger}.
+ * <p>
+ * Chargers are kept in a {@link ConcurrentHashMap}, so recharges at different
+ * chargers can be recorded from several threads without a global lock; the
+ * recharges of one charger are recorded under the lock of its own entry. Each
+ * entry keeps its vehicles in order of first recharge together with a hash set
+ * of them, so checking whether a vehicle is already registered takes constant
+ * time.
+ * </p>
+ * <p>
+ * {@link #view()} is a read-only view of the registry ordered by charger id,
+ * as reports expect. The order of the chargers is calculated again only when
+ * new chargers have been registered.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class ChargesRegistry
+{
+    /**
+     * Vehicles recharged at a charger.
+     */
+    private static final class Recharges
+    {
+        private final List<ElectricVehicle> vehicles = new ArrayList<>();
+        private final Set<ElectricVehicle> registered = new HashSet<>();
+        private final List<ElectricVehicle> view = Collections.unmodifiableList(vehicles);
+
+        /**
+         * Adds a vehicle if it is not registered yet.
+         *
+         * @param vehicle The vehicle.
+         */
+        private synchronized void add(ElectricVehicle vehicle)
+        {
+            if (registered.add(vehicle)) {
+                vehicles.add(vehicle);
+            }
+        }
+    }
+
+    /** Recharges of each charger. */
+    private final ConcurrentHashMap<Charger, Recharges> recharges;
+    /** Registered chargers ordered by id, or {@code null} if it has to be calculated. */
+    private volatile Charger[] ordered;
+    /** Entries of the view, ordered by charger id. */
+    private final Set<Map.Entry<Charger, List<ElectricVehicle>>> entries;
+    /** Read-only view of the registry. */
+    private final Map<Charger, List<ElectricVehicle>> view;
+
+    /**
+     * Constructs an empty registry.
+     */
+    public ChargesRegistry()
+    {
+        this.recharges = new ConcurrentHashMap<>();
+        this.entries = new AbstractSet<Map.Entry<Charger, List<ElectricVehicle>>>() {
+            @Override
+            public Iterator<Map.Entry<Charger, List<ElectricVehicle>>> iterator()
+            {
+                Iterator<Charger> chargers = Arrays.asList(orderedChargers()).iterator();
+                return new Iterator<Map.Entry<Charger, List<ElectricVehicle>>>() {
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return chargers.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<Charger, List<ElectricVehicle>> next()
+                    {
+                        Charger charger = chargers.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(charger, recharges.get(charger).view);
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return recharges.size();
+            }
+        };
+        this.view = new AbstractMap<Charger, List<ElectricVehicle>>() {
+            @Override
+            public Set<Map.Entry<Charger, List<ElectricVehicle>>> entrySet()
+            {
+                return entries;
+            }
+
+            @Override
+            public int size()
+            {
+                return recharges.size();
+            }
+
+            @Override
+            public boolean containsKey(Object key)
+            {
+                return key != null && recharges.containsKey(key);
+            }
+
+            @Override
+            public List<ElectricVehicle> get(Object key)
+            {
+                Recharges entry = key == null ? null : recharges.get(key);
+                return entry == null ? null : entry.view;
+            }
+        };
+    }
+
+    /**
+     * @return A read-only view of the registry, ordered by charger id.
+     */
+    public Map<Charger, List<ElectricVehicle>> view()
+    {
+        return view;
+    }
+
+    /**
+     * Registers a recharge of a vehicle at a charger. A vehicle already
+     * registered at the charger is not added again.
+     *
+     * @param charger The charger.
+     * @param vehicle The vehicle.
+     */
+    public void record(Charger charger, ElectricVehicle vehicle)
+    {
+        Recharges entry = recharges.get(charger);
+        if (entry == null) {
+            Recharges created = new Recharges();
+            entry = recharges.putIfAbsent(charger, created);
+            if (entry == null) {
+                entry = created;
+            }
+        }
+        entry.add(vehicle);
+    }
+
+    /**
+     * @return A copy of the registry, with copies of its lists.
+     */
+    public Map<Charger, List<ElectricVehicle>> copy()
+    {
+        Map<Charger, List<ElectricVehicle>> copy = new HashMap<>();
+        for (Map.Entry<Charger, Recharges> entry : recharges.entrySet()) {
+            synchronized (entry.getValue()) {
+                copy.put(entry.getKey(), new ArrayList<>(entry.getValue().vehicles));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replaces the contents of the registry with a copy made by {@link #copy()}.
+     *
+     * @param copy The copy of the registry.
+     */
+    public void restore(Map<Charger, List<ElectricVehicle>> copy)
+    {
+        clear();
+        for (Map.Entry<Charger, List<ElectricVehicle>> entry : copy.entrySet()) {
+            for (ElectricVehicle vehicle : entry.getValue()) {
+                record(entry.getKey(), vehicle);
+            }
+        }
+    }
+
+    /**
+     * Removes every recharge from the registry.
+     */
+    public void clear()
+    {
+        recharges.clear();
+        ordered = null;
+    }
+
+    /**
+     * @return The registered chargers ordered by id, calculating the order again
+     *         if chargers were registered since it was calculated.
+     */
+    private Charger[] orderedChargers()
+    {
+        Charger[] chargers = ordered;
+        if (chargers == null || chargers.length != recharges.size()) { //solo se añaden cargadores
+            chargers = recharges.keySet().toArray(new Charger[0]);
+            Arrays.sort(chargers, (c1, c2) -> c1.getId().compareTo(c2.getId()));
+            ordered = chargers;
+        }
+        return chargers;
+    }
+}
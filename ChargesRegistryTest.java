@@ -0,0 +1,140 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for {@link ChargesRegistry}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Ordering the view by charger id and the vehicles by first recharge.</li>
+ *   <li>Ignoring vehicles already registered at a charger.</li>
+ *   <li>Recording recharges from several threads at the same time.</li>
+ *   <li>Copying and restoring the registry.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class ChargesRegistryTest
+{
+    /** The registry under test. */
+    private ChargesRegistry registry;
+
+    /** Chargers used in tests, created in reverse order of id. */
+    private List<Charger> chargers;
+
+    /** Vehicles used in tests. */
+    private List<ElectricVehicle> vehicles;
+
+    /**
+     * Default constructor for test class ChargesRegistryTest.
+     */
+    public ChargesRegistryTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        EVCompany company = EVCompany.getInstance();
+        registry = new ChargesRegistry();
+        chargers = new ArrayList<>();
+        for (int i = 3; i >= 0; i--) {
+            chargers.add(new StandardCharger("CC0" + i, 40, 0.25));
+        }
+        vehicles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            vehicles.add(new StandardEV(company, new Location(1, 1), new Location(5, 5), "EV" + i, i + "CCC", 50));
+        }
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        registry = null;
+        chargers = null;
+        vehicles = null;
+    }
+
+    /**
+     * Tests that the view is ordered by charger id, keeps the vehicles in order of
+     * first recharge and ignores repeated vehicles.
+     */
+    @Test
+    public void testOrderAndDuplicates()
+    {
+        for (Charger charger : chargers) {
+            registry.record(charger, vehicles.get(2));
+            registry.record(charger, vehicles.get(1));
+            registry.record(charger, vehicles.get(2));
+        }
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<Charger, List<ElectricVehicle>> entry : registry.view().entrySet()) {
+            ids.add(entry.getKey().getId());
+            assertEquals(List.of(vehicles.get(2), vehicles.get(1)), entry.getValue());
+        }
+        assertEquals(List.of("CC00", "CC01", "CC02", "CC03"), ids);
+        assertTrue(registry.view().containsKey(chargers.get(0)));
+        assertFalse(registry.view().containsKey("CC00"));
+        assertNull(registry.view().get(null));
+        assertThrows(UnsupportedOperationException.class, () -> registry.view().get(chargers.get(0)).add(vehicles.get(3)));
+    }
+
+    /**
+     * Tests that recharges recorded from several threads at the same time are all registered once.
+     */
+    @Test
+    public void testConcurrentRecord() throws InterruptedException
+    {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (ElectricVehicle vehicle : vehicles) {
+                    for (Charger charger : chargers) {
+                        registry.record(charger, vehicle);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(chargers.size(), registry.view().size());
+        for (Charger charger : chargers) {
+            assertEquals(vehicles.size(), registry.view().get(charger).size());
+        }
+    }
+
+    /**
+     * Tests that restoring a copy brings back the registry at the time of the copy.
+     */
+    @Test
+    public void testCopyRestore()
+    {
+        registry.record(chargers.get(0), vehicles.get(0));
+        String saved = registry.view().toString();
+        Map<Charger, List<ElectricVehicle>> copy = registry.copy();
+        registry.record(chargers.get(1), vehicles.get(1));
+        registry.record(chargers.get(0), vehicles.get(2));
+        registry.restore(copy);
+        assertEquals(saved, registry.view().toString());
+        registry.clear();
+        assertTrue(registry.view().isEmpty());
+    }
+}
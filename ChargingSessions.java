@@ -0,0 +1,268 @@
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Charging sessions that last several simulation steps.
+ * <p>
+ * Without sessions a recharge is instantaneous: the charger is occupied and
+ * released within the same call, so chargers never constrain the vehicles.
+ * When an {@link EVCompany} has sessions (see
+ * {@link EVCompany#setChargingSessions(ChargingSessions)}), a vehicle that
+ * arrives at its recharging station occupies a free compatible charger for
+ * {@link #duration(int, int)} steps, computed from the kWh it needs and the
+ * speed of the charger, and stays at the station meanwhile. If no compatible
+ * charger is free it joins the waiting queue of the station (see
+ * {@link ChargingStation#getWaitingVehicles()}) until one is released.
+ * </p>
+ * <p>
+ * Session completions are scheduled on a {@link TimingWheel}, so each step only
+ * touches the sessions that end in it. When a session ends the recharge is
+ * completed as an instantaneous one would be (see
+ * {@link ElectricVehicle#load(int, Charger)}), and the charger is offered to the
+ * first waiting vehicle of the station that can use it.
+ * </p>
+ * <p>
+ * The sessions report what happens to a {@link StepEventSink}: a
+ * {@link StepEvent.Type#CHARGING} event when a session starts, a
+ * {@link StepEvent.Type#WAITING} event when a vehicle joins a queue and a
+ * {@link StepEvent.Type#RECHARGING} event, with the kWh and the cost, in the
+ * step the recharge is actually completed.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class ChargingSessions
+{
+    /**
+     * State of a vehicle waiting for a charger.
+     */
+    private static final int WAITING = -1;
+
+    /**
+     * Wheel with the step at which each session ends.
+     */
+    private TimingWheel wheel;
+
+    /**
+     * Vehicle and charger of each session, by session id.
+     */
+    private ElectricVehicle[] vehicles;
+    private Charger[] chargers;
+
+    /**
+     * Session ids released, to be reused.
+     */
+    private int[] freeIds;
+    private int freeCount;
+
+    /**
+     * Number of session ids ever used.
+     */
+    private int usedIds;
+
+    /**
+     * Session id of each vehicle that is charging, or {@link #WAITING}.
+     */
+    private Map<ElectricVehicle, Integer> busy;
+
+    /**
+     * Number of vehicles waiting at the stations.
+     */
+    private int waiting;
+
+    /**
+     * Constructs sessions whose clock starts at step 0.
+     */
+    public ChargingSessions()
+    {
+        this.wheel = new TimingWheel(0);
+        this.vehicles = new ElectricVehicle[16];
+        this.chargers = new Charger[16];
+        this.freeIds = new int[16];
+        this.busy = new IdentityHashMap<>();
+    }
+
+    // -------------------- Getters --------------------
+
+    /**
+     * @return The number of sessions in progress.
+     */
+    public int getActiveSessions()
+    {
+        return wheel.size();
+    }
+
+    /**
+     * @return The number of vehicles waiting for a charger.
+     */
+    public int getWaitingCount()
+    {
+        return waiting;
+    }
+
+    /**
+     * @param vehicle A vehicle.
+     * @return {@code true} if the vehicle is charging or waiting for a charger.
+     */
+    public boolean isBusy(ElectricVehicle vehicle)
+    {
+        return busy.containsKey(vehicle);
+    }
+
+    /**
+     * @param vehicle A vehicle.
+     * @return {@code true} if the vehicle is waiting for a charger.
+     */
+    public boolean isWaiting(ElectricVehicle vehicle)
+    {
+        Integer id = busy.get(vehicle);
+        return id != null && id == WAITING;
+    }
+
+    /**
+     * @param vehicle A vehicle.
+     * @return The charger where the vehicle is charging, or {@code null} if it is not charging.
+     */
+    public Charger getCharger(ElectricVehicle vehicle)
+    {
+        Integer id = busy.get(vehicle);
+        return id == null || id == WAITING ? null : chargers[id];
+    }
+
+    // -------------------- Others --------------------
+
+    /**
+     * Computes the number of steps a charger needs to deliver an amount of energy.
+     *
+     * @param kws The kWh to deliver.
+     * @param chargingSpeed The kWh the charger delivers per step.
+     * @return The number of steps, at least 1.
+     */
+    public static int duration(int kws, int chargingSpeed)
+    {
+        return Math.max(1, (kws + chargingSpeed - 1) / chargingSpeed);
+    }
+
+    /**
+     * Handles the arrival of a vehicle at its recharging station: it starts a
+     * session at a free charger chosen by the vehicle (see
+     * {@link ElectricVehicle#getFreeChargerFromStation()}), or joins the waiting
+     * queue of the station if none is free. Vehicles that are already busy, or
+     * that no charger of the station can recharge, are ignored.
+     *
+     * @param vehicle The vehicle, at its recharging location.
+     * @param step The current simulation step.
+     * @param sink The receiver of the {@link StepEvent.Type#CHARGING} or
+     *             {@link StepEvent.Type#WAITING} event, or {@code null}.
+     * @return {@code true} if the vehicle is now charging or waiting.
+     */
+    public boolean arrive(ElectricVehicle vehicle, int step, StepEventSink sink)
+    {
+        if (busy.containsKey(vehicle)) {
+            return true;
+        }
+        ChargingStation station = vehicle.getCompany().getChargingStation(vehicle.getRechargingLocation());
+        if (station == null) {
+            return false;
+        }
+        Charger charger = vehicle.getFreeChargerFromStation();
+        if (charger != null) {
+            start(vehicle, charger, step, sink);
+            return true;
+        }
+        for (Charger c : station.getChargers()) {
+            if (c.canCharge(vehicle)) {
+                station.addWaitingVehicle(vehicle);
+                busy.put(vehicle, WAITING);
+                waiting++;
+                if (sink != null) {
+                    sink.onStepEvent(StepEvent.waiting(vehicle, step));
+                }
+                return true;
+            }
+        }
+        return false; //ningún cargador de la estación le sirve
+    }
+
+    /**
+     * Ends the sessions that finish up to a step, completing their recharges and
+     * giving the released chargers to the waiting vehicles. Must be called once
+     * per step, before the vehicles act.
+     *
+     * @param step The current simulation step.
+     * @param sink The receiver of the {@link StepEvent.Type#RECHARGING} events of the
+     *             completed recharges and the {@link StepEvent.Type#CHARGING} events of the
+     *             sessions started, or {@code null}.
+     */
+    public void advance(int step, StepEventSink sink)
+    {
+        wheel.advance(step, id -> finish(id, step, sink));
+    }
+
+    /**
+     * Occupies a charger with a vehicle and schedules the end of the session.
+     *
+     * @param vehicle The vehicle.
+     * @param charger A free charger that can recharge it.
+     * @param step The current simulation step.
+     * @param sink The receiver of the {@link StepEvent.Type#CHARGING} event, or {@code null}.
+     */
+    private void start(ElectricVehicle vehicle, Charger charger, int step, StepEventSink sink)
+    {
+        int id = freeCount > 0 ? freeIds[--freeCount] : usedIds++;
+        if (id == vehicles.length) {
+            vehicles = Arrays.copyOf(vehicles, id * 2);
+            chargers = Arrays.copyOf(chargers, id * 2);
+        }
+        vehicles[id] = vehicle;
+        chargers[id] = charger;
+        busy.put(vehicle, id);
+        charger.setFree(false);
+        int kws = vehicle.getBatteryCapacity() - vehicle.getBatteryLevel();
+        wheel.schedule(id, (long) step + duration(kws, charger.getChargingSpeed()));
+        if (sink != null) {
+            sink.onStepEvent(StepEvent.charging(vehicle, step, charger));
+        }
+    }
+
+    /**
+     * Ends a session: releases the charger, completes the recharge of the vehicle
+     * and starts the session of the first waiting vehicle that can use a charger.
+     *
+     * @param id The session id.
+     * @param step The current simulation step.
+     * @param sink The receiver of the events, or {@code null}.
+     */
+    private void finish(int id, int step, StepEventSink sink)
+    {
+        ElectricVehicle vehicle = vehicles[id];
+        Charger charger = chargers[id];
+        vehicles[id] = null;
+        chargers[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+        busy.remove(vehicle);
+        charger.setFree(true);
+        ChargingStation station = charger.getStation();
+        if (sink != null) {
+            sink.onStepEvent(StepEvent.recharging(vehicle, step, charger)); //antes de cargar: lleva los kWh que faltan
+        }
+        vehicle.load(step, charger); //la recarga se completa como una instantánea
+
+        if (station != null) {
+            for (ElectricVehicle next : station.getWaitingVehicles()) {
+                Charger free = next.getFreeChargerFromStation();
+                if (free != null) {
+                    station.removeWaitingVehicle(next);
+                    waiting--;
+                    start(next, free, step, sink);
+                    return;
+                }
+            }
+        }
+    }
+}
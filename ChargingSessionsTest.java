@@ -0,0 +1,266 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for {@link ChargingSessions}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Computing the duration of a session from the kWh and the charging speed.</li>
+ *   <li>Occupying chargers during sessions and queueing vehicles at busy stations.</li>
+ *   <li>Reporting waits, sessions and recharges in the steps they happen.</li>
+ *   <li>Stepping vehicles with sessions in parallel with the same events and result.</li>
+ *   <li>Rejecting column engines when recharges are not instantaneous.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class ChargingSessionsTest
+{
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /** The sessions under test. */
+    private ChargingSessions sessions;
+
+    /**
+     * Default constructor for test class ChargingSessionsTest.
+     */
+    public ChargingSessionsTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+        company.reset();
+        sessions = new ChargingSessions();
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        company.reset();
+        company = null;
+        sessions = null;
+    }
+
+    /**
+     * Executes steps of every vehicle of the company, in row order, ending the
+     * sessions at the beginning of each step.
+     *
+     * @param from The first step.
+     * @param to The step after the last one.
+     */
+    private void run(int from, int to)
+    {
+        run(from, to, null);
+    }
+
+    /**
+     * Executes steps of every vehicle of the company, in row order, ending the
+     * sessions at the beginning of each step and rendering every event.
+     *
+     * @param from The first step.
+     * @param to The step after the last one.
+     * @param logs The list that receives the rendered events, or {@code null}.
+     */
+    private void run(int from, int to, List<String> logs)
+    {
+        StepEventSink sink = logs == null ? null : event -> logs.add(event.render());
+        FleetStore fleet = company.getFleet();
+        for (int step = from; step < to; step++) {
+            company.advanceChargingSessions(step, sink);
+            for (int row = 0; row < fleet.size(); row++) {
+                fleet.getVehicle(row).act(step, sink);
+            }
+        }
+    }
+
+    /**
+     * Tests the duration of the sessions.
+     */
+    @Test
+    public void testDuration()
+    {
+        assertEquals(2, ChargingSessions.duration(25, 20));
+        assertEquals(1, ChargingSessions.duration(20, 20));
+        assertEquals(1, ChargingSessions.duration(0, 20));
+        assertEquals(5, ChargingSessions.duration(81, 20));
+    }
+
+    /**
+     * Tests that a vehicle occupies the only charger of a station while it charges,
+     * that a second one waits in the queue of the station counting idle steps, and
+     * that it takes the charger when the first session ends.
+     */
+    @Test
+    public void testContention()
+    {
+        ChargingStation station = new ChargingStation("Cáceres", "CC00", new Location(5, 5));
+        Charger charger = new StandardCharger("CC00_000", 20, 0.25);
+        station.addCharger(charger);
+        company.addChargingStation(station);
+        ElectricVehicle first = new StandardEV(company, new Location(0, 0), new Location(30, 30), "EV1", "1CCC", 50);
+        ElectricVehicle second = new StandardEV(company, new Location(0, 0), new Location(30, 30), "EV2", "2CCC", 50);
+        for (ElectricVehicle ev : List.of(first, second)) {
+            ev.calculateRoute();
+            company.addElectricVehicle(ev);
+        }
+        company.setChargingSessions(sessions);
+
+        run(0, 6); //ambos llegan en el paso 4; la primera carga dura 2 pasos
+        assertSame(charger, sessions.getCharger(first));
+        assertFalse(charger.getFree());
+        assertTrue(sessions.isWaiting(second));
+        assertEquals(List.of(second), new ArrayList<>(station.getWaitingVehicles()));
+        assertEquals(1, second.getIdleCount());
+        assertEquals(0, first.getChargesCount());
+
+        run(6, 8);
+        assertFalse(sessions.isBusy(first));
+        assertEquals(1, first.getChargesCount());
+        assertEquals(50, first.getBatteryLevel());
+        assertSame(charger, sessions.getCharger(second));
+        assertTrue(station.getWaitingVehicles().isEmpty());
+        assertEquals(1, sessions.getActiveSessions());
+        assertEquals(0, sessions.getWaitingCount());
+        assertEquals(1, second.getIdleCount());
+
+        run(8, 9);
+        assertEquals(1, second.getChargesCount());
+        assertTrue(charger.getFree());
+        assertEquals(2, charger.getNumberEVRecharged());
+        assertEquals(0, sessions.getActiveSessions());
+        assertEquals(List.of(first, second), company.getChargesRegistry().get(charger));
+    }
+
+    /**
+     * Tests that a queued vehicle is reported as waiting, that the start of each
+     * session is reported when it happens, and that each recharge is reported
+     * with its kWh and cost in the step the session ends.
+     */
+    @Test
+    public void testEventsOfQueuedVehicles()
+    {
+        ChargingStation station = new ChargingStation("Cáceres", "CC00", new Location(5, 5));
+        station.addCharger(new StandardCharger("CC00_000", 20, 0.25));
+        company.addChargingStation(station);
+        for (String plate : List.of("1CCC", "2CCC")) {
+            ElectricVehicle ev = new StandardEV(company, new Location(0, 0), new Location(30, 30), "EV", plate, 50);
+            ev.calculateRoute();
+            company.addElectricVehicle(ev);
+        }
+        company.setChargingSessions(sessions);
+
+        List<String> logs = new ArrayList<>();
+        run(0, 9, logs);
+        List<String> sessionLogs = new ArrayList<>();
+        for (String line : logs) {
+            if (line.contains("charg") || line.contains("recharges")) {
+                sessionLogs.add(line);
+            }
+        }
+        assertEquals(List.of(
+            "(step: 4 - StandardEV: 1CCC starts charging at StandardCharger: CC00_000 ********)",
+            "(step: 4 - StandardEV: 2CCC waits for a free charger at 5-5 ********)",
+            "(step: 6 - StandardEV: 1CCC recharges: 25kwh at StandardCharger: CC00_000 with cost: 6.25€ ********)",
+            "(step: 6 - StandardEV: 2CCC starts charging at StandardCharger: CC00_000 ********)",
+            "(step: 8 - StandardEV: 2CCC recharges: 25kwh at StandardCharger: CC00_000 with cost: 6.25€ ********)"),
+            sessionLogs);
+    }
+
+    /**
+     * Tests that vehicles with sessions stepped by a {@link ParallelStepEngine} emit
+     * the same events and reach the same state as stepping them one after another.
+     */
+    @Test
+    public void testParallelMatchesSequential()
+    {
+        List<String> expected = new ArrayList<>();
+        List<String> expectedLogs = new ArrayList<>();
+        createWorld();
+        run(0, 80, expectedLogs);
+        snapshot(expected);
+        assertTrue(expectedLogs.stream().anyMatch(line -> line.contains("waits for a free charger")));
+
+        createWorld();
+        List<ElectricVehicle> vehicles = new ArrayList<>();
+        for (int row = 0; row < company.getFleet().size(); row++) {
+            vehicles.add(company.getFleet().getVehicle(row));
+        }
+        ParallelStepEngine engine = new ParallelStepEngine(vehicles, 3);
+        List<String> logs = new ArrayList<>();
+        try {
+            for (int step = 0; step < 80; step++) {
+                company.advanceChargingSessions(step, event -> logs.add(event.render()));
+                for (List<StepEvent> events : engine.step(step)) {
+                    for (StepEvent event : events) {
+                        logs.add(event.render());
+                    }
+                }
+            }
+        } finally {
+            engine.shutdown();
+        }
+        List<String> actual = new ArrayList<>();
+        snapshot(actual);
+        assertEquals(expected, actual);
+        assertEquals(expectedLogs, logs);
+    }
+
+    /**
+     * Tests that the column engines refuse to step a fleet with charging sessions.
+     */
+    @Test
+    public void testColumnEnginesRejected()
+    {
+        createWorld();
+        assertThrows(IllegalStateException.class, () -> new FleetStepEngine(company.getFleet()).run(0, 1));
+        assertThrows(IllegalStateException.class, () -> new DiscreteEventEngine(company.getFleet()).run(0, 1));
+    }
+
+    /**
+     * Creates a generated world with a single charger per station, so vehicles
+     * compete for them, and gives the company charging sessions.
+     */
+    private void createWorld()
+    {
+        company.reset();
+        new ScenarioGenerator(5, 30, 30, 150, 6, 1, ScenarioGenerator.evenTierMix(),
+            ScenarioGenerator.Distribution.CLUSTERED).populate(company);
+        sessions = new ChargingSessions();
+        company.setChargingSessions(sessions);
+    }
+
+    /**
+     * Adds a textual snapshot of the vehicles, stations and sessions of the company to a list.
+     *
+     * @param state The list that receives the snapshot.
+     */
+    private void snapshot(List<String> state)
+    {
+        for (ElectricVehicle ev : company.getVehicles()) {
+            state.add(ev + " " + sessions.isBusy(ev) + " " + sessions.isWaiting(ev));
+        }
+        for (ChargingStation station : company.getCityStations()) {
+            state.add(station.getCompleteInfo() + station.getWaitingVehicles());
+        }
+        state.add(sessions.getActiveSessions() + " " + sessions.getWaitingCount());
+    }
+}
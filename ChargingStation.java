@@ -1,3 +1,5 @@
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.List;
 import java.util.Collections;
 import java.util.ArrayList;
@@ -40,6 +42,31 @@ public class ChargingStation
      */
     private List<Charger> chargers;
     
+    /**
+     * {@link EVCompany} that manages this station, or {@code null} if it has not been registered.
+     * It is notified when the station is relocated so that its indexes stay consistent.
+     */
+    private EVCompany company;
+    
+    /**
+     * Ordered index of the free {@link Charger}s of this station, by tier, fee and speed.
+     */
+    private ChargerIndex chargerIndex;
+    
+    /**
+     * Totals of the {@link Charger}s of this station, kept up to date by the chargers
+     * so that reading them does not iterate the chargers.
+     */
+    private int numberEVRecharged;
+    private double amountCollected;
+    private int kwsRecharged;
+    
+    /**
+     * {@link ElectricVehicle}s waiting for a free {@link Charger}, in order of arrival.
+     * Only used with {@link ChargingSessions}.
+     */
+    private ArrayDeque<ElectricVehicle> waitingVehicles;
+    
     /**
      * Constructs a new {@link ChargingStation}.
      *
@@ -64,6 +91,8 @@ public class ChargingStation
             this.city = city;
             this.location = location;
             chargers = new ArrayList<Charger>();
+            chargerIndex = new ChargerIndex();
+            waitingVehicles = new ArrayDeque<>();
         } catch(NullPointerException e){
             System.err.println("Error in the creation of the ChargingStation: " + e.getMessage());
         }
@@ -114,11 +143,29 @@ public class ChargingStation
      * @return The total number of recharge operations performed.
      */
     public int getNumberEVRecharged(){
-        int total = 0;
-        for(Charger c: chargers){
-            total += c.getNumberEVRecharged();
-        }
-        return total;
+        return numberEVRecharged;
+    }
+    
+    /**
+     * @return The total amount of money collected by the {@link Charger}s of this station.
+     */
+    public double getAmountCollected(){
+        return amountCollected;
+    }
+    
+    /**
+     * @return The total kWh delivered by the {@link Charger}s of this station.
+     */
+    public int getKwsRecharged(){
+        return kwsRecharged;
+    }
+    
+    /**
+     * @return An unmodifiable view of the {@link ElectricVehicle}s waiting for a free
+     *         {@link Charger} at this station, in order of arrival (see {@link ChargingSessions}).
+     */
+    public Collection<ElectricVehicle> getWaitingVehicles(){
+        return Collections.unmodifiableCollection(waitingVehicles);
     }
     
     // -------------------------------------------------
@@ -131,7 +178,42 @@ public class ChargingStation
      * @param location The new location.
      */
     public void setLocation(Location location){
+        Location oldLocation = this.location;
         this.location = location;
+        if (company != null) {
+            company.relocateChargingStation(this, oldLocation);
+        }
+    }
+    
+    /**
+     * Sets the {@link EVCompany} that manages this station.
+     * Invoked by {@link EVCompany} when the station is added or removed.
+     *
+     * @param company The managing company, or {@code null} to detach the station.
+     */
+    void setCompany(EVCompany company){
+        this.company = company;
+    }
+    
+    /**
+     * Adds a vehicle at the end of the waiting queue of this station.
+     * Invoked by {@link ChargingSessions}.
+     *
+     * @param vehicle The vehicle.
+     */
+    void addWaitingVehicle(ElectricVehicle vehicle){
+        waitingVehicles.addLast(vehicle);
+    }
+    
+    /**
+     * Removes a vehicle from the waiting queue of this station.
+     * Invoked by {@link ChargingSessions}.
+     *
+     * @param vehicle The vehicle.
+     * @return {@code true} if the vehicle was waiting.
+     */
+    boolean removeWaitingVehicle(ElectricVehicle vehicle){
+        return waitingVehicles.remove(vehicle);
     }
     
     // ------------------------------------------------
@@ -145,13 +227,37 @@ public class ChargingStation
      */
     public Charger getFreeCharger()
     {
-        Charger c=null;
-        for(int i=0; c == null && i < chargers.size();i++){
-            if(chargers.get(i).getFree()){
-                c = chargers.get(i);
+        return chargerIndex.firstFree();
+    }
+    
+    /**
+     * Checks whether any {@link Charger} of the station is free.
+     *
+     * @return {@code true} if at least one charger is free, {@code false} otherwise.
+     */
+    public boolean hasFreeCharger()
+    {
+        return chargerIndex.hasFree();
+    }
+    
+    /**
+     * Checks whether any free {@link Charger} of the station can recharge a vehicle type.
+     * Chargers without type restrictions accept every type.
+     *
+     * @param typeVehicle The vehicle type.
+     * @return {@code true} if at least one free charger is compatible, {@code false} otherwise.
+     */
+    public boolean hasFreeCharger(Enum<?> typeVehicle)
+    {
+        if (typeVehicle instanceof VehicleTier) {
+            return chargerIndex.hasFree((VehicleTier) typeVehicle);
+        }
+        for (Charger c : chargers) {
+            if (c.getFree() && c.acceptsType(typeVehicle)) {
+                return true;
             }
-        }  
-        return c;
+        }
+        return false;
     }
     
     /**
@@ -162,6 +268,9 @@ public class ChargingStation
      */
     public Charger getFreeCharger(Enum typeVehicle)
     {
+        if (typeVehicle instanceof VehicleTier) {
+            return chargerIndex.firstFree((VehicleTier) typeVehicle);
+        }
         Charger c=null;
         for(int i=0; c == null && i < chargers.size();i++){
             Charger actual=chargers.get(i);
@@ -227,16 +336,88 @@ public class ChargingStation
     public void addCharger(Charger charger)
     {
         this.chargers.add(charger);
+        chargerIndex.add(charger, chargers.size() - 1);
+        charger.setStation(this);
+        chargerTotalsUpdated(charger.getNumberEVRecharged(), charger.getAmountCollected(), charger.getKwsRecharged());
+    }
+    
+    /**
+     * Recalculates the totals of this station from its {@link Charger}s, after their
+     * recharges have been replaced in bulk (see {@link WorldSnapshot#restore(EVCompany)}).
+     * Adding the changes of every restore would accumulate rounding errors in the amount.
+     */
+    void recalculateTotals()
+    {
+        int recharges = 0;
+        double amount = 0;
+        int kws = 0;
+        for (Charger charger : chargers) {
+            recharges += charger.getNumberEVRecharged();
+            amount += charger.getAmountCollected();
+            kws += charger.getKwsRecharged();
+        }
+        int oldRecharges = numberEVRecharged;
+        numberEVRecharged = recharges;
+        amountCollected = amount;
+        kwsRecharged = kws;
+        if (recharges != oldRecharges && company != null) {
+            company.stationRankingChanged(this);
+        }
+    }
+    
+    /**
+     * Adds the changes in the totals of one of the {@link Charger}s of this station.
+     * Invoked by the charger itself.
+     *
+     * @param recharges The change in the number of recharges.
+     * @param amount The change in the amount collected.
+     * @param kws The change in the kWh delivered.
+     */
+    void chargerTotalsUpdated(int recharges, double amount, int kws)
+    {
+        numberEVRecharged += recharges;
+        amountCollected += amount;
+        kwsRecharged += kws;
+        if (recharges != 0 && company != null) {
+            company.stationRankingChanged(this); //la compañía ordena las estaciones por recargas
+        }
+    }
+    
+    /**
+     * Updates the charger index after a {@link Charger} of this station has changed
+     * its speed, fee, availability or supported types.
+     * Invoked by the charger itself.
+     *
+     * @param charger The charger that has changed.
+     */
+    void chargerUpdated(Charger charger)
+    {
+        chargerIndex.update(charger);
+    }
+    
+    /**
+     * Informs the station that one of its chargers has become free or busy,
+     * without changes in its other indexed attributes.
+     *
+     * @param charger The charger whose availability has changed.
+     */
+    void chargerAvailabilityUpdated(Charger charger)
+    {
+        chargerIndex.updateAvailability(charger);
     }
     
     /**
      * Searches for the cheapest charger in the station that is free and compatible with the vehicle.
-     * This method iterates through the available chargers and selects the one with the lowest fee.
+     * The charger is taken from the per-tier index ordered by fee; if several chargers share
+     * the lowest fee, the first one in the station is selected.
      *
      * @param vehicle The {@link ElectricVehicle} requesting the charge.
      * @return The cheapest compatible {@link Charger} available, or {@code null} if none are found.
      */
     public Charger getCheapestCharger(ElectricVehicle vehicle) {
+        if (vehicle != null && vehicle.getType() instanceof VehicleTier) {
+            return chargerIndex.cheapestFree((VehicleTier) vehicle.getType());
+        }
         Charger best = null;
         for (Charger c : chargers) {
             if (c.getFree() && c.canCharge(vehicle)) {
@@ -250,12 +431,16 @@ public class ChargingStation
 
     /**
      * Searches for the fastest charger in the station that is free and compatible with the vehicle.
-     * This method iterates through the available chargers and selects the one with the highest charging speed.
+     * The charger is taken from the per-tier index ordered by speed; if several chargers share
+     * the highest speed, the first one in the station is selected.
      *
      * @param vehicle The {@link ElectricVehicle} requesting the charge.
      * @return The fastest compatible {@link Charger} available, or {@code null} if none are found.
      */
     public Charger getFastestCharger(ElectricVehicle vehicle) {
+        if (vehicle != null && vehicle.getType() instanceof VehicleTier) {
+            return chargerIndex.fastestFree((VehicleTier) vehicle.getType());
+        }
         Charger best = null;
         for (Charger c : chargers) {
             if (c.getFree() && c.canCharge(vehicle)) {
@@ -305,5 +490,6 @@ public class ChargingStation
      */
     public void orderList(){
         Collections.sort(chargers, new ComparatorChargers());
+        chargerIndex.rebuild(chargers); //las posiciones han cambiado
     }
 }
\ No newline at end of file
@@ -11,7 +11,9 @@ import org.junit.jupiter.api.Test;
  *   <li>Station construction and property getters.</li>
  *   <li>Adding chargers to a station.</li>
  *   <li>Retrieving a free charger using {@code getFreeCharger()}.</li>
+ *   <li>Keeping the order of the chargers when their availability changes.</li>
  *   <li>Counting the total number of recharged vehicles across all chargers.</li>
+ *   <li>Keeping the totals of recharges, amount collected and kWh of the station.</li>
  *   <li>Retrieving complete information in a formatted string.</li>
  * </ul>
  * </p>
@@ -150,6 +152,37 @@ import org.junit.jupiter.api.Test;
         assertEquals(0, station2.getNumberEVRecharged());
     }
     
+    /**
+     * Tests that the totals of the station (recharges, amount collected and kWh)
+     * follow the changes of its chargers, including chargers added with previous recharges.
+     */
+    @Test
+    public void testStationTotals()
+    {
+        assertEquals(1, station1.getNumberEVRecharged());
+        assertEquals(5.0, station1.getAmountCollected(), 1e-9);
+        assertEquals(20, station1.getKwsRecharged());
+        
+        charger3.recharge(eVehicle1, 10);
+        assertEquals(2, station1.getNumberEVRecharged());
+        assertEquals(7.0, station1.getAmountCollected(), 1e-9);
+        assertEquals(30, station1.getKwsRecharged());
+        
+        charger4.addEvRecharged(eVehicle1);
+        charger4.setAmountCollected(4.0);
+        charger4.updateAmountCollected(1.0);
+        assertEquals(3, station1.getNumberEVRecharged());
+        assertEquals(12.0, station1.getAmountCollected(), 1e-9);
+        assertEquals(30, station1.getKwsRecharged());
+        
+        Charger used = new StandardCharger("CH5", 40, 0.5);
+        used.recharge(eVehicle1, 10);
+        station2.addCharger(used);
+        assertEquals(1, station2.getNumberEVRecharged());
+        assertEquals(5.0, station2.getAmountCollected(), 1e-9);
+        assertEquals(10, station2.getKwsRecharged());
+    }
+    
     /**
      * Tests the {@link ChargingStation} constructor and basic getters.
      * <p>
@@ -245,6 +278,101 @@ import org.junit.jupiter.api.Test;
         assertNull(result, "Un PriorityEV no debe recibir un StandardCharger aunque esté libre");
     }
     
+    /**
+     * Tests that the cheapest and fastest charger queries follow changes of
+     * fee, speed and availability made after the chargers were added.
+     */
+    @Test
+    public void testChargerIndexUpdates()
+    {
+        charger1.setChargingFee(0.10);
+        assertEquals(charger1, station1.getCheapestCharger(eVehicle1));
+        
+        charger3.setChargingSpeed(90);
+        assertEquals(charger3, station1.getFastestCharger(eVehicle1));
+        
+        charger1.setFree(false);
+        assertEquals(charger3, station1.getCheapestCharger(eVehicle1));
+        assertEquals(charger2, station1.getFreeCharger());
+        
+        charger1.setFree(true);
+        assertEquals(charger1, station1.getCheapestCharger(eVehicle1));
+        assertEquals(charger1, station1.getFreeCharger(VehicleTier.STANDARD));
+    }
+    
+    /**
+     * Tests {@code hasFreeCharger()} with and without a vehicle type.
+     */
+    @Test
+    public void testHasFreeCharger()
+    {
+        assertTrue(station1.hasFreeCharger());
+        assertTrue(station1.hasFreeCharger(VehicleTier.VTC));
+        assertFalse(station1.hasFreeCharger(VehicleTier.PREMIUM));
+        assertFalse(station2.hasFreeCharger());
+        
+        charger1.setFree(false);
+        charger2.setFree(false);
+        charger3.setFree(false);
+        assertTrue(station1.hasFreeCharger(VehicleTier.STANDARD));
+        charger4.setFree(false);
+        assertFalse(station1.hasFreeCharger());
+        assertFalse(station1.hasFreeCharger(VehicleTier.STANDARD));
+        assertNull(station1.getFreeCharger());
+        
+        charger4.recharge(eVehicle1, 10);
+        assertTrue(station1.hasFreeCharger(VehicleTier.STANDARD));
+        assertEquals(charger4, station1.getFreeCharger());
+    }
+    
+    /**
+     * Tests that a charger that becomes busy and free again keeps its place in the
+     * order by fee, and that recharging a free charger leaves it free.
+     */
+    @Test
+    public void testAvailabilityKeepsOrder()
+    {
+        assertEquals(charger3, station1.getCheapestCharger(eVehicle1));
+        charger3.setFree(false);
+        assertEquals(charger1, station1.getCheapestCharger(eVehicle1));
+        charger3.setFree(true);
+        assertEquals(charger3, station1.getCheapestCharger(eVehicle1));
+        
+        charger3.recharge(eVehicle1, 10);
+        assertTrue(charger3.getFree());
+        assertEquals(charger3, station1.getCheapestCharger(eVehicle1));
+    }
+    
+    /**
+     * Tests that chargers with the same fee are resolved by their position in the station,
+     * also after the list has been reordered with {@code orderList()}.
+     */
+    @Test
+    public void testChargerIndexTies()
+    {
+        charger2.setChargingFee(0.20);
+        assertEquals(charger2, station1.getCheapestCharger(eVehicle1));
+        
+        station1.orderList();
+        assertEquals(charger4, station1.getChargers().get(0));
+        assertEquals(charger2, station1.getCheapestCharger(eVehicle1));
+        assertEquals(charger4, station1.getFreeCharger());
+    }
+    
+    /**
+     * Tests that a type added to a charger after it joined the station is taken into account.
+     */
+    @Test
+    public void testChargerIndexAddType()
+    {
+        PriorityEV priorityCar = new PriorityEV(Vectalia, new Location(0,0), new Location(5,5), "Prio", "P0000", 50);
+        assertNull(station1.getFastestCharger(priorityCar));
+        
+        charger3.addType(VehicleTier.PRIORITY);
+        assertEquals(charger3, station1.getFastestCharger(priorityCar));
+        assertEquals(charger3, station1.getFreeCharger(VehicleTier.PRIORITY));
+    }
+    
     /**
      * Tests {@code getCompleteInfo()}.
      * <p>
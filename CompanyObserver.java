@@ -11,8 +11,7 @@ public interface CompanyObserver { //Interfaz de suscriptores, contiene el méto
      * Update method.
      * The Subject calls this method to notify observers about a state change event.
      *
-     * @param vehicle The {@link ElectricVehicle} that generated the event.
-     * @param charger The {@link Charger} where the event occurred.
+     * @param recharge A snapshot of the recharge, taken when it was registered.
      */
-    public void onRechargeRegistered(ElectricVehicle vehicle, Charger charger);
+    public void onRechargeRegistered(RechargeEvent recharge);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+/**
+ * Adapts a {@link CompanyObserver}, which is notified of one recharge at a
+ * time, to a {@link BatchObserver}: each batch is passed on recharge by
+ * recharge, in order.
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class CompanyObserverAdapter implements BatchObserver
+{
+    private final CompanyObserver observer;
+
+    /**
+     * Constructs an adapter.
+     *
+     * @param observer The observer notified of each recharge. Must not be {@code null}.
+     * @throws NullPointerException If {@code observer} is {@code null}.
+     */
+    public CompanyObserverAdapter(CompanyObserver observer)
+    {
+        if (observer == null) {
+            throw new NullPointerException("CompanyObserverAdapter need an observer");
+        }
+        this.observer = observer;
+    }
+
+    /**
+     * @return The adapted observer.
+     */
+    public CompanyObserver getObserver()
+    {
+        return observer;
+    }
+
+    /**
+     * Notifies the adapted observer of each recharge of the batch.
+     *
+     * @param batch The recharges.
+     */
+    @Override
+    public void onRechargesRegistered(RechargeBatch batch)
+    {
+        for (int i = 0; i < batch.size(); i++) {
+            observer.onRechargeRegistered(batch.getEvent(i));
+        }
+    }
+}
@@ -0,0 +1,255 @@
+import java.util.Arrays;
+
+/**
+ * Engine that advances a fleet from event to event instead of step by step,
+ * operating on the columns of a {@link FleetStore}.
+ * <p>
+ * Between two events a vehicle either travels in a straight Chebyshev path
+ * towards its next stop or stays idle, so its state at any later step can be
+ * computed directly. For every row the engine computes the step of its next
+ * meaningful event (arriving at a station, at its target, or planning a
+ * recharging stop) from the distance to its next stop and the moves of its
+ * vehicle per step, and keeps the rows in a priority queue ordered by step and
+ * row. Processing an event moves the row along its path up to that step in
+ * constant time (see {@link ElectricVehicle#advance(int)}) and executes the step itself with {@link FleetStepEngine#stepRow(int, int)}, so
+ * the recharges, rankings and notifications happen in the same order as in the
+ * step loop. Idle rows (at their target or stranded) do not take part in the
+ * queue: their idle counts are kept lazily by the store (see
+ * {@link FleetStore#setIdleSince(int, int)}) and their rankings are brought up
+ * to date when the run ends.
+ * </p>
+ * <p>
+ * The final state is the same as executing {@link FleetStepEngine#run(int, int)}
+ * for the same steps, while the work grows with the number of events instead of
+ * with the number of vehicles times the number of steps. Like
+ * {@link FleetStepEngine}, the engine assumes instantaneous recharges and does
+ * not produce step logs.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class DiscreteEventEngine
+{
+    /**
+     * Step of a row without a scheduled event.
+     */
+    private static final int NO_EVENT = -1;
+
+    /**
+     * The store with the state of the fleet.
+     */
+    private FleetStore fleet;
+
+    /**
+     * Engine that executes the steps of the events.
+     */
+    private FleetStepEngine stepEngine;
+
+    /**
+     * Pending events, as the step in the high half and the row in the low half.
+     */
+    private long[] queue;
+
+    /**
+     * Number of pending events.
+     */
+    private int queued;
+
+    /**
+     * Step from which each row travels towards its next stop, or {@link #NO_EVENT}.
+     */
+    private int[] travellingSince;
+
+    /**
+     * Number of row steps executed by the last run.
+     */
+    private long eventsProcessed;
+
+    /**
+     * Constructs an engine for a fleet.
+     *
+     * @param fleet The store with the state of the fleet. Must not be {@code null}.
+     * @throws NullPointerException If {@code fleet} is {@code null}.
+     */
+    public DiscreteEventEngine(FleetStore fleet)
+    {
+        if (fleet == null) {
+            throw new NullPointerException("DiscreteEventEngine need a fleet");
+        }
+        this.fleet = fleet;
+        this.stepEngine = new FleetStepEngine(fleet);
+        this.queue = new long[16];
+    }
+
+    // -------------------- Getters --------------------
+
+    /**
+     * @return The store with the state of the fleet.
+     */
+    public FleetStore getFleet()
+    {
+        return fleet;
+    }
+
+    /**
+     * @return The number of row steps executed by the last run; the step loop
+     *         executes one per row and step.
+     */
+    public long getEventsProcessed()
+    {
+        return eventsProcessed;
+    }
+
+    // -------------------- Others --------------------
+
+    /**
+     * Executes a number of consecutive simulation steps, processing only the
+     * steps in which each vehicle does something other than travel or wait.
+     *
+     * @param firstStep The number of the first step. Must not be negative.
+     * @param steps The number of steps to execute.
+     * @throws IllegalArgumentException If {@code firstStep} is negative.
+     * @throws IllegalStateException If the company of the fleet has charging sessions.
+     */
+    public void run(int firstStep, int steps)
+    {
+        if (firstStep < 0) {
+            throw new IllegalArgumentException("DiscreteEventEngine need a non-negative first step");
+        }
+        FleetStepEngine.checkInstantCharging(fleet);
+        int rows = fleet.size();
+        int end = firstStep + Math.max(0, steps);
+        travellingSince = new int[rows];
+        Arrays.fill(travellingSince, NO_EVENT);
+        fleet.settleIdleCounts();
+        fleet.setClock(firstStep);
+        queued = 0;
+        eventsProcessed = 0;
+        for (int row = 0; row < rows; row++) {
+            schedule(row, firstStep);
+        }
+
+        while (queued > 0 && (int) (queue[0] >>> 32) < end) {
+            long event = poll();
+            int step = (int) (event >>> 32);
+            int row = (int) event;
+            travel(row, step);
+            long recharging = fleet.getRecharging(row);
+            stepEngine.stepRow(row, step);
+            eventsProcessed++;
+            if (recharging == FleetStore.NO_LOCATION && fleet.getRecharging(row) == FleetStore.NO_LOCATION
+                && !stepEngine.canArrive(row)) {
+                fleet.setIdleSince(row, step + 1); //sin estación alcanzable se queda parado siempre
+            } else {
+                schedule(row, step + 1);
+            }
+        }
+
+        fleet.setClock(end);
+        for (int row = 0; row < rows; row++) {
+            travel(row, end);
+            if (fleet.getIdleSince(row) != FleetStore.NO_STEP) {
+                fleet.getVehicle(row).rankingChanged();
+            }
+        }
+        queued = 0;
+    }
+
+    /**
+     * Schedules the next event of a row, or marks it as idle when nothing will
+     * change until the end of the run. Mirrors the decisions of
+     * {@link FleetStepEngine#stepRow(int, int)}.
+     *
+     * @param row The row of the vehicle.
+     * @param step The first step in which the row has not acted yet.
+     */
+    private void schedule(int row, int step)
+    {
+        if (!stepEngine.canArrive(row)) {
+            if (fleet.getRecharging(row) == FleetStore.NO_LOCATION) {
+                offer(step, row); //calcula la parada en este paso
+            } else {
+                fleet.setIdleSince(row, step); //no alcanza ni la estación ni el destino
+            }
+        } else if (fleet.getLocation(row) == fleet.getTarget(row)) {
+            fleet.setIdleSince(row, step);
+        } else {
+            int quiet = fleet.getVehicle(row).getQuietSteps();
+            if (quiet > 0) {
+                travellingSince[row] = step;
+            }
+            offer(step + quiet, row);
+        }
+    }
+
+    /**
+     * Moves a travelling row along its path up to the beginning of a step
+     * (see {@link ElectricVehicle#advance(int)}).
+     *
+     * @param row The row of the vehicle.
+     * @param step The step up to which the row travels.
+     */
+    private void travel(int row, int step)
+    {
+        int since = travellingSince[row];
+        if (since != NO_EVENT) {
+            travellingSince[row] = NO_EVENT;
+            fleet.getVehicle(row).advance(step - since);
+        }
+    }
+
+    // -------------------- Event queue --------------------
+
+    /**
+     * Adds an event to the queue (a binary min-heap).
+     *
+     * @param step The step of the event.
+     * @param row The row of the vehicle.
+     */
+    private void offer(int step, int row)
+    {
+        if (queued == queue.length) {
+            queue = Arrays.copyOf(queue, queued * 2);
+        }
+        long event = ((long) step << 32) | row;
+        int i = queued++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (queue[parent] <= event) {
+                break;
+            }
+            queue[i] = queue[parent];
+            i = parent;
+        }
+        queue[i] = event;
+    }
+
+    /**
+     * Removes the earliest event from the queue.
+     *
+     * @return The earliest event; the smallest row first among those of the same step.
+     */
+    private long poll()
+    {
+        long first = queue[0];
+        long last = queue[--queued];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= queued) {
+                break;
+            }
+            if (child + 1 < queued && queue[child + 1] < queue[child]) {
+                child++;
+            }
+            if (queue[child] >= last) {
+                break;
+            }
+            queue[i] = queue[child];
+            i = child;
+        }
+        queue[i] = last;
+        return first;
+    }
+}
@@ -0,0 +1,183 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for {@link DiscreteEventEngine}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Reaching the same final state as executing every step of every vehicle.</li>
+ *   <li>Splitting a run in several calls.</li>
+ *   <li>Processing fewer row steps than the step loop.</li>
+ *   <li>Rejecting invalid arguments.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class DiscreteEventEngineTest
+{
+    /** Number of steps of the runs compared. */
+    private static final int STEPS = 120;
+
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /**
+     * Default constructor for test class DiscreteEventEngineTest.
+     */
+    public DiscreteEventEngineTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        company.reset();
+        company = null;
+    }
+
+    /**
+     * Creates a generated world with vehicles of every tier, some of which need
+     * several recharges and some of which cannot reach any station.
+     */
+    private void createWorld()
+    {
+        company.reset();
+        new ScenarioGenerator(11, 40, 40, 300, 12, 3, ScenarioGenerator.evenTierMix(),
+            ScenarioGenerator.Distribution.CLUSTERED).populate(company);
+    }
+
+    /**
+     * Builds a textual snapshot of the vehicles (in ranking order), the stations
+     * and the registry of recharges of the company.
+     *
+     * @return The snapshot.
+     */
+    private List<String> snapshot()
+    {
+        List<String> state = new ArrayList<>();
+        for (ElectricVehicle ev : company.getVehicles()) {
+            state.add(ev.toString());
+        }
+        for (ChargingStation station : company.getCityStations()) {
+            state.add(station.getCompleteInfo());
+        }
+        for (Map.Entry<Charger, List<ElectricVehicle>> entry : company.getChargesRegistry().entrySet()) {
+            StringBuilder line = new StringBuilder(entry.getKey().getId());
+            for (ElectricVehicle ev : entry.getValue()) {
+                line.append(' ').append(ev.getPlate());
+            }
+            state.add(line.toString());
+        }
+        return state;
+    }
+
+    /**
+     * Executes every step of every vehicle, as the demo does.
+     *
+     * @param steps The number of steps.
+     * @return The snapshot of the final state.
+     */
+    private List<String> runStepLoop(int steps)
+    {
+        createWorld();
+        List<ElectricVehicle> vehicles = new ArrayList<>(company.getVehicles());
+        FleetStore fleet = company.getFleet();
+        for (int step = 0; step < steps; step++) {
+            for (int row = 0; row < fleet.size(); row++) {
+                fleet.getVehicle(row).act(step, null);
+            }
+        }
+        assertEquals(vehicles.size(), fleet.size());
+        return snapshot();
+    }
+
+    /**
+     * Tests that the engine reaches the same vehicles, stations and registry of
+     * recharges as the step loop, with fewer row steps.
+     */
+    @Test
+    public void testMatchesStepLoop()
+    {
+        List<String> expected = runStepLoop(STEPS);
+
+        createWorld();
+        DiscreteEventEngine engine = new DiscreteEventEngine(company.getFleet());
+        engine.run(0, STEPS);
+        assertEquals(expected, snapshot());
+        assertTrue(engine.getEventsProcessed() > 0);
+        assertTrue(engine.getEventsProcessed() < (long) STEPS * company.getFleet().size() / 4);
+    }
+
+    /**
+     * Tests that a run split in several calls reaches the same state as a single run,
+     * even when the calls end while vehicles are travelling.
+     */
+    @Test
+    public void testSplitRun()
+    {
+        List<String> expected = runStepLoop(STEPS);
+
+        createWorld();
+        DiscreteEventEngine engine = new DiscreteEventEngine(company.getFleet());
+        engine.run(0, 7);
+        engine.run(7, 50);
+        engine.run(57, 0);
+        engine.run(57, STEPS - 57);
+        assertEquals(expected, snapshot());
+    }
+
+    /**
+     * Tests that a vehicle whose way to a station crosses its target stops there,
+     * as in the step loop.
+     */
+    @Test
+    public void testPathThroughTarget()
+    {
+        company.reset();
+        ChargingStation station = new ChargingStation("Cáceres", "CC00", new Location(10, 10));
+        station.addCharger(new StandardCharger("CC00_000", 40, 0.25));
+        company.addChargingStation(station);
+        ElectricVehicle ev = new PriorityEV(company, new Location(0, 0), new Location(5, 5), "EV", "1CCC", 60);
+        company.addElectricVehicle(ev);
+        ev.setRechargingLocation(new Location(10, 10));
+
+        new DiscreteEventEngine(company.getFleet()).run(0, 10);
+        assertEquals(new Location(5, 5), ev.getLocation());
+        assertEquals(35, ev.getBatteryLevel());
+        assertEquals(7, ev.getIdleCount());
+        assertEquals(0, ev.getChargesCount());
+    }
+
+    /**
+     * Tests that invalid arguments are rejected.
+     */
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(NullPointerException.class, () -> new DiscreteEventEngine(null));
+        DiscreteEventEngine engine = new DiscreteEventEngine(company.getFleet());
+        assertThrows(IllegalArgumentException.class, () -> engine.run(-1, 10));
+    }
+}
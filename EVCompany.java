@@ -19,20 +19,47 @@ public class EVCompany extends NotificadorAbstracto
      */
     private String name;
     /**
-     * The set of {@link ElectricVehicle}s subscribed to this company.
+     * The {@link ElectricVehicle}s subscribed to this company, by plate.
      */
-    private Set<ElectricVehicle> subscribedVehicles;
+    private Map<String, ElectricVehicle> vehiclesByPlate;
     /**
-     * The set of {@link ChargingStation}s managed by this company.
+     * Ranking of the subscribed vehicles, in the order of {@link ComparatorElectricVehicleIdleCount}.
      */
-    private Set<ChargingStation> stations;
+    private RankedIndex<ElectricVehicle> vehicleRanking;
+    /**
+     * Struct-of-arrays store with the state of the subscribed vehicles.
+     */
+    private FleetStore fleet;
+    /**
+     * The {@link ChargingStation}s managed by this company, by their unique identifier.
+     */
+    private Map<String, ChargingStation> stationsById;
+    /**
+     * Ranking of the managed stations, in the order of {@link ComparatorChargingStationNumberRecharged}.
+     */
+    private RankedIndex<ChargingStation> stationRanking;
+    /**
+     * Index of the managed {@link ChargingStation}s by their {@link Location}.
+     * The stations that share a location are kept in the order they were placed there.
+     */
+    private Map<Location, List<ChargingStation>> stationsByLocation;
+    /**
+     * Spatial index of the managed {@link ChargingStation}s, used for range queries.
+     */
+    private StationGrid stationGrid;
     
     /**
      * Registry of charging operations.
      * Maps each {@link Charger} to the list of {@link ElectricVehicle}s
      * that have been recharged using it.
      */
-    private Map<Charger, List<ElectricVehicle>> chargesRegistry;
+    private ChargesRegistry chargesRegistry;
+    
+    /**
+     * Charging sessions that make recharges last several steps, or {@code null}
+     * if recharges are instantaneous.
+     */
+    private ChargingSessions chargingSessions;
 
     /**
      * Singleton instance of the company.
@@ -54,9 +81,14 @@ public class EVCompany extends NotificadorAbstracto
                 throw new NullPointerException("The company need a name");
             }
             this.name = name; 
-            this.subscribedVehicles = new TreeSet<>(new ComparatorElectricVehicleIdleCount()); 
-            this.stations = new TreeSet<>(new ComparatorChargingStationNumberRecharged());
-            this.chargesRegistry = new TreeMap<>((c1, c2) -> c1.getId().compareTo(c2.getId())); //mapa para guardar los registros de las cargas de cada vehículo
+            this.vehiclesByPlate = new HashMap<>();
+            this.vehicleRanking = new RankedIndex<>(EVCompany::vehicleRank, ElectricVehicle::getPlate);
+            this.fleet = new FleetStore();
+            this.stationsById = new HashMap<>();
+            this.stationRanking = new RankedIndex<>(station -> -station.getNumberEVRecharged(), ChargingStation::getId);
+            this.stationsByLocation = new HashMap<>();
+            this.stationGrid = new StationGrid();
+            this.chargesRegistry = new ChargesRegistry(); //registros de las cargas de cada vehículo, ordenados por cargador
         } catch(NullPointerException e){
             System.err.println("Error in the creation of the company: " + e.getMessage());
         }
@@ -96,13 +128,36 @@ public class EVCompany extends NotificadorAbstracto
     }
     
     /**
-     * Returns an unmodifiable view of the subscribed electric vehicles.
+     * Returns an unmodifiable view of the subscribed electric vehicles, ordered
+     * as {@link ComparatorElectricVehicleIdleCount} orders them at this moment.
      *
      * @return An unmodifiable set of {@link ElectricVehicle}s.
      */
     public Set<ElectricVehicle> getVehicles()
     {       
-        return Collections.unmodifiableSet(subscribedVehicles);
+        return vehicleRanking.view();
+    }
+    
+    /**
+     * Retrieves a subscribed {@link ElectricVehicle} by its plate.
+     *
+     * @param plate The plate of the vehicle.
+     * @return The matching {@link ElectricVehicle}, or {@code null} if not found.
+     */
+    public ElectricVehicle getElectricVehicle(String plate)
+    {
+        return vehiclesByPlate.get(plate);
+    }
+    
+    /**
+     * Returns the store that holds the state of the subscribed vehicles.
+     * Every subscribed {@link ElectricVehicle} is a view over a row of this store.
+     *
+     * @return The {@link FleetStore} of the company.
+     */
+    public FleetStore getFleet()
+    {
+        return this.fleet;
     }
     
     // ESTE NO SE USA PERO VENIA INCLUIDO YA EN LA PLANTILLA
@@ -114,17 +169,7 @@ public class EVCompany extends NotificadorAbstracto
      */
     public ChargingStation getChargingStation(String id)
     {
-        ChargingStation initialStation = null;
-        
-        Iterator<ChargingStation> it = stations.iterator();
-        while (it.hasNext() && initialStation == null) {
-            ChargingStation station = it.next();
-            if (station.getId().equals(id)) {
-                initialStation = station;
-            }
-        }
-         
-        return initialStation;
+        return stationsById.get(id);
     }
     
     /**
@@ -135,41 +180,67 @@ public class EVCompany extends NotificadorAbstracto
      */
     public ChargingStation getChargingStation(Location location)
     {
-        ChargingStation initialStation = null;
-        
-        Iterator<ChargingStation> it = stations.iterator();
-        while (it.hasNext() && initialStation == null) {
-            ChargingStation station = it.next();
-            if (station.getLocation().equals(location)) {
-                initialStation = station;
-            }
-        }
-        return initialStation;
+        List<ChargingStation> stations = stationsByLocation.get(location);
+        return stations == null ? null : stations.get(0); //la primera colocada en esa ubicación
     }
     
     /**
-     * @return An unmodifiable list of all managed {@link ChargingStation}s.
+     * Retrieves the {@link ChargingStation}s whose Chebyshev distance to a
+     * {@link Location} is at most {@code radius}, ordered by id.
+     *
+     * @param center The centre of the search.
+     * @param radius The maximum distance, in movement steps.
+     * @return A list with the stations within range.
+     */
+    public List<ChargingStation> getStationsWithin(Location center, int radius)
+    {
+        return stationGrid.stationsWithin(center, radius);
+    }
+    
+    /**
+     * @return An unmodifiable view of all managed {@link ChargingStation}s, ordered
+     *         as {@link ComparatorChargingStationNumberRecharged} orders them at this moment.
      */
     public Set<ChargingStation> getCityStations()
     {
-       return Collections.unmodifiableSet(stations);
+       return stationRanking.view();
     }
     
     /**
      * @return The total number of {@link ChargingStation}s managed by the company.
      */
     public int getNumberOfStations(){
-        return this.stations.size();
+        return this.stationsById.size();
     }
     
     /**
-     * Returns an unmodifiable view of the charging registry.
+     * Returns an unmodifiable view of the charging registry, ordered by charger id.
      *
      * @return A map that associates each {@link Charger} with the list of
      *         {@link ElectricVehicle}s recharged using it.
      */
     public Map<Charger, List<ElectricVehicle>> getChargesRegistry() {
-        return Collections.unmodifiableMap(chargesRegistry);
+        return chargesRegistry.view();
+    }
+    
+    /**
+     * @return The charging sessions of the company, or {@code null} if recharges are instantaneous.
+     */
+    public ChargingSessions getChargingSessions() {
+        return chargingSessions;
+    }
+    
+    /**
+     * Sets the charging sessions of the company. With sessions, recharges last
+     * several steps and vehicles wait at their stations for a free charger;
+     * without them (the default) recharges are instantaneous.
+     * Sessions are only advanced by the simulations that call
+     * {@link #advanceChargingSessions(int)} at every step, as {@link EVDemo} does.
+     *
+     * @param sessions The charging sessions, or {@code null} for instantaneous recharges.
+     */
+    public void setChargingSessions(ChargingSessions sessions) {
+        this.chargingSessions = sessions;
     }
     
     // ------------------------------------------------
@@ -178,62 +249,277 @@ public class EVCompany extends NotificadorAbstracto
     
     /**
      * Adds a new {@link ElectricVehicle} to the subscribed fleet.
+     * A vehicle with the plate of a subscribed vehicle is ignored.
      *
      * @param vehicle The electric vehicle to add.
      */
     public void addElectricVehicle(ElectricVehicle vehicle)
     {       
-        if (vehicle != null) {
-            this.subscribedVehicles.add(vehicle);
+        if (vehicle != null && vehiclesByPlate.putIfAbsent(vehicle.getPlate(), vehicle) == null) {
+            fleet.add(vehicle); //el estado del vehículo pasa a la fila de la flota
+            vehicleRanking.add(vehicle);
         }
     }
 
     /**
      * Adds a new {@link ChargingStation} to the managed network.
+     * Stations are identified by their id, so a station whose id is already
+     * managed is rejected.
      *
      * @param station The charging station to add.
+     * @throws IllegalArgumentException If a station with the same id is already managed.
      */
     public void addChargingStation(ChargingStation station)
     {       
         if (station != null) {
-            this.stations.add(station);
+            if (stationsById.containsKey(station.getId())) {
+                throw new IllegalArgumentException("Station " + station.getId() + " is already managed by " + getName());
+            }
+            stationsById.put(station.getId(), station);
+            stationRanking.add(station);
+            indexLocation(station);
+            stationGrid.add(station);
+            station.setCompany(this); //la estación avisa a la compañía si se reubica
         }    
     }
     
+    /**
+     * Removes a {@link ChargingStation} from the managed network.
+     *
+     * @param station The charging station to remove.
+     * @return {@code true} if the station was managed by this company, {@code false} otherwise.
+     */
+    public boolean removeChargingStation(ChargingStation station)
+    {
+        if (station == null || stationsById.get(station.getId()) != station) {
+            return false;
+        }
+        stationsById.remove(station.getId());
+        stationRanking.remove(station);
+        unindexLocation(station, station.getLocation());
+        stationGrid.remove(station, station.getLocation());
+        station.setCompany(null);
+        return true;
+    }
+    
+    /**
+     * Updates the location index after a managed {@link ChargingStation} has been moved.
+     * This method is invoked by {@link ChargingStation#setLocation(Location)}.
+     *
+     * @param station The station that has been relocated.
+     * @param oldLocation The location the station had before being moved.
+     */
+    void relocateChargingStation(ChargingStation station, Location oldLocation)
+    {
+        if (station == null || stationsById.get(station.getId()) != station) {
+            return;
+        }
+        unindexLocation(station, oldLocation);
+        stationGrid.remove(station, oldLocation);
+        if (station.getLocation() != null) {
+            indexLocation(station);
+            stationGrid.add(station);
+        }
+    }
+    
+    /**
+     * Moves a vehicle in the ranking of {@link #getVehicles()} after its location,
+     * target or idle count has changed. Vehicles that are not subscribed are ignored.
+     * Invoked by the vehicle itself.
+     *
+     * @param vehicle The vehicle.
+     */
+    void vehicleRankingChanged(ElectricVehicle vehicle)
+    {
+        vehicleRanking.update(vehicle);
+    }
+    
+    /**
+     * Moves a station in the ranking of {@link #getCityStations()} after its number
+     * of recharges has changed. Invoked by the station itself.
+     *
+     * @param station The station.
+     */
+    void stationRankingChanged(ChargingStation station)
+    {
+        stationRanking.update(station);
+    }
+    
+    /**
+     * Recalculates the position of every vehicle and station in the rankings,
+     * after changes to the state of the world that were not reported one by one
+     * (for example, when restoring a saved state).
+     */
+    void refreshRankings()
+    {
+        vehicleRanking.rebuild();
+        stationRanking.rebuild();
+    }
+    
+    /**
+     * Calculates the rank of a vehicle: vehicles at their target first, then by
+     * idle count, descending, as {@link ComparatorElectricVehicleIdleCount} does.
+     * Ties are resolved by the plate.
+     *
+     * @param vehicle The vehicle.
+     * @return The rank; lower ranks come first.
+     */
+    private static long vehicleRank(ElectricVehicle vehicle)
+    {
+        FleetStore store = vehicle.getFleet();
+        int row = vehicle.getRow();
+        long atTarget = store.getLocation(row) == store.getTarget(row) ? 0 : 1L << 32;
+        return atTarget + Integer.MAX_VALUE - (long) store.getIdleCount(row);
+    }
+    
+    /**
+     * Adds a station to the location index, after the stations already placed at its location.
+     *
+     * @param station The station to add to the index.
+     */
+    private void indexLocation(ChargingStation station)
+    {
+        if (station.getLocation() != null) {
+            stationsByLocation.computeIfAbsent(station.getLocation(), k -> new ArrayList<>(1)).add(station);
+        }
+    }
+    
+    /**
+     * Removes a station from the location index. If other managed stations
+     * share that location, the next one placed there takes its place in
+     * {@link #getChargingStation(Location)}.
+     *
+     * @param station The station to remove from the index.
+     * @param location The location under which the station was indexed.
+     */
+    private void unindexLocation(ChargingStation station, Location location)
+    {
+        List<ChargingStation> stations = location == null ? null : stationsByLocation.get(location);
+        if (stations == null) {
+            return;
+        }
+        stations.remove(station); //solo las que comparten ubicación
+        if (stations.isEmpty()) {
+            stationsByLocation.remove(location);
+        }
+    }
+    
     /**
      * Removes all subscribed vehicles, charging stations and charging records,
      * leaving the company in an empty state.
      */
     public void reset(){
-        this.subscribedVehicles.clear();
-        this.stations.clear();
+        this.vehiclesByPlate.clear();
+        this.vehicleRanking.clear();
+        this.fleet = new FleetStore();
+        for (ChargingStation station : stationsById.values()) {
+            station.setCompany(null);
+        }
+        this.stationRanking.clear();
+        this.stationsById.clear();
+        this.stationsByLocation.clear();
+        this.stationGrid.clear();
         this.chargesRegistry.clear(); //nuevo
+        this.chargingSessions = null;
         clearObservers();
     }
     
+    /**
+     * Ends the charging sessions that finish up to a step, if the company has
+     * sessions (see {@link #setChargingSessions(ChargingSessions)}).
+     * Must be called at the beginning of every step, before the vehicles act.
+     *
+     * @param step The current simulation step.
+     */
+    public void advanceChargingSessions(int step) {
+        advanceChargingSessions(step, null);
+    }
+    
+    /**
+     * Ends the charging sessions that finish up to a step, if the company has
+     * sessions, delivering the events of the completed recharges and of the
+     * sessions started to a sink (see {@link ChargingSessions#advance(int, StepEventSink)}).
+     * Must be called at the beginning of every step, before the vehicles act.
+     *
+     * @param step The current simulation step.
+     * @param sink The receiver of the events, or {@code null}.
+     */
+    public void advanceChargingSessions(int step, StepEventSink sink) {
+        if (chargingSessions != null) {
+            chargingSessions.advance(step, sink);
+        }
+    }
+    
     /**
      * Registers a completed recharge for a specific vehicle at a specific charger.
      * This method updates the internal registry map and notifies all subscribed observers 
-     * about the event (Observer Pattern).
+     * about the event (Observer Pattern), without waiting for them.
      * * @param charger The {@link Charger} where the recharge took place.
      * @param ev The {@link ElectricVehicle} that performed the recharge.
      */
     public void registerRecharge(Charger charger, ElectricVehicle vehicle) {
+        registerRecharge(charger, vehicle, RechargeHistory.NO_STEP);
+    }
+    
+    /**
+     * Registers a completed recharge of a simulation step, so observers notified
+     * in batches can group it with the other recharges of the step
+     * (see {@link #registerRecharge(Charger, ElectricVehicle)}).
+     *
+     * @param charger The {@link Charger} where the recharge took place.
+     * @param vehicle The {@link ElectricVehicle} that performed the recharge.
+     * @param step The simulation step of the recharge, or {@link RechargeHistory#NO_STEP}.
+     */
+    public void registerRecharge(Charger charger, ElectricVehicle vehicle, int step) {
+        registerRecharge(charger, vehicle, 0, 0, step);
+    }
+    
+    /**
+     * Registers a completed recharge of a simulation step with the kWh recharged and
+     * its cost, which the observers receive in their snapshot of the recharge
+     * (see {@link #registerRecharge(Charger, ElectricVehicle, int)}).
+     *
+     * @param charger The {@link Charger} where the recharge took place.
+     * @param vehicle The {@link ElectricVehicle} that performed the recharge.
+     * @param kws The number of kWh recharged.
+     * @param cost The cost of the recharge.
+     * @param step The simulation step of the recharge, or {@link RechargeHistory#NO_STEP}.
+     */
+    public void registerRecharge(Charger charger, ElectricVehicle vehicle, int kws, double cost, int step) {
         if (charger != null && vehicle != null) {
                 
-        List<ElectricVehicle> list = chargesRegistry.get(charger);
-        
-        if (list == null) {
-            list = new ArrayList<>();
-            chargesRegistry.put(charger, list);
-        }
-        
-        if (!list.contains(vehicle)) {
-            list.add(vehicle);
-        }
+        recordRecharge(charger, vehicle);
     
-        notifyObservers(charger, vehicle); //cada vez que ocurre registramos, notificamos suscriptores
+        notifyObservers(charger, vehicle, kws, cost, step); //cada vez que ocurre registramos, notificamos suscriptores
+    }
+    }
+    
+    /**
+     * Adds a recharge to the registry without notifying the observers.
+     * Used by {@link #registerRecharge(Charger, ElectricVehicle)} and when replaying a recorded run.
+     * It may be called from several threads at the same time.
+     *
+     * @param charger The {@link Charger} where the recharge took place.
+     * @param vehicle The {@link ElectricVehicle} that performed the recharge.
+     */
+    void recordRecharge(Charger charger, ElectricVehicle vehicle) {
+        chargesRegistry.record(charger, vehicle);
     }
+    
+    /**
+     * @return A copy of the charges registry, with copies of its lists.
+     */
+    Map<Charger, List<ElectricVehicle>> copyRegistry() {
+        return chargesRegistry.copy();
+    }
+    
+    /**
+     * Replaces the charges registry with a copy made by {@link #copyRegistry()}.
+     *
+     * @param copy The copy of the registry.
+     */
+    void restoreRegistry(Map<Charger, List<ElectricVehicle>> copy) {
+        chargesRegistry.restore(copy);
     }
     
     /**
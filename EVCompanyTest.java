@@ -12,8 +12,11 @@ import java.util.List;
  *   <li>Creation of a company and initialization of attributes.</li>
  *   <li>Adding electric vehicles and verifying that null values are ignored.</li>
  *   <li>Adding charging stations and checking the station count.</li>
+ *   <li>Rejecting charging stations whose id is already managed.</li>
  *   <li>Searching for charging stations by ID or location, including not-found cases.</li>
+ *   <li>Finding stations that share a location after others are moved or removed.</li>
  *   <li>Resetting company data to ensure a clean state.</li>
+ *   <li>Keeping vehicles and stations ranked while their state changes.</li>
  * </ul>
  * </p>
  * <p>
@@ -170,6 +173,22 @@ public class EVCompanyTest
         assertEquals(2, company.getNumberOfStations());
     }
     
+    /**
+     * Tests that a station whose id is already managed is rejected, and that the
+     * managed one is kept.
+     */
+    @Test
+    public void testAddDuplicateChargingStation()
+    {
+        company.addChargingStation(station1);
+        ChargingStation copy = new ChargingStation("Plasencia", station1.getId(), new Location(20, 20));
+        assertThrows(IllegalArgumentException.class, () -> company.addChargingStation(copy));
+        assertThrows(IllegalArgumentException.class, () -> company.addChargingStation(station1));
+        assertEquals(1, company.getNumberOfStations());
+        assertSame(station1, company.getChargingStation(station1.getId()));
+        assertNull(company.getChargingStation(new Location(20, 20)));
+    }
+    
     /**
      * Tests {@code getChargingStation(String id)} with valid IDs.
      * <p>
@@ -232,6 +251,115 @@ public class EVCompanyTest
         assertNull(company.getChargingStation(loc3));
     }
     
+    /**
+     * Tests that {@code getChargingStation(Location location)} follows a station
+     * relocated through {@link ChargingStation#setLocation(Location)}.
+     * <p>
+     * The station must no longer be found at its old location, and must be found at the new one.
+     * </p>
+     */
+    @Test
+    public void testGetChargingStationAfterRelocation()
+    {
+        company.addChargingStation(station1);
+        company.addChargingStation(station2);
+        
+        Location loc3 = new Location(5, 10);
+        station1.setLocation(loc3);
+        
+        assertNull(company.getChargingStation(loc1));
+        assertEquals(station1, company.getChargingStation(loc3));
+        assertEquals(station1, company.getChargingStation("CC00"));
+        assertEquals(station2, company.getChargingStation(loc2));
+    }
+    
+    /**
+     * Tests the {@code removeChargingStation()} method.
+     * <p>
+     * Ensures that a removed station can no longer be found by ID or location,
+     * and that removing an unknown station has no effect.
+     * </p>
+     */
+    @Test
+    public void testRemoveChargingStation()
+    {
+        company.addChargingStation(station1);
+        company.addChargingStation(station2);
+        
+        assertTrue(company.removeChargingStation(station1));
+        assertEquals(1, company.getNumberOfStations());
+        assertNull(company.getChargingStation("CC00"));
+        assertNull(company.getChargingStation(loc1));
+        assertEquals(station2, company.getChargingStation(loc2));
+        
+        assertFalse(company.removeChargingStation(station1));
+        assertFalse(company.removeChargingStation(null));
+        assertEquals(1, company.getNumberOfStations());
+    }
+    
+    /**
+     * Tests the location index when several stations share a location.
+     * <p>
+     * The first station placed there is found; when it is removed or moved away,
+     * the next one placed there takes its place.
+     * </p>
+     */
+    @Test
+    public void testSharedLocation()
+    {
+        ChargingStation station3 = new ChargingStation("Cáceres", "CC02", loc1);
+        company.addChargingStation(station1);
+        company.addChargingStation(station3);
+        assertEquals(station1, company.getChargingStation(loc1));
+        
+        station1.setLocation(loc2);
+        assertEquals(station3, company.getChargingStation(loc1));
+        station1.setLocation(loc1);
+        assertEquals(station3, company.getChargingStation(loc1));
+        
+        assertTrue(company.removeChargingStation(station3));
+        assertEquals(station1, company.getChargingStation(loc1));
+        assertTrue(company.removeChargingStation(station1));
+        assertNull(company.getChargingStation(loc1));
+    }
+    
+    /**
+     * Tests that the vehicles and stations of the company are kept in the order of
+     * their comparators while idle counts, locations and recharges change, and that
+     * vehicles are found by plate.
+     */
+    @Test
+    public void testRankings()
+    {
+        company.addElectricVehicle(ev1);
+        company.addElectricVehicle(ev2);
+        assertEquals(List.of(ev1, ev2), List.copyOf(company.getVehicles()));
+        
+        ev2.incrementIdleCount();
+        assertEquals(List.of(ev2, ev1), List.copyOf(company.getVehicles()));
+        
+        ev1.setLocation(ev1.getTargetLocation()); //los vehículos en su destino van primero
+        assertEquals(List.of(ev1, ev2), List.copyOf(company.getVehicles()));
+        
+        assertSame(ev2, company.getElectricVehicle("02-CCC"));
+        assertNull(company.getElectricVehicle("99-CCC"));
+        company.addElectricVehicle(new StandardEV(company, loc1, loc2, "EV3", "02-CCC", 40));
+        assertEquals(2, company.getVehicles().size());
+        
+        company.addChargingStation(station1);
+        company.addChargingStation(station2);
+        assertEquals(List.of(station1, station2), List.copyOf(company.getCityStations()));
+        
+        Charger charger = new StandardCharger("CH1", 40, 0.25);
+        station2.addCharger(charger);
+        charger.recharge(ev1, 10);
+        assertEquals(List.of(station2, station1), List.copyOf(company.getCityStations()));
+        
+        assertTrue(company.removeChargingStation(station2));
+        assertFalse(company.getCityStations().contains(station2));
+        assertEquals(List.of(station1), List.copyOf(company.getCityStations()));
+    }
+    
     /**
      * Tests the {@code reset()} method.
      * <p>
@@ -43,24 +43,25 @@ public class EVDemo
     /** Constant for selecting the demo scenario, using the {@link DemoType} enumeration. */
     private static final DemoType DEMO=DemoType.ADVANCED;
     
-    private BufferedWriter writer; 
+    private AsyncLogWriter logWriter;
+    
+    /** Binary journal of the step events, or {@code null} if the run is not journaled. */
+    private EventJournal journal;
     private static final String OUTPUT_FILE = "simulation_output.txt";
     
+    /** Number of threads used to step the vehicles; 1 uses the sequential loop. */
+    private int threads;
+    
+    /** Engine used when {@code threads} is greater than 1. */
+    private ParallelStepEngine parallelEngine;
+    
     /**
-     * Helper method to print to BOTH console and file using BufferedWriter.
+     * Helper method to print to the selected {@link LogSink}s.
+     * The line is written in the background by {@link AsyncLogWriter}, in the same order.
      * 
      */
     private void log(String message) {
-        System.out.println(message);
-        
-        if (writer != null) {
-            try {
-                writer.write(message); 
-                writer.newLine();      
-            } catch (IOException e) {
-                System.err.println("Error escribiendo en el fichero: " + e.getMessage()); // [cite: 1275]
-            }
-        }
+        logWriter.log(message);
     }
     
     /**
@@ -184,14 +185,58 @@ public class EVDemo
     se le notifique que ha recargado el vehículo con el cargador correspondiente.
      */
     /**
-     * Constructs the demo environment and runs the simulation.
+     * Constructs the demo environment and runs the simulation sequentially.
      */
     public EVDemo() {
-        try {
-            writer = new BufferedWriter(new FileWriter(OUTPUT_FILE));
-        } catch (IOException e) {
-            System.err.println("Error creando el fichero de salida: " + e.getMessage());
+        this(1);
+    }
+    
+    /**
+     * Constructs the demo environment and runs the simulation.
+     * <p>
+     * With more than one thread the vehicles are stepped by a {@link ParallelStepEngine};
+     * the output is the same as with the sequential loop.
+     * </p>
+     * @param threads Number of threads used to step the vehicles. Values lower than 1 are treated as 1.
+     */
+    public EVDemo(int threads) {
+        this(threads, LogSink.BOTH);
+    }
+    
+    /**
+     * Constructs the demo environment and runs the simulation.
+     * <p>
+     * With more than one thread the vehicles are stepped by a {@link ParallelStepEngine};
+     * the output is the same as with the sequential loop.
+     * </p>
+     * @param threads Number of threads used to step the vehicles. Values lower than 1 are treated as 1.
+     * @param sink Destinations of the simulation log. Must not be null.
+     */
+    public EVDemo(int threads, LogSink sink) {
+        this(threads, sink, null);
+    }
+    
+    /**
+     * Constructs the demo environment and runs the simulation, recording its step events
+     * in an {@link EventJournal}.
+     * @param threads Number of threads used to step the vehicles. Values lower than 1 are treated as 1.
+     * @param sink Destinations of the simulation log. Must not be null.
+     * @param journalFile Path of the journal, or null to run without journal.
+     */
+    public EVDemo(int threads, LogSink sink, String journalFile) {
+        this.threads = Math.max(1, threads);
+        if (journalFile != null) {
+            journal = new EventJournal(java.nio.file.Paths.get(journalFile));
+        }
+        BufferedWriter writer = null;
+        if (sink.writesFile()) {
+            try {
+                writer = new BufferedWriter(new FileWriter(OUTPUT_FILE));
+            } catch (IOException e) {
+                System.err.println("Error creando el fichero de salida: " + e.getMessage());
+            }
         }
+        logWriter = new AsyncLogWriter(sink, writer);
         
         company = EVCompany.getInstance();
         
@@ -208,12 +253,9 @@ public class EVDemo
         showInitialInfo();  
         run();
         
-        try {
-            if (writer != null) {
-                writer.close();
-            }
-        } catch (IOException e) {
-            System.err.println("Error cerrando el fichero: " + e.getMessage());
+        logWriter.close();
+        if (journal != null) {
+            journal.close();
         }
     }
 
@@ -239,9 +281,16 @@ public class EVDemo
         log("( Simulation start )");
         log("(------------------)");
 
+        if (threads > 1) {
+            parallelEngine = new ParallelStepEngine(vehicles, threads);
+        }
         for (int i = 0; i < MAXSTEPS; i++) {
             step(i); 
         }
+        if (parallelEngine != null) {
+            parallelEngine.shutdown();
+            parallelEngine = null;
+        }
         
         showFinalInfo();
     }
@@ -253,12 +302,33 @@ public class EVDemo
      * </p>
      */
     public void step(int step) {
-        for (ElectricVehicle ev : vehicles) {
-            List<String> logs = ev.act(step);
-            for(String msg : logs) {
-                log(msg);
+        boolean logging = logWriter.getSink() != LogSink.NONE || journal != null; //sin salida no se crean eventos
+        company.advanceChargingSessions(step, logging ? this::logEvent : null); //terminan las cargas de este paso antes de que actúen los vehículos
+        if (parallelEngine != null) {
+            for (List<StepEvent> events : parallelEngine.step(step, logging)) {
+                for (StepEvent event : events) {
+                    logEvent(event);
+                }
+            }
+        } else {
+            for (ElectricVehicle ev : vehicles) {
+                ev.act(step, logging ? this::logEvent : null);
             }
         }
+        company.notifyStepEnd(step); //los observadores reciben las recargas del paso
+    }
+    
+    /**
+     * Writes a step event to the journal and its text to the log.
+     * @param event The event.
+     */
+    private void logEvent(StepEvent event) {
+        if (journal != null) {
+            journal.onStepEvent(event);
+        }
+        if (logWriter.getSink() != LogSink.NONE) {
+            log(event.render());
+        }
     }
 
     /**
@@ -333,11 +403,28 @@ public class EVDemo
     /**
      * Entry point of the application.
      * <p>
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments, all optional: the number of threads used to step the vehicles,
+     *             the {@link LogSink} (FILE, CONSOLE, BOTH or NONE) and the path of an {@link EventJournal}.
      * </p>
      */
     public static void main(String[] args) {
-        new EVDemo();
+        int threads = 1;
+        LogSink sink = LogSink.BOTH;
+        if (args.length > 0) {
+            try {
+                threads = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                System.err.println("Número de hilos no válido: " + args[0]);
+            }
+        }
+        if (args.length > 1) {
+            try {
+                sink = LogSink.valueOf(args[1].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Destino de la salida no válido: " + args[1]);
+            }
+        }
+        new EVDemo(threads, sink, args.length > 2 ? args[2] : null);
     }
     
 }
\ No newline at end of file
@@ -7,22 +7,51 @@ import java.util.*;
  */
 public abstract class ElectricVehicle 
 {
+    /**
+     * Battery consumed by each movement step, in kWh.
+     */
+    public static final int MOVING_COST = 5;
+    
     private String plate;
     private String name;
     private EVCompany company;
-    private Location location;
-    private Location targetLocation;
-    private Location rechargingLocation;
-    private int idleCount;
-    private int batteryCapacity;
-    private int batteryLevel;
-    private int kwsCharged;
-    private int chargesCount;
-    private double chargesCost;
+    
+    /**
+     * Store that holds the mutable state of this vehicle (locations, battery,
+     * idle count and charges) and row of the vehicle in it. This object is a view
+     * over that row. A new vehicle has no store until it is added to the fleet of
+     * its company (see {@link FleetStore#add(ElectricVehicle)}); only if it is
+     * used before that it gets a store of its own (see {@link #store()}).
+     */
+    private FleetStore fleet;
+    private int row;
+    
+    /**
+     * Packed location and target and battery capacity given to the constructor,
+     * kept until the vehicle gets a row (see {@link #initRow(FleetStore, int)}).
+     */
+    private long initialLocation;
+    private long initialTarget;
+    private int initialCapacity;
+    
+    /**
+     * Updates of shared objects (chargers and company) postponed by a parallel
+     * step engine, or {@code null} when they are applied immediately.
+     */
+    private List<Runnable> deferredUpdates;
+    
+    /**
+     * Update of the ranking of the vehicles of the company, created once and
+     * applied whenever the location, target or idle count of this vehicle changes.
+     */
+    private Runnable rankingUpdate;
     
     protected Enum type;
     
-    private List<String> stepLogs;
+    /**
+     * Receiver of the events of the step in progress, or {@code null} when nobody listens.
+     */
+    private StepEventSink eventSink;
 
     /**
      * Constructor of class ElectricVehicle.
@@ -37,6 +66,9 @@ public abstract class ElectricVehicle
      */
     public ElectricVehicle(EVCompany company, Location location, Location targetLocation, String name, String plate, int batteryCapacity)
     {   
+        this.initialLocation = FleetStore.NO_LOCATION;
+        this.initialTarget = FleetStore.NO_LOCATION;
+        this.rankingUpdate = () -> this.company.vehicleRankingChanged(this);
         try{
             if(company == null){
                 throw new NullPointerException("The vehicle need a owner");
@@ -57,19 +89,12 @@ public abstract class ElectricVehicle
                 throw new IllegalArgumentException("The battery capacity of the vehicle must be positive");
             }  
             this.company=company;
-            this.location=location;
-            this.targetLocation=targetLocation;
-            this.rechargingLocation=null;
+            this.initialLocation = FleetStore.pack(location);
+            this.initialTarget = FleetStore.pack(targetLocation);
             this.name=name;
             this.plate=plate;
-            this.batteryCapacity=batteryCapacity;
-            this.idleCount=0;
-            this.batteryLevel=batteryCapacity; //battery level is maxed
-            this.kwsCharged=0;
-            this.chargesCount=0;
-            this.chargesCost=0;
+            this.initialCapacity = batteryCapacity; //el estado se escribe al obtener una fila
             this.type = null;
-            this.stepLogs = new ArrayList<>();
         } catch(NullPointerException e){
             System.err.println("Error creating vehicle: " + e.getMessage());
         } catch(IllegalArgumentException e){
@@ -87,7 +112,7 @@ public abstract class ElectricVehicle
      */
     public Location getLocation()
     {
-        return this.location;
+        return FleetStore.unpack(store().getLocation(row));
     }
     
     /**
@@ -96,7 +121,7 @@ public abstract class ElectricVehicle
      */
     public Location getTargetLocation()
     {
-        return this.targetLocation;
+        return FleetStore.unpack(store().getTarget(row));
     }
     
     /**
@@ -123,7 +148,7 @@ public abstract class ElectricVehicle
      */
     public int getBatteryCapacity()
     {
-        return this.batteryCapacity;
+        return store().getBatteryCapacity(row);
     }
     
     /**
@@ -131,7 +156,7 @@ public abstract class ElectricVehicle
       */
     public int getIdleCount()
     {
-        return this.idleCount;
+        return store().getIdleCount(row);
     }
     
     /**
@@ -139,7 +164,7 @@ public abstract class ElectricVehicle
       */
     public int getChargesCount()
     {  
-        return this.chargesCount;
+        return store().getChargesCount(row);
     }
     
     /**
@@ -147,7 +172,7 @@ public abstract class ElectricVehicle
       */
     public int getBatteryLevel()
     {  
-        return this.batteryLevel;
+        return store().getBatteryLevel(row);
     }
     
     /**
@@ -156,7 +181,7 @@ public abstract class ElectricVehicle
      */
     public Location getRechargingLocation()
     {
-        return this.rechargingLocation;
+        return FleetStore.unpack(store().getRecharging(row));
     }
     
     /**
@@ -172,7 +197,7 @@ public abstract class ElectricVehicle
      * @return The total kwh charged.
      */
     public int getKwsCharged(){
-        return this.kwsCharged;
+        return store().getKwsCharged(row);
     }
     
     /**
@@ -180,7 +205,7 @@ public abstract class ElectricVehicle
      * @return The total cost in euros.
      */
     public double getChargesCost(){
-        return this.chargesCost;
+        return store().getChargesCost(row);
     }
     
     /**
@@ -190,6 +215,23 @@ public abstract class ElectricVehicle
     public Enum getType(){
         return this.type;
     }
+    
+    /**
+     * Gets the store that holds the state of this vehicle.
+     * @return The {@link FleetStore} this vehicle is a view of.
+     */
+    public FleetStore getFleet(){
+        return store();
+    }
+    
+    /**
+     * Gets the row of this vehicle in its store.
+     * @return The row in {@link #getFleet()}.
+     */
+    public int getRow(){
+        store(); //la fila sólo existe una vez que hay almacén
+        return this.row;
+    }
 
     // -------------------------------------------------
     // -------------------- Setters --------------------
@@ -202,7 +244,8 @@ public abstract class ElectricVehicle
      */
     public void setLocation(Location location)
     {
-        this.location = location;
+        store().setLocation(row, FleetStore.pack(location));
+        rankingChanged();
     }
     
     /**
@@ -211,7 +254,8 @@ public abstract class ElectricVehicle
      */
     public void setTargetLocation(Location location)
     {
-        this.targetLocation = location;
+        store().setTarget(row, FleetStore.pack(location));
+        rankingChanged();
     }
     
     /**
@@ -220,7 +264,7 @@ public abstract class ElectricVehicle
      */
     public void setRechargingLocation(Location location)
     {
-        this.rechargingLocation = location;
+        store().setRecharging(row, FleetStore.pack(location));
     }
     
     /**
@@ -229,7 +273,65 @@ public abstract class ElectricVehicle
      */
     public void setBatteryLevel(int level)
     {
-        this.batteryLevel = level;
+        store().setBatteryLevel(row, level);
+    }
+    
+    /**
+     * Makes this vehicle a view over a row of a {@link FleetStore}.
+     * Invoked by {@link FleetStore#add(ElectricVehicle)} once the state has been copied.
+     * @param fleet The store that holds the state.
+     * @param row The row of this vehicle in the store.
+     */
+    void bind(FleetStore fleet, int row)
+    {
+        this.fleet = fleet;
+        this.row = row;
+        fleet.setTier(row, this.type);
+    }
+    
+    /**
+     * Gets the store that holds the state of this vehicle, without creating one.
+     * Used by {@link FleetStore#add(ElectricVehicle)}.
+     * @return The store, or {@code null} if the vehicle has never been used or added to a fleet.
+     */
+    FleetStore boundFleet()
+    {
+        return this.fleet;
+    }
+    
+    /**
+     * Writes the initial state of this vehicle (the one given to the constructor,
+     * with the battery full and no idle steps or charges) into a new row.
+     * @param fleet The store.
+     * @param row The row, reserved for this vehicle.
+     */
+    void initRow(FleetStore fleet, int row)
+    {
+        fleet.setLocation(row, initialLocation);
+        fleet.setTarget(row, initialTarget);
+        fleet.setRecharging(row, FleetStore.NO_LOCATION);
+        fleet.setBatteryCapacity(row, initialCapacity);
+        fleet.setIdleCount(row, 0);
+        fleet.setBatteryLevel(row, initialCapacity); //battery level is maxed
+        fleet.setKwsCharged(row, 0);
+        fleet.setChargesCount(row, 0);
+        fleet.setChargesCost(row, 0);
+    }
+    
+    /**
+     * Gets the store that holds the state of this vehicle. A vehicle used outside
+     * a fleet gets a store of its own the first time, with its initial state.
+     * @return The store.
+     */
+    private FleetStore store()
+    {
+        if (fleet == null) { //fuera de una compañía: almacén propio, sólo cuando hace falta
+            FleetStore own = new FleetStore(1);
+            int ownRow = own.newRow(this);
+            initRow(own, ownRow);
+            bind(own, ownRow);
+        }
+        return fleet;
     }
     
     // ------------------------------------------------
@@ -241,7 +343,8 @@ public abstract class ElectricVehicle
      */
     public void incrementCharges()
     {
-         this.chargesCount++;
+         FleetStore fleet = store();
+         fleet.setChargesCount(row, fleet.getChargesCount(row) + 1);
     }
     
     /**
@@ -250,7 +353,8 @@ public abstract class ElectricVehicle
      */
     public void incrementChargesCost(double cost)
     {
-         this.chargesCost+=cost;
+         FleetStore fleet = store();
+         fleet.setChargesCost(row, fleet.getChargesCost(row) + cost);
     } 
     
     /**
@@ -258,18 +362,22 @@ public abstract class ElectricVehicle
      */
     public void incrementIdleCount()
     {
-        this.idleCount++;
+        FleetStore fleet = store();
+        fleet.setIdleCount(row, fleet.getIdleCount(row) + 1);
+        rankingChanged();
     }
     
     /**
-     * Reduces the battery level by the cost of one movement step (defined in {@link EVCompany#MOVINGCOST}).
+     * Reduces the battery level by the cost of one movement step (defined in {@link #MOVING_COST}).
      * Ensures the battery level does not go below zero.
      */
     public void reduceBatteryLevel(){
-        this.batteryLevel-=5;  
-        if (this.batteryLevel < 0){
-            this.batteryLevel = 0; //No negative battery level
+        FleetStore fleet = store();
+        int level = fleet.getBatteryLevel(row) - MOVING_COST;  
+        if (level < 0){
+            level = 0; //No negative battery level
         }
+        fleet.setBatteryLevel(row, level);
     }
     
     /**
@@ -295,7 +403,7 @@ public abstract class ElectricVehicle
     public boolean enoughBattery(int distanceToTargetLocation)
     {
         boolean enough=false;
-        if(distanceToTargetLocation*5 <= batteryLevel)
+        if(distanceToTargetLocation*MOVING_COST <= getBatteryLevel())
             enough=true;
         return enough;
     }
@@ -303,28 +411,27 @@ public abstract class ElectricVehicle
     /**
      * Determines the optimal intermediate {@link ChargingStation} to visit for recharging
      * if the vehicle cannot reach the final target directly.
+     * Only the stations within battery range are examined; they are obtained from the
+     * spatial index of the company (see {@link EVCompany#getStationsWithin(Location, int)}).
      * Sets {@code rechargingLocation} to the chosen station's location or null if doesn't exists one.
      */
     public void calculateRechargingPosition()
     {
-        Set<ChargingStation> stations = this.getCompany().getCityStations();
-        Iterator<ChargingStation> it = stations.iterator();
+        if (this.getCompany().getNumberOfStations() == 0) {
+            return; //sin estaciones no se modifica la ruta
+        }
+        List<ChargingStation> stations =
+            this.getCompany().getStationsWithin(this.getLocation(), getBatteryLevel() / MOVING_COST);
         
-        //int betterDistance = 999;
         Charger bestCharger = null;
         Location betterStation = null;
 
-        while (it.hasNext()) { //recorremos el conjunto de estaciones
-            ChargingStation currentStation = it.next();
+        for (ChargingStation currentStation : stations) { //recorremos las estaciones al alcance
             Location currentLocation = currentStation.getLocation();
             int distToStation = this.getLocation().distance(currentLocation);
             
             if (requirements(distToStation, currentLocation)) { //Si cumplo los requisitos: Batería suficiente y no estar ya en ella
-                List<Charger> chargers = currentStation.getChargers();
-                Iterator<Charger> itChargers = chargers.iterator();
-                //int distance = distToStation + currentLocation.distance(this.getTargetLocation());
-                while (itChargers.hasNext()) { //Recorremos ahora la lista de cargadores
-                    Charger c = itChargers.next();
+                for (Charger c : currentStation.getChargers()) { //Recorremos ahora la lista de cargadores
                     if(c.canCharge(this)){
                         if(isBetterCharger(c, bestCharger, currentLocation, betterStation)){
                             bestCharger = c;
@@ -333,10 +440,75 @@ public abstract class ElectricVehicle
                     }
                 }
             }
-            setRechargingLocation(betterStation); // Si no se encuentra ninguna, se asigna null
         }
+        setRechargingLocation(betterStation); // Si no se encuentra ninguna, se asigna null
     } 
     
+    /**
+     * Gets the maximum number of movement steps this vehicle performs in one simulation step.
+     * Step engines that do not call {@link #move(int)} use it to reproduce the movement of each subclass.
+     * @return The number of movements per simulation step.
+     */
+    public int getMovesPerStep()
+    {
+        return 1;
+    }
+
+    /**
+     * Counts the next simulation steps in which this vehicle only travels: it moves
+     * {@link #getMovesPerStep()} times towards its next stop without reaching its
+     * target or a station and without running out of battery. Computed in constant
+     * time from the distances, with the movement rules of {@link #move(int)}.
+     * @return The number of quiet steps before the step of the next event; 0 if the
+     *         vehicle is not travelling or the next step already has an event.
+     */
+    public int getQuietSteps()
+    {
+        FleetStore fleet = store();
+        long location = fleet.getLocation(row);
+        long recharging = fleet.getRecharging(row);
+        long target = fleet.getTarget(row);
+        boolean canArriveStation = canArriveStation();
+        if (location == target || !(canArriveStation || canArriveTarget())) {
+            return 0; //parado
+        }
+        if (recharging != FleetStore.NO_LOCATION && (!canArriveStation || location == recharging)) {
+            return 0; //el camino no se puede prever: se avanza paso a paso
+        }
+        long destination = recharging != FleetStore.NO_LOCATION ? recharging : target;
+        int moves = Location.distance(location, destination);
+        int visit = Location.movesUntil(location, destination, target);
+        if (visit > 0) {
+            moves = visit; //pasar por el destino también detiene al vehículo
+        }
+        moves = Math.min(moves, fleet.getBatteryLevel(row) / MOVING_COST);
+        return moves <= 0 ? 0 : (moves - 1) / getMovesPerStep();
+    }
+
+    /**
+     * Advances this vehicle a number of simulation steps in constant time, as
+     * calling {@link #act(int)} that many times would, as long as the steps are
+     * quiet (see {@link #getQuietSteps()}). The vehicle stops at the beginning of
+     * the step of its next event, which is left to {@link #act(int)}.
+     * No step events are produced.
+     * @param steps The number of steps to advance.
+     * @return The number of steps advanced, at most {@code steps}.
+     */
+    public int advance(int steps)
+    {
+        int quiet = Math.min(steps, getQuietSteps());
+        if (quiet <= 0) {
+            return 0;
+        }
+        int moves = quiet * getMovesPerStep();
+        FleetStore fleet = store();
+        long recharging = fleet.getRecharging(row);
+        long destination = recharging != FleetStore.NO_LOCATION ? recharging : fleet.getTarget(row);
+        fleet.setLocation(row, Location.advance(fleet.getLocation(row), destination, moves));
+        fleet.setBatteryLevel(row, Math.max(0, fleet.getBatteryLevel(row) - moves * MOVING_COST));
+        return quiet;
+    }
+    
     /**
      * Compares two chargers according to the vehicle's specific criteria. 
      * Each subclass implements its own logic (e.g., shortest distance, lowest cost).
@@ -367,7 +539,7 @@ public abstract class ElectricVehicle
       * @return Whether or not this vehicle has a recharging location set.
       */
      public boolean hasRechargingLocation(){
-        if(getRechargingLocation()==null)
+        if(store().getRecharging(row)==FleetStore.NO_LOCATION)
             return false;
         return true;
      }
@@ -377,7 +549,7 @@ public abstract class ElectricVehicle
      * @return {@code true} if it has a recharging location and enough battery to get there, {@code false} otherwise.
      */
     public boolean canArriveStation(){
-        return hasRechargingLocation() && enoughBattery(getLocation().distance(getRechargingLocation()));    
+        return hasRechargingLocation() && enoughBattery(Location.distance(store().getLocation(row), store().getRecharging(row)));    
     }
     
     /**
@@ -393,7 +565,7 @@ public abstract class ElectricVehicle
      * @return {@code true} if the current location equals the target location, {@code false} otherwise.
      */
     public boolean isInTarget(){
-        return location.equals(targetLocation);
+        return store().getLocation(row) == store().getTarget(row);
     }
     
     /**
@@ -401,7 +573,7 @@ public abstract class ElectricVehicle
      * @return {@code true} if the vehicle has a recharging location and is at that location, {@code false} otherwise.
      */
     public boolean isInStation(){
-        return hasRechargingLocation() && location.equals(rechargingLocation);
+        return hasRechargingLocation() && store().getLocation(row) == store().getRecharging(row);
     }
     
     /**
@@ -418,20 +590,31 @@ public abstract class ElectricVehicle
     */
      public int distanceToTheTargetLocation()
      {
-        return this.location.distance(this.targetLocation);
+        return Location.distance(store().getLocation(row), store().getTarget(row));
      }
 
      /**
       * Simulates the recharging process when the vehicle arrives at a {@code rechargingLocation}.
       * The battery is charged to full capacity, the cost is calculated, and the route is recalculated.
+      * If the company has {@link ChargingSessions}, the vehicle starts a session (or waits for a
+      * free charger) instead, and the recharge is completed when the session ends.
       * @param step The current step of the simulation.
       */
     public void recharge(int step)
     {
+       ChargingSessions sessions = company == null ? null : company.getChargingSessions();
+       if (sessions != null) {
+           StepEventSink sink = eventSink; //los eventos de la sesión los emite ChargingSessions
+           shared(() -> sessions.arrive(this, step, sink)); //la carga dura varios pasos
+           return;
+       }
 
        Charger freeCharger = getFreeChargerFromStation();
        
        if (freeCharger != null){
+           if (hasEventSink()) {
+               emit(StepEvent.recharging(this, step, freeCharger));
+           }
            load(step, freeCharger);
        }
     } 
@@ -447,13 +630,15 @@ public abstract class ElectricVehicle
             if(freeCharger == null){
                 throw new IllegalArgumentException("No free charger available");
             }
-            double cost = freeCharger.recharge(this, getBatteryCapacity() - getBatteryLevel());
+            int kws = getBatteryCapacity() - getBatteryLevel();
+            double cost = freeCharger.quoteRecharge(this, kws);
+            shared(() -> freeCharger.recharge(this, kws, step));
                
             setBatteryLevel(getBatteryCapacity()); //Ponemos la batería al máximo
             incrementCharges();
             incrementChargesCost(cost);
                
-            notifyCompany(freeCharger); //NOTIFICAMOS A EVCOMPANY (NUEVO)
+            shared(() -> notifyCompany(freeCharger, kws, cost, step)); //NOTIFICAMOS A EVCOMPANY (NUEVO)
                
             setRechargingLocation(null);
             calculateRoute();
@@ -462,27 +647,92 @@ public abstract class ElectricVehicle
         }
     }
     
+    /**
+     * Applies an update of objects shared with other vehicles (chargers, company).
+     * The update runs immediately unless a step engine has asked to defer it
+     * (see {@link #deferSharedUpdates(List)}).
+     * @param update The update to apply.
+     */
+    protected void shared(Runnable update)
+    {
+        if (deferredUpdates != null) {
+            deferredUpdates.add(update);
+        } else {
+            update.run();
+        }
+    }
+    
+    /**
+     * Informs the company that the location, target or idle count of this vehicle
+     * has changed, so that it keeps its ranking of vehicles up to date.
+     * Like any shared update, it is deferred while a step engine asks for it.
+     */
+    void rankingChanged()
+    {
+        if (company != null) {
+            shared(rankingUpdate);
+        }
+    }
+    
+    /**
+     * Makes the vehicle postpone the updates of shared objects, collecting them in a list
+     * instead of applying them. Used by {@link ParallelStepEngine} to act on several vehicles
+     * at the same time and apply the updates afterwards in a deterministic order.
+     * @param sink The list that collects the updates, or {@code null} to apply them immediately again.
+     */
+    void deferSharedUpdates(List<Runnable> sink)
+    {
+        this.deferredUpdates = sink;
+    }
+    
     /**
      * Notifies the company that a recharge has been performed.
      * @param charger The charger where the recharge took place.
      */
-    protected void notifyCompany(Charger charger) { //este método lo llaman las compañías que necesiten 
-                                                    //notificar; PriorityEV, no.
-        if (getCompany() != null) {
-            getCompany().registerRecharge(charger, this);
+    protected void notifyCompany(Charger charger) {
+        notifyCompany(charger, RechargeHistory.NO_STEP);
+    }
+    
+    /**
+     * Notifies the company that a recharge has been performed during a simulation step.
+     * @param charger The charger where the recharge took place.
+     * @param step The simulation step of the recharge.
+     */
+    protected void notifyCompany(Charger charger, int step) {
+        notifyCompany(charger, 0, 0, step);
+    }
+    
+    /**
+     * Notifies the company of a recharge performed during a simulation step, with the kWh recharged and its cost.
+     * @param charger The charger where the recharge took place.
+     * @param kws The number of kWh recharged.
+     * @param cost The cost of the recharge.
+     * @param step The simulation step of the recharge.
+     */
+    protected void notifyCompany(Charger charger, int kws, double cost, int step) {
+        if (getCompany() != null && notifiesCompany()) {
+            getCompany().registerRecharge(charger, this, kws, cost, step);
         }
     }
     
+    /**
+     * Checks if this vehicle registers its recharges in the company.
+     * @return {@code true} if {@link #notifyCompany(Charger)} registers the recharges; PriorityEV, no.
+     */
+    protected boolean notifiesCompany() {
+        return true;
+    }
+    
     /**
      * Retrieves a free charger from the current station compatible with this vehicle's type.
      * @return A compatible {@link Charger} if available, or {@code null} otherwise.
      */
     public Charger getFreeChargerFromStation(){
         if(type==null){
-            return company.getChargingStation(rechargingLocation).getFreeCharger();
+            return company.getChargingStation(getRechargingLocation()).getFreeCharger();
         }
         else{
-            return company.getChargingStation(rechargingLocation).getFreeCharger(this.type);
+            return company.getChargingStation(getRechargingLocation()).getFreeCharger(this.type);
         }
     }
     
@@ -492,9 +742,7 @@ public abstract class ElectricVehicle
      * @return A formatted string for a step log.
      */
     public String getStepInfo(int step){
-        String info = this.toString();
-        
-        return "(step: " + step + " - " + info.substring(1); // quie hay un \n
+        return StepEvent.status(this, step, false).render();
     }
 
     /**
@@ -503,7 +751,7 @@ public abstract class ElectricVehicle
      * @return A formatted string with the arrival message.
      */
     public String getArrivalInfo(int step){
-        return "(step: " + step + " - "+ this.getClass().getSimpleName()+ ": " + this.getPlate() + " at target destination ********)";
+        return StepEvent.arrived(this, step).render();
     }
     
     /**
@@ -512,10 +760,7 @@ public abstract class ElectricVehicle
      * @return A formatted string with the recharging details (kWh recharged, cost, etc.).
      */
     public String getChargingInfo(int step){
-        ChargingStation station = getCompany().getChargingStation(getRechargingLocation());
-        Charger charger=getFreeChargerFromStation();
-        return "(step: "+step+" - "+this.getClass().getSimpleName() + ": " + getPlate()+ " recharges: "+(getBatteryCapacity() - getBatteryLevel())+"kwh at " + charger.getClass().getSimpleName() + ": " + charger.getId()+" with cost: "
-        +String.format(java.util.Locale.US, "%.2f", charger.calculateFee(getBatteryCapacity() - getBatteryLevel()))+"€ ********)";
+        return StepEvent.recharging(this, step, getFreeChargerFromStation()).render();
     }
     
     /**
@@ -524,11 +769,11 @@ public abstract class ElectricVehicle
      */
     public String getStringRoute()
     {
-        String route = location.toString();
+        String route = getLocation().toString();
         if(hasRechargingLocation()){
-            route = route + " -> " + rechargingLocation.toString();
+            route = route + " -> " + getRechargingLocation().toString();
         }
-        route = route + " -> " + targetLocation.toString();
+        route = route + " -> " + getTargetLocation().toString();
         return route;
     }
     
@@ -538,19 +783,39 @@ public abstract class ElectricVehicle
      */
     @Override
     public String toString(){
-        String route = this.location.toString();
+        return describe(this, getBatteryCapacity(), getBatteryLevel(), getChargesCount(), getChargesCost(),
+                        getIdleCount(), store().getLocation(row), store().getRecharging(row), store().getTarget(row));
+    }
+    
+    /**
+     * Builds the description of a vehicle used by {@link #toString()} from a snapshot of its state,
+     * so that {@link StepEvent}s can render the state a vehicle had in a past step.
+     * @param vehicle The vehicle (its class, name and plate do not change).
+     * @param batteryCapacity The battery capacity in kWh.
+     * @param batteryLevel The battery level in kWh.
+     * @param chargesCount The number of recharges.
+     * @param chargesCost The total cost of the recharges.
+     * @param idleCount The idle count.
+     * @param location The packed current location.
+     * @param recharging The packed recharging location, or {@link FleetStore#NO_LOCATION}.
+     * @param target The packed target location.
+     * @return The description of the vehicle.
+     */
+    static String describe(ElectricVehicle vehicle, int batteryCapacity, int batteryLevel, int chargesCount,
+                           double chargesCost, int idleCount, long location, long recharging, long target){
+        String route = FleetStore.unpack(location).toString();
         
-        if (hasRechargingLocation()){
-            route = route + ", " + this.rechargingLocation.toString();
+        if (recharging != FleetStore.NO_LOCATION){
+            route = route + ", " + FleetStore.unpack(recharging).toString();
         }
         
-        route += ", " + this.targetLocation.toString();
+        route += ", " + FleetStore.unpack(target).toString();
         
-        return "("+ getClass().getSimpleName() + ": " + this.name + ", " + 
-               this.plate + ", " + this.batteryCapacity + "kwh, " + 
-               this.batteryLevel + "kwh, " + this.chargesCount + ", " + 
-               String.format(java.util.Locale.US, "%.2f", this.chargesCost) + "€, " + 
-               this.idleCount + ", " + route + ")";
+        return "("+ vehicle.getClass().getSimpleName() + ": " + vehicle.name + ", " + 
+               vehicle.plate + ", " + batteryCapacity + "kwh, " + 
+               batteryLevel + "kwh, " + chargesCount + ", " + 
+               String.format(java.util.Locale.US, "%.2f", chargesCost) + "€, " + 
+               idleCount + ", " + route + ")";
     }
     
     /**
@@ -565,24 +830,62 @@ public abstract class ElectricVehicle
       * Carries out a single step of the vehicle's actions.
       * Moves one step towards the target (recharging or final) or stays idle.
       * @param step The current step of the simulation.
+      * @return The lines of the step log, rendered from the events of the step.
       */
      public List<String> act(int step)
      {  
-        stepLogs.clear();
-        
-        possibilities(step);
-        //Añadir info del paso (step)
-        logMessage(getStepInfo(step));
-        
-        return new ArrayList<>(stepLogs);
+        List<String> logs = new ArrayList<>();
+        act(step, event -> logs.add(event.render()));
+        return logs;
     }
     
     /**
-     * Internal method to store log messages in the buffer instead of printing directly.
-     * @param message The message to log.
+      * Carries out a single step of the vehicle's actions, delivering its events to a sink.
+      * No event is created, and no text is built, when the sink is {@code null}.
+      * @param step The current step of the simulation.
+      * @param sink The receiver of the events of the step, or {@code null}.
+      */
+     public void act(int step, StepEventSink sink)
+     {  
+        this.eventSink = sink;
+        try {
+            int idle = getIdleCount();
+            possibilities(step);
+            //Añadir info del paso (step)
+            if (sink != null) {
+                emit(StepEvent.status(this, step, getIdleCount() == idle));
+            }
+        } finally {
+            this.eventSink = null;
+        }
+    }
+    
+    /**
+     * Checks if somebody listens to the events of the step in progress.
+     * Events should only be created when it does.
+     * @return {@code true} if there is a sink for the events of the step.
      */
-    protected void logMessage(String message) {
-        stepLogs.add(message);
+    protected boolean hasEventSink() {
+        return eventSink != null;
+    }
+    
+    /**
+     * Delivers an event to the sink of the step in progress, if any.
+     * While the updates of shared objects are deferred (see {@link #deferSharedUpdates(List)})
+     * the delivery is deferred with them, so the events keep their order relative
+     * to the events emitted by those updates.
+     * @param event The event.
+     */
+    protected void emit(StepEvent event) {
+        StepEventSink sink = eventSink;
+        if (sink == null) {
+            return;
+        }
+        if (deferredUpdates != null) {
+            deferredUpdates.add(() -> sink.onStepEvent(event));
+        } else {
+            sink.onStepEvent(event);
+        }
     }
     
     /**
@@ -590,6 +893,13 @@ public abstract class ElectricVehicle
      * @param step The current simulation step.
      */
     public void possibilities(int step){
+         ChargingSessions sessions = company == null ? null : company.getChargingSessions();
+         if (sessions != null && sessions.isBusy(this)) { //cargando o esperando un cargador: no se mueve
+             if (sessions.isWaiting(this)) {
+                 incrementIdleCount();
+             }
+             return;
+         }
          if(canArriveStation() || canArriveTarget()){
              if(isInTarget()) { //estamos en el destino, contamos tiempo parado
                incrementIdleCount();
@@ -612,23 +922,26 @@ public abstract class ElectricVehicle
      * @param step The current simulation step.
      */
     protected void move(int step){
-            Location destination;
+            FleetStore fleet = store();
+            long destination;
     
                 if (hasRechargingLocation()) {
-                    destination = rechargingLocation;
+                    destination = fleet.getRecharging(row);
                 }   else {
-                    destination = targetLocation;
+                    destination = fleet.getTarget(row);
                 }
                 
-            setLocation(location.nextLocation(destination));
+            fleet.setLocation(row, Location.next(fleet.getLocation(row), destination));
             if(isInTarget()) { //si llega a la estacion muestra mensaje
-                 logMessage(getArrivalInfo(step));
+                 rankingChanged(); //los vehículos en su destino van primero
+                 if (hasEventSink()) {
+                     emit(StepEvent.arrived(this, step));
+                 }
             }
             reduceBatteryLevel();
                  
             //si llega a una estacion recarga
             if(isInStation()) {
-               logMessage(getChargingInfo(step));
                recharge(step); 
             }    
     }
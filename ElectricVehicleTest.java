@@ -13,6 +13,8 @@ import org.junit.jupiter.api.Test;
  *   <li>Route calculation logic including intermediate recharge stops.</li>
  *   <li>Recharging process and cost updates.</li>
  *   <li>Movement simulation using {@code act()}.</li>
+ *   <li>Fast-forwarding quiet steps using {@code advance()}.</li>
+ *   <li>Lazy creation of the fleet store of vehicles used outside a company.</li>
  * </ul>
  * </p>
  * <p>
@@ -208,4 +210,52 @@ public class ElectricVehicleTest
         assertNotEquals(start, standardV.getLocation());
         assertTrue(standardV.getBatteryLevel() < battery); 
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that {@code advance()} moves a vehicle as many quiet steps as {@code act()}
+     * would, stopping at the beginning of the step in which it arrives.
+     */
+    @Test
+    public void testAdvance()
+    {
+        assertEquals(14, standardV.getQuietSteps());
+        assertEquals(14, standardV.advance(20));
+        assertEquals(new Location(19, 19), standardV.getLocation());
+        assertEquals(30, standardV.getBatteryLevel());
+        assertEquals(0, standardV.advance(1));
+        standardV.act(14);
+        assertEquals(targetLocation, standardV.getLocation());
+        assertEquals(0, standardV.getQuietSteps());
+
+        ElectricVehicle stepped = new PriorityEV(company, initialLocation, targetLocation, "Priority", "PRI02", 100);
+        assertEquals(7, priorityEV.getQuietSteps());
+        for (int step = 0; step < 5; step++) {
+            stepped.act(step);
+        }
+        assertEquals(5, priorityEV.advance(5));
+        assertEquals(stepped.getLocation(), priorityEV.getLocation());
+        assertEquals(stepped.getBatteryLevel(), priorityEV.getBatteryLevel());
+        assertEquals(stepped.getIdleCount(), priorityEV.getIdleCount());
+    }
+
+    /**
+     * Tests that a vehicle only gets a store of its own when it is used outside a
+     * company, and that one added to a company keeps its state in the company fleet.
+     */
+    @Test
+    public void testLazyFleetStore()
+    {
+        ElectricVehicle joined = new StandardEV(company, initialLocation, targetLocation, "Standard", "STD02", 80);
+        assertNull(joined.boundFleet());
+        company.addElectricVehicle(joined);
+        assertSame(company.getFleet(), joined.boundFleet());
+        assertEquals(initialLocation, joined.getLocation());
+        assertEquals(80, joined.getBatteryLevel());
+
+        ElectricVehicle alone = new StandardEV(company, initialLocation, targetLocation, "Standard", "STD03", 60);
+        assertNull(alone.boundFleet());
+        assertEquals(60, alone.getBatteryLevel());
+        assertNotNull(alone.boundFleet());
+        assertNotSame(company.getFleet(), alone.boundFleet());
+    }
+}
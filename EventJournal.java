@@ -0,0 +1,281 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Append-only binary journal of the {@link StepEvent}s of a simulation run.
+ * <p>
+ * Every event is stored as a fixed-width record of {@link #RECORD_SIZE} bytes,
+ * in little-endian order:
+ * </p>
+ * <pre>
+ *  offset  size  field
+ *       0     4  step
+ *       4     4  vehicle (row of the vehicle in the fleet of the company)
+ *       8     4  type (ordinal of {@link StepEvent.Type})
+ *      12     4  battery level, in kWh
+ *      16     8  location (packed, see {@link Location#pack(int, int)})
+ *      24     4  charger (index in the charger table, or -1)
+ *      28     4  recharged kWh
+ *      32     8  cost of the recharge
+ *      40     8  recharging location (packed, or {@link FleetStore#NO_LOCATION})
+ * </pre>
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes (magic number,
+ * version, header size, record size and number of records). Records are
+ * written through memory-mapped segments of the file, so appending an event is
+ * a few stores in memory and the operating system writes the pages in the
+ * background.
+ * </p>
+ * <p>
+ * Chargers are identified in the records by their index in a table that is
+ * appended, one charger id per line, to a text file next to the journal (see
+ * {@link #chargerTablePath(Path)}) as new chargers appear. Journals are read
+ * with {@link JournalReader}.
+ * </p>
+ * <p>
+ * The number of records in the header is updated each time a segment is
+ * flushed: when it is full, on {@link #flush()} and on {@link #close()}, after
+ * the charger table and the records. A run that crashes can therefore be read
+ * up to the last flush. The file is never truncated, since that fails on some
+ * systems while segments are mapped: its last segment is mapped whole, so the
+ * file may be longer than the {@link #HEADER_SIZE} bytes plus the
+ * {@link #RECORD_SIZE} bytes of each record counted in the header.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class EventJournal implements StepEventSink, AutoCloseable
+{
+    /** Magic number at the start of every journal ("EVJ1"). */
+    public static final int MAGIC = 0x45564A31;
+    /** Version of the record layout. */
+    public static final int VERSION = 2;
+    /** Size of the header, in bytes. */
+    public static final int HEADER_SIZE = 32;
+    /** Size of a record, in bytes. */
+    public static final int RECORD_SIZE = 48;
+    /** Default number of records of each mapped segment. */
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 16;
+
+    /** Offset of the number of records in the header. */
+    static final int COUNT_OFFSET = 16;
+
+    private Path path;
+    private FileChannel channel;
+    /** Header of the file, mapped while the journal is open. */
+    private MappedByteBuffer header;
+    /** Writer of the charger table, which receives each charger id as it appears. */
+    private BufferedWriter chargerTable;
+    private long segmentSize;
+    /** Segment being written, or {@code null} before the first record. */
+    private MappedByteBuffer segment;
+    /** Offset in the file of the start of {@link #segment}. */
+    private long segmentStart;
+    private long records;
+    /** Index of each charger in the charger table, in order of first appearance. */
+    private Map<Charger, Integer> chargers;
+    private boolean closed;
+
+    /**
+     * Creates a journal with the default segment size. An existing file is replaced.
+     *
+     * @param path The path of the journal file.
+     * @throws UncheckedIOException If the file cannot be created.
+     */
+    public EventJournal(Path path)
+    {
+        this(path, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Creates a journal. An existing file is replaced.
+     *
+     * @param path The path of the journal file. Must not be {@code null}.
+     * @param segmentRecords The number of records of each mapped segment. Must be positive.
+     * @throws NullPointerException If {@code path} is {@code null}.
+     * @throws IllegalArgumentException If {@code segmentRecords} is not positive.
+     * @throws UncheckedIOException If the file cannot be created.
+     */
+    public EventJournal(Path path, int segmentRecords)
+    {
+        if (path == null) {
+            throw new NullPointerException("EventJournal need a path");
+        }
+        if (segmentRecords <= 0) {
+            throw new IllegalArgumentException("Number of records of a segment must be positive");
+        }
+        this.path = path;
+        this.segmentSize = (long) segmentRecords * RECORD_SIZE;
+        this.chargers = new IdentityHashMap<>();
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, HEADER_SIZE);
+            header.putInt(12, RECORD_SIZE);
+            header.putLong(COUNT_OFFSET, 0);
+            header.force();
+            this.chargerTable = Files.newBufferedWriter(chargerTablePath(path)); //reemplaza la tabla anterior
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the journal " + path, e);
+        }
+    }
+
+    /**
+     * @param journal The path of a journal file.
+     * @return The path of its charger table.
+     */
+    public static Path chargerTablePath(Path journal)
+    {
+        return journal.resolveSibling(journal.getFileName() + ".chargers");
+    }
+
+    /**
+     * @return The path of the journal file.
+     */
+    public Path getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return The number of records written so far.
+     */
+    public long size()
+    {
+        return records;
+    }
+
+    /**
+     * Appends an event to the journal.
+     * Events received after {@link #close()} are discarded.
+     *
+     * @param event The event.
+     * @throws UncheckedIOException If the full segment cannot be flushed, a new segment cannot be mapped
+     *                              or the charger table cannot be written.
+     */
+    @Override
+    public void onStepEvent(StepEvent event)
+    {
+        if (closed) {
+            return;
+        }
+        long offset = HEADER_SIZE + records * RECORD_SIZE;
+        if (segment == null || offset - segmentStart >= segmentSize) {
+            if (segment != null) {
+                flush(); //el segmento lleno queda contado en la cabecera
+            }
+            mapSegment(offset);
+        }
+        int at = (int) (offset - segmentStart);
+        Charger charger = event.getCharger();
+        segment.putInt(at, event.getStep());
+        segment.putInt(at + 4, event.getVehicle().getRow());
+        segment.putInt(at + 8, event.getType().ordinal());
+        segment.putInt(at + 12, event.getBatteryLevel());
+        segment.putLong(at + 16, event.getLocation());
+        segment.putInt(at + 24, charger == null ? -1 : chargerIndex(charger));
+        segment.putInt(at + 28, event.getKwsRecharged());
+        segment.putDouble(at + 32, event.getCost());
+        segment.putLong(at + 40, event.getRechargingLocation());
+        records++;
+    }
+
+    /**
+     * Writes the pending charger ids and records to the file and then updates
+     * the number of records in the header, so a reader sees every record
+     * appended so far even if the run does not close the journal.
+     *
+     * @throws UncheckedIOException If the journal cannot be written.
+     */
+    public void flush()
+    {
+        if (closed) {
+            return;
+        }
+        try {
+            chargerTable.flush(); //antes que los registros que los usan
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the charger table of " + path, e);
+        }
+        if (segment != null) {
+            segment.force();
+        }
+        header.putLong(COUNT_OFFSET, records);
+        header.force();
+    }
+
+    /**
+     * Flushes the journal (see {@link #flush()}) and closes it. The file keeps
+     * the size of its mapped segments. Further calls have no effect.
+     *
+     * @throws UncheckedIOException If the journal cannot be completed.
+     */
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        segment = null;
+        header = null;
+        try {
+            chargerTable.close();
+            channel.close(); //sin truncar: los segmentos siguen mapeados hasta que se liberan
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close the journal " + path, e);
+        }
+    }
+
+    /**
+     * Maps the segment that starts at an offset of the file.
+     *
+     * @param offset The offset of the first record of the segment.
+     */
+    private void mapSegment(long offset)
+    {
+        try {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, offset, segmentSize);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segmentStart = offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot extend the journal " + path, e);
+        }
+    }
+
+    /**
+     * @param charger A charger.
+     * @return The index of the charger in the charger table, appending it if it is new.
+     * @throws UncheckedIOException If the charger table cannot be written.
+     */
+    private int chargerIndex(Charger charger)
+    {
+        Integer index = chargers.get(charger);
+        if (index == null) {
+            index = chargers.size();
+            chargers.put(charger, index);
+            try {
+                chargerTable.write(charger.getId());
+                chargerTable.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write the charger table of " + path, e);
+            }
+        }
+        return index;
+    }
+}
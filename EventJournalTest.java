@@ -0,0 +1,188 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for the {@link EventJournal} and {@link JournalReader} classes.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Records read back with the values of the journaled events, across several segments.</li>
+ *   <li>Seeking the first record of a step.</li>
+ *   <li>Reading a journal that was never closed up to its last flush.</li>
+ *   <li>Rejection of files that are not journals.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class EventJournalTest
+{
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /** The journal file of each test. */
+    private Path path;
+
+    /**
+     * Default constructor for test class EventJournalTest.
+     */
+    public EventJournalTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     * <p>
+     * Generates a small world and creates a temporary file for the journal.
+     * </p>
+     */
+    @BeforeEach
+    public void setUp() throws IOException
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+        company.reset();
+        new ScenarioGenerator(5, 20, 20, 12, 5, 4, ScenarioGenerator.evenTierMix(),
+            ScenarioGenerator.Distribution.UNIFORM).populate(company);
+        path = Files.createTempFile("journal", ".bin");
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(EventJournal.chargerTablePath(path));
+        Files.deleteIfExists(path);
+        company.reset();
+        company = null;
+    }
+
+    /**
+     * Runs the world for a number of steps, sending every event to a journal
+     * with tiny segments and to a list.
+     *
+     * @param steps The number of steps.
+     * @return The events, in order.
+     */
+    private List<StepEvent> runJournaled(int steps)
+    {
+        List<ElectricVehicle> vehicles = new ArrayList<>(company.getVehicles());
+        List<StepEvent> events = new ArrayList<>();
+        EventJournal journal = new EventJournal(path, 7);
+        for (int step = 0; step < steps; step++) {
+            for (ElectricVehicle ev : vehicles) {
+                ev.act(step, event -> {
+                    events.add(event);
+                    journal.onStepEvent(event);
+                });
+            }
+        }
+        journal.close();
+        assertEquals(events.size(), journal.size());
+        return events;
+    }
+
+    /**
+     * Tests that every record holds the values of its event.
+     */
+    @Test
+    public void testRecordsMatchEvents()
+    {
+        List<StepEvent> events = runJournaled(30);
+        JournalReader reader = new JournalReader(path);
+        assertEquals(events.size(), reader.size());
+        assertTrue(path.toFile().length() >= EventJournal.HEADER_SIZE + events.size() * (long) EventJournal.RECORD_SIZE);
+
+        boolean recharged = false;
+        for (int i = 0; i < events.size(); i++) {
+            StepEvent event = events.get(i);
+            assertEquals(event.getStep(), reader.getStep(i));
+            assertEquals(event.getVehicle().getRow(), reader.getVehicle(i));
+            assertEquals(event.getType(), reader.getType(i));
+            assertEquals(event.getBatteryLevel(), reader.getBatteryLevel(i));
+            assertEquals(event.getLocation(), reader.getLocation(i));
+            assertEquals(event.getKwsRecharged(), reader.getKwsRecharged(i));
+            assertEquals(event.getCost(), reader.getCost(i), 0.0);
+            if (event.getCharger() != null) {
+                assertEquals(event.getCharger().getId(), reader.getChargerId(i));
+                recharged = true;
+            } else {
+                assertNull(reader.getChargerId(i));
+            }
+        }
+        assertTrue(recharged);
+    }
+
+    /**
+     * Tests seeking the first record of a step.
+     */
+    @Test
+    public void testFirstRecordOfStep()
+    {
+        List<StepEvent> events = runJournaled(10);
+        JournalReader reader = new JournalReader(path);
+        for (int step = 0; step < 10; step++) {
+            long first = reader.firstRecordOfStep(step);
+            assertEquals(step, reader.getStep(first));
+            assertTrue(first == 0 || reader.getStep(first - 1) == step - 1);
+        }
+        assertEquals(events.size(), reader.firstRecordOfStep(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.getStep(events.size()));
+    }
+
+    /**
+     * Tests that a journal that is never closed, as after a crash, can be read
+     * up to its last full segment or flush, with the ids of its chargers.
+     */
+    @Test
+    public void testUnclosedJournal()
+    {
+        List<ElectricVehicle> vehicles = new ArrayList<>(company.getVehicles());
+        List<StepEvent> events = new ArrayList<>();
+        EventJournal journal = new EventJournal(path, 7);
+        for (int step = 0; step < 30; step++) {
+            for (ElectricVehicle ev : vehicles) {
+                ev.act(step, event -> {
+                    events.add(event);
+                    journal.onStepEvent(event);
+                });
+            }
+        }
+        JournalReader partial = new JournalReader(path);
+        assertEquals((events.size() - 1) / 7 * 7, partial.size()); //los segmentos llenos
+        journal.flush();
+        JournalReader flushed = new JournalReader(path);
+        assertEquals(events.size(), flushed.size());
+        boolean recharged = false;
+        for (int i = 0; i < events.size(); i++) {
+            Charger charger = events.get(i).getCharger();
+            if (charger != null) {
+                assertEquals(charger.getId(), flushed.getChargerId(i));
+                recharged = true;
+            }
+        }
+        assertTrue(recharged);
+        journal.close();
+    }
+
+    /**
+     * Tests that a file that is not a journal is rejected.
+     */
+    @Test
+    public void testNotAJournal() throws IOException
+    {
+        Files.write(path, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> new JournalReader(path));
+    }
+}
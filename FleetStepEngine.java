@@ -0,0 +1,291 @@
+/**
+ * Step engine that advances a fleet by operating directly on the columns of a
+ * {@link FleetStore}.
+ * <p>
+ * For every row the engine reproduces the decisions of
+ * {@link ElectricVehicle#act(int)}: vehicles that can reach their next stop move
+ * towards it, vehicles at their target or without enough battery stay idle. The
+ * movement, battery consumption and idle counting work on the packed primitive
+ * columns only. The less frequent events that need the rest of the model
+ * (planning a recharging stop and recharging at a station) are delegated to the
+ * {@link ElectricVehicle} view of the row, so subclass strategies keep applying.
+ * </p>
+ * <p>
+ * Only the rows that still have something to do are stepped. A row that parks
+ * at its target, or that is stranded without battery to reach its target or any
+ * station, does nothing but count idle steps for the rest of the run: it leaves
+ * the active set and its idle count is kept lazily by the store (see
+ * {@link FleetStore#setIdleSince(int, int)}), so the cost of a step grows with
+ * the number of moving vehicles instead of with the size of the fleet. The
+ * rankings of the idle vehicles are brought up to date when {@link #run(int, int)}
+ * returns.
+ * </p>
+ * <p>
+ * The engine assumes instantaneous recharges: it cannot step a fleet whose
+ * company has {@link ChargingSessions}, whose vehicles must act through
+ * {@link ElectricVehicle#act(int)}.
+ * </p>
+ * <p>
+ * The engine does not produce step logs; use {@link ElectricVehicle#act(int)}
+ * when the textual output of each step is needed.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class FleetStepEngine
+{
+    /**
+     * The store with the state of the fleet.
+     */
+    private FleetStore fleet;
+
+    /**
+     * Rows that are not idle, in row order.
+     */
+    private int[] active;
+
+    /**
+     * Number of rows in {@link #active}.
+     */
+    private int activeCount;
+
+    /**
+     * Size of the fleet when the active set was built.
+     */
+    private int activeRows;
+
+    /**
+     * Constructs an engine for a fleet.
+     *
+     * @param fleet The store with the state of the fleet. Must not be {@code null}.
+     * @throws NullPointerException If {@code fleet} is {@code null}.
+     */
+    public FleetStepEngine(FleetStore fleet)
+    {
+        if (fleet == null) {
+            throw new NullPointerException("FleetStepEngine need a fleet");
+        }
+        this.fleet = fleet;
+        this.activeRows = -1;
+    }
+
+    /**
+     * @return The store with the state of the fleet.
+     */
+    public FleetStore getFleet()
+    {
+        return fleet;
+    }
+
+    /**
+     * @return The number of rows stepped in the last step; idle rows are not stepped.
+     */
+    public int getActiveCount()
+    {
+        return activeCount;
+    }
+
+    /**
+     * Executes a number of consecutive simulation steps.
+     *
+     * @param firstStep The number of the first step.
+     * @param steps The number of steps to execute.
+     * @throws IllegalStateException If the company of the fleet has charging sessions.
+     */
+    public void run(int firstStep, int steps)
+    {
+        activate(firstStep); //recoge los cambios hechos fuera del motor
+        for (int step = firstStep; step < firstStep + steps; step++) {
+            step(step);
+        }
+        for (int row = 0; row < fleet.size(); row++) {
+            if (fleet.getIdleSince(row) != FleetStore.NO_STEP) {
+                fleet.getVehicle(row).rankingChanged();
+            }
+        }
+    }
+
+    /**
+     * Executes a single simulation step for every active row of the fleet, in row order.
+     * Idle rows only have their lazy idle count advanced. The rankings of idle
+     * vehicles are not updated (see {@link #run(int, int)}).
+     *
+     * @param step The current simulation step.
+     * @throws IllegalStateException If the company of the fleet has charging sessions.
+     */
+    public void step(int step)
+    {
+        checkInstantCharging(fleet);
+        if (activeRows != fleet.size() || fleet.getClock() != step) {
+            activate(step);
+        }
+        int kept = 0;
+        for (int i = 0; i < activeCount; i++) {
+            int row = active[i];
+            long recharging = fleet.getRecharging(row);
+            stepRow(row, step);
+            if (staysIdle(row, recharging)) {
+                fleet.setIdleSince(row, step + 1);
+            } else {
+                active[kept++] = row;
+            }
+        }
+        activeCount = kept;
+        fleet.setClock(step + 1);
+    }
+
+    /**
+     * Builds the set of active rows before a step, writing the lazy idle counts
+     * and marking as idle the rows that will not do anything else.
+     *
+     * @param step The next step to execute.
+     */
+    private void activate(int step)
+    {
+        fleet.settleIdleCounts();
+        fleet.setClock(step);
+        activeRows = fleet.size();
+        active = new int[activeRows];
+        activeCount = 0;
+        for (int row = 0; row < activeRows; row++) {
+            if (canArrive(row) ? fleet.getLocation(row) == fleet.getTarget(row)
+                               : fleet.getRecharging(row) != FleetStore.NO_LOCATION) {
+                fleet.setIdleSince(row, step);
+            } else {
+                active[activeCount++] = row;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a row that has just been stepped will stay idle from now on:
+     * it is at its target, or it cannot reach its target nor its recharging
+     * location, or it did not find any station to plan a stop at.
+     *
+     * @param row The row of the vehicle.
+     * @param recharging The packed recharging location of the row before the step.
+     * @return {@code true} if every later step of the row only counts an idle step.
+     */
+    private boolean staysIdle(int row, long recharging)
+    {
+        if (canArrive(row)) {
+            return fleet.getLocation(row) == fleet.getTarget(row);
+        }
+        return fleet.getRecharging(row) != FleetStore.NO_LOCATION || recharging == FleetStore.NO_LOCATION;
+    }
+
+    /**
+     * Executes a single simulation step for one row.
+     * Equivalent to {@link ElectricVehicle#possibilities(int)} on the view of the row.
+     *
+     * @param row The row of the vehicle.
+     * @param step The current simulation step.
+     */
+    public void stepRow(int row, int step)
+    {
+        long location = fleet.getLocation(row);
+        long recharging = fleet.getRecharging(row);
+        int battery = fleet.getBatteryLevel(row);
+        boolean canArriveStation = recharging != FleetStore.NO_LOCATION
+            && enoughBattery(Location.distance(location, recharging), battery);
+        boolean canArriveTarget = enoughBattery(Location.distance(location, fleet.getTarget(row)), battery);
+
+        if (canArriveStation || canArriveTarget) {
+            if (location == fleet.getTarget(row)) {
+                fleet.setIdleCount(row, fleet.getIdleCount(row) + 1);
+                fleet.getVehicle(row).rankingChanged();
+            } else {
+                move(row, step);
+            }
+        } else {
+            if (recharging == FleetStore.NO_LOCATION) {
+                fleet.getVehicle(row).calculateRechargingPosition();
+            }
+            fleet.setIdleCount(row, fleet.getIdleCount(row) + 1);
+            fleet.getVehicle(row).rankingChanged();
+        }
+    }
+
+    /**
+     * Moves a row towards its next destination as many times as its vehicle moves
+     * per step, stopping at the target, at a station or with an empty battery.
+     *
+     * @param row The row of the vehicle.
+     * @param step The current simulation step.
+     */
+    private void move(int row, int step)
+    {
+        int moves = fleet.getVehicle(row).getMovesPerStep();
+        moveOnce(row, step);
+        for (int i = 1; i < moves; i++) {
+            long location = fleet.getLocation(row);
+            if (location == fleet.getTarget(row) || location == fleet.getRecharging(row)
+                || fleet.getBatteryLevel(row) <= 0) {
+                return;
+            }
+            moveOnce(row, step);
+        }
+    }
+
+    /**
+     * Performs a single movement step of a row, as {@link ElectricVehicle#move(int)} does,
+     * and recharges when the row arrives at its recharging location.
+     *
+     * @param row The row of the vehicle.
+     * @param step The current simulation step.
+     */
+    private void moveOnce(int row, int step)
+    {
+        long recharging = fleet.getRecharging(row);
+        long destination = recharging != FleetStore.NO_LOCATION ? recharging : fleet.getTarget(row);
+        long location = Location.next(fleet.getLocation(row), destination);
+        fleet.setLocation(row, location);
+        fleet.setBatteryLevel(row, Math.max(0, fleet.getBatteryLevel(row) - ElectricVehicle.MOVING_COST));
+        if (location == fleet.getTarget(row)) {
+            fleet.getVehicle(row).rankingChanged();
+        }
+
+        if (recharging != FleetStore.NO_LOCATION && location == recharging) {
+            fleet.getVehicle(row).recharge(step);
+        }
+    }
+
+    /**
+     * @param row The row of the vehicle.
+     * @return {@code true} if the battery of the row reaches its recharging location or its target.
+     */
+    boolean canArrive(int row)
+    {
+        long location = fleet.getLocation(row);
+        long recharging = fleet.getRecharging(row);
+        int battery = fleet.getBatteryLevel(row);
+        return (recharging != FleetStore.NO_LOCATION && enoughBattery(Location.distance(location, recharging), battery))
+            || enoughBattery(Location.distance(location, fleet.getTarget(row)), battery);
+    }
+
+    /**
+     * Checks that the vehicles of a fleet recharge instantaneously, as the column
+     * engines assume.
+     *
+     * @param fleet The store with the state of the fleet.
+     * @throws IllegalStateException If the company of the fleet has {@link ChargingSessions}.
+     */
+    static void checkInstantCharging(FleetStore fleet)
+    {
+        EVCompany company = fleet.size() == 0 ? null : fleet.getVehicle(0).getCompany();
+        if (company != null && company.getChargingSessions() != null) {
+            throw new IllegalStateException("Charging sessions need the vehicles to act step by step");
+        }
+    }
+
+    /**
+     * @param distance A distance in movement steps.
+     * @param battery A battery level.
+     * @return {@code true} if the battery level covers the distance.
+     */
+    private static boolean enoughBattery(int distance, int battery)
+    {
+        return distance * ElectricVehicle.MOVING_COST <= battery;
+    }
+}
@@ -0,0 +1,201 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for the {@link FleetStore} and {@link FleetStepEngine} classes.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Vehicles acting as views over the rows of the company fleet.</li>
+ *   <li>The step engine producing the same final state as {@code act()}.</li>
+ *   <li>Idle counts kept lazily by the store and idle rows leaving the active set.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class FleetStepEngineTest
+{
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /**
+     * Default constructor for test class FleetStepEngineTest.
+     */
+    public FleetStepEngineTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        company = null;
+    }
+
+    /**
+     * Creates a small world with stations of every charger type and vehicles of
+     * every tier that need to recharge before reaching their target.
+     *
+     * @return The vehicles of the world, in creation order.
+     */
+    private List<ElectricVehicle> createWorld()
+    {
+        company.reset();
+        Location[] stationLocations = { new Location(5, 5), new Location(15, 15), new Location(5, 15), new Location(15, 5) };
+        for (int i = 0; i < stationLocations.length; i++) {
+            ChargingStation station = new ChargingStation("Cáceres", "CC0" + i, stationLocations[i]);
+            station.addCharger(new StandardCharger("CC0" + i + "_000", 20 + i * 10, 0.2 + i * 0.1));
+            station.addCharger(new SolarCharger("CC0" + i + "_001", 40, 0.3));
+            station.addCharger(new UltraFastCharger("CC0" + i + "_002", 80 + i, 0.5));
+            station.addCharger(new PriorityCharger("CC0" + i + "_003", 60, 0.4));
+            company.addChargingStation(station);
+        }
+        List<ElectricVehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Location start = new Location(i % 3, (i * 7) % 20);
+            Location target = new Location(20 - (i % 4), 19 - (i * 3) % 20);
+            int battery = 40 + (i % 5) * 10;
+            ElectricVehicle ev;
+            switch (i % 4) {
+                case 0: ev = new PriorityEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+                case 1: ev = new VtcEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+                case 2: ev = new PremiumEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+                default: ev = new StandardEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+            }
+            ev.calculateRoute();
+            company.addElectricVehicle(ev);
+            vehicles.add(ev);
+        }
+        return vehicles;
+    }
+
+    /**
+     * Builds a textual snapshot of the state of the vehicles and stations.
+     *
+     * @param vehicles The vehicles of the world.
+     * @return The snapshot.
+     */
+    private List<String> snapshot(List<ElectricVehicle> vehicles)
+    {
+        List<String> state = new ArrayList<>();
+        for (ElectricVehicle ev : vehicles) {
+            state.add(ev.toString());
+        }
+        for (ChargingStation station : company.getCityStations()) {
+            state.add(station.getCompleteInfo());
+        }
+        return state;
+    }
+
+    /**
+     * Tests that vehicles added to the company are views over the rows of its fleet.
+     */
+    @Test
+    public void testVehiclesAreViews()
+    {
+        List<ElectricVehicle> vehicles = createWorld();
+        FleetStore fleet = company.getFleet();
+        assertEquals(vehicles.size(), fleet.size());
+
+        ElectricVehicle ev = vehicles.get(3);
+        assertSame(fleet, ev.getFleet());
+        assertSame(ev, fleet.getVehicle(ev.getRow()));
+
+        fleet.setBatteryLevel(ev.getRow(), 7);
+        assertEquals(7, ev.getBatteryLevel());
+        ev.setLocation(new Location(2, 9));
+        assertEquals(Location.pack(2, 9), fleet.getLocation(ev.getRow()));
+        ev.setRechargingLocation(null);
+        assertEquals(FleetStore.NO_LOCATION, fleet.getRecharging(ev.getRow()));
+        assertEquals(VehicleTier.STANDARD.ordinal(), fleet.getTier(ev.getRow()));
+    }
+
+    /**
+     * Tests that the step engine reaches the same final state as calling {@code act()}
+     * on every vehicle for the same number of steps.
+     */
+    @Test
+    public void testEngineMatchesAct()
+    {
+        List<ElectricVehicle> vehicles = createWorld();
+        for (int step = 0; step < 40; step++) {
+            for (ElectricVehicle ev : vehicles) {
+                ev.act(step);
+            }
+        }
+        List<String> expected = snapshot(vehicles);
+
+        vehicles = createWorld();
+        new FleetStepEngine(company.getFleet()).run(0, 40);
+        assertEquals(expected, snapshot(vehicles));
+    }
+
+    /**
+     * Tests that lazy idle counts grow with the clock of the store and stop being
+     * lazy when they are set.
+     */
+    @Test
+    public void testLazyIdleCount()
+    {
+        List<ElectricVehicle> vehicles = createWorld();
+        FleetStore fleet = company.getFleet();
+        int row = vehicles.get(0).getRow();
+        fleet.setIdleCount(row, 3);
+        fleet.setClock(10);
+        fleet.setIdleSince(row, 12);
+        assertEquals(3, vehicles.get(0).getIdleCount());
+        fleet.setClock(15);
+        assertEquals(6, vehicles.get(0).getIdleCount());
+        vehicles.get(0).incrementIdleCount();
+        assertEquals(7, fleet.getIdleCount(row));
+        assertEquals(FleetStore.NO_STEP, fleet.getIdleSince(row));
+        fleet.setClock(20);
+        assertEquals(7, fleet.getIdleCount(row));
+    }
+
+    /**
+     * Tests that rows at their target leave the active set while their idle counts
+     * keep matching those of {@code act()} after every step.
+     */
+    @Test
+    public void testActiveSet()
+    {
+        List<ElectricVehicle> vehicles = createWorld();
+        List<List<String>> expected = new ArrayList<>();
+        for (int step = 0; step < 60; step++) {
+            for (ElectricVehicle ev : vehicles) {
+                ev.act(step);
+            }
+            expected.add(snapshot(vehicles));
+        }
+
+        vehicles = createWorld();
+        FleetStepEngine engine = new FleetStepEngine(company.getFleet());
+        for (int step = 0; step < 60; step++) {
+            engine.step(step);
+            assertEquals(expected.get(step), snapshot(vehicles));
+        }
+        assertTrue(engine.getActiveCount() < vehicles.size());
+        engine.run(60, 0);
+        assertEquals(expected.get(59), snapshot(vehicles));
+    }
+}
@@ -0,0 +1,593 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays store of the mutable state of a fleet of {@link ElectricVehicle}s.
+ * <p>
+ * Each vehicle occupies a row, and each attribute (battery level, capacity,
+ * idle count, location, target, recharging location, tier, charges and cost)
+ * is kept in its own primitive array. Locations are stored packed (see
+ * {@link Location#pack(int, int)}), and {@link #NO_LOCATION} marks the absence
+ * of a location. Iterating the fleet then walks contiguous arrays instead of
+ * following references to vehicle and location objects.
+ * </p>
+ * <p>
+ * The {@link ElectricVehicle} objects remain available as views over their row:
+ * their getters and setters read and write these arrays.
+ * </p>
+ * <p>
+ * Idle counts can be kept lazily: a row marked as idle since a step (see
+ * {@link #setIdleSince(int, int)}) counts one more idle step for every step the
+ * clock of the store advances past it (see {@link #setClock(int)}), without
+ * being written at each step. The count is derived when it is read.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class FleetStore
+{
+    /**
+     * Packed value that represents the absence of a location.
+     * It cannot clash with a real location, whose coordinates are non-negative.
+     */
+    public static final long NO_LOCATION = -1L;
+
+    /**
+     * Value of the tier column for vehicles without a {@link VehicleTier}.
+     */
+    public static final byte NO_TIER = -1;
+
+    /**
+     * Value of the idle-since column for rows whose idle count is not kept lazily.
+     */
+    public static final int NO_STEP = -1;
+
+    /**
+     * Default number of rows reserved by a new store.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size;
+    private int[] batteryLevel;
+    private int[] batteryCapacity;
+    private int[] idleCount;
+    /**
+     * First step from which each row is counted as idle, or {@link #NO_STEP}.
+     */
+    private int[] idleSince;
+    private int[] kwsCharged;
+    private int[] chargesCount;
+    private double[] chargesCost;
+    private long[] location;
+    private long[] target;
+    private long[] recharging;
+    private byte[] tier;
+    /**
+     * Vehicle object that acts as a view over each row.
+     */
+    private ElectricVehicle[] vehicles;
+    /**
+     * First step that has not been executed yet, up to which lazy idle counts are counted.
+     */
+    private int clock;
+
+    /**
+     * Constructs an empty store with the default capacity.
+     */
+    public FleetStore()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param capacity The number of rows to reserve. Must be positive.
+     * @throws IllegalArgumentException If {@code capacity} is not positive.
+     */
+    public FleetStore(int capacity)
+    {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of FleetStore must be positive");
+        }
+        batteryLevel = new int[capacity];
+        batteryCapacity = new int[capacity];
+        idleCount = new int[capacity];
+        idleSince = new int[capacity];
+        kwsCharged = new int[capacity];
+        chargesCount = new int[capacity];
+        chargesCost = new double[capacity];
+        location = new long[capacity];
+        target = new long[capacity];
+        recharging = new long[capacity];
+        tier = new byte[capacity];
+        vehicles = new ElectricVehicle[capacity];
+    }
+
+    // -------------------------------------------------
+    // -------------------- Rows -----------------------
+    // -------------------------------------------------
+
+    /**
+     * @return The number of rows in use.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Adds an {@link ElectricVehicle} to this store.
+     * <p>
+     * The current state of the vehicle is copied into a new row and the vehicle
+     * becomes a view over that row. Adding a vehicle that already belongs to
+     * this store has no effect.
+     * </p>
+     *
+     * @param vehicle The vehicle to add.
+     * @return The row of the vehicle.
+     */
+    public int add(ElectricVehicle vehicle)
+    {
+        FleetStore old = vehicle.boundFleet();
+        if (old == this) {
+            return vehicle.getRow();
+        }
+        int row = newRow(vehicle);
+        if (old != null) {
+            copyRow(old, vehicle.getRow(), row);
+        } else {
+            vehicle.initRow(this, row); //sin almacén propio: nada que copiar
+        }
+        vehicle.bind(this, row);
+        return row;
+    }
+
+    /**
+     * Reserves a new row with empty locations for a vehicle.
+     * The caller is responsible for binding the vehicle to the row.
+     *
+     * @param vehicle The vehicle that will act as a view over the row.
+     * @return The new row.
+     */
+    int newRow(ElectricVehicle vehicle)
+    {
+        if (size == vehicles.length) {
+            grow();
+        }
+        int row = size++;
+        location[row] = NO_LOCATION;
+        target[row] = NO_LOCATION;
+        recharging[row] = NO_LOCATION;
+        tier[row] = NO_TIER;
+        idleSince[row] = NO_STEP;
+        vehicles[row] = vehicle;
+        return row;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The vehicle that acts as a view over the row.
+     */
+    public ElectricVehicle getVehicle(int row)
+    {
+        return vehicles[row];
+    }
+
+    // -------------------------------------------------
+    // ------------------- Columns ---------------------
+    // -------------------------------------------------
+
+    /**
+     * @param row A row of the store.
+     * @return The battery level of the row, in kWh.
+     */
+    public int getBatteryLevel(int row)
+    {
+        return batteryLevel[row];
+    }
+
+    /**
+     * Sets the battery level of a row.
+     *
+     * @param row A row of the store.
+     * @param level The new battery level in kWh.
+     */
+    public void setBatteryLevel(int row, int level)
+    {
+        batteryLevel[row] = level;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The battery capacity of the row, in kWh.
+     */
+    public int getBatteryCapacity(int row)
+    {
+        return batteryCapacity[row];
+    }
+
+    /**
+     * Sets the battery capacity of a row.
+     *
+     * @param row A row of the store.
+     * @param capacity The new battery capacity in kWh.
+     */
+    public void setBatteryCapacity(int row, int capacity)
+    {
+        batteryCapacity[row] = capacity;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The idle count of the row, including the steps counted lazily up to the clock.
+     */
+    public int getIdleCount(int row)
+    {
+        int since = idleSince[row];
+        return since == NO_STEP ? idleCount[row] : idleCount[row] + Math.max(0, clock - since);
+    }
+
+    /**
+     * Sets the idle count of a row. The count stops being kept lazily.
+     *
+     * @param row A row of the store.
+     * @param count The new idle count.
+     */
+    public void setIdleCount(int row, int count)
+    {
+        idleCount[row] = count;
+        idleSince[row] = NO_STEP;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The first step from which the row is counted as idle, or {@link #NO_STEP}
+     *         if its idle count is not kept lazily.
+     */
+    public int getIdleSince(int row)
+    {
+        return idleSince[row];
+    }
+
+    /**
+     * Marks a row as idle in every step from a given one on: its idle count grows
+     * as the clock advances past that step, until it is set again.
+     *
+     * @param row A row of the store.
+     * @param step The first step in which the row is idle, or {@link #NO_STEP} to stop
+     *             counting lazily and keep the current count.
+     */
+    public void setIdleSince(int row, int step)
+    {
+        idleCount[row] = getIdleCount(row);
+        idleSince[row] = step;
+    }
+
+    /**
+     * @return The first step that has not been executed yet; lazy idle counts include
+     *         the steps before it.
+     */
+    public int getClock()
+    {
+        return clock;
+    }
+
+    /**
+     * Advances (or moves) the clock of the store.
+     *
+     * @param step The first step that has not been executed yet.
+     */
+    public void setClock(int step)
+    {
+        clock = step;
+    }
+
+    /**
+     * Writes the lazy idle count of every row, which stops being kept lazily.
+     */
+    public void settleIdleCounts()
+    {
+        for (int row = 0; row < size; row++) {
+            if (idleSince[row] != NO_STEP) {
+                setIdleCount(row, getIdleCount(row));
+            }
+        }
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The total kWh charged by the vehicle of the row.
+     */
+    public int getKwsCharged(int row)
+    {
+        return kwsCharged[row];
+    }
+
+    /**
+     * Sets the total kWh charged of a row.
+     *
+     * @param row A row of the store.
+     * @param kws The new total kWh charged.
+     */
+    public void setKwsCharged(int row, int kws)
+    {
+        kwsCharged[row] = kws;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The number of recharges of the row.
+     */
+    public int getChargesCount(int row)
+    {
+        return chargesCount[row];
+    }
+
+    /**
+     * Sets the number of recharges of a row.
+     *
+     * @param row A row of the store.
+     * @param count The new number of recharges.
+     */
+    public void setChargesCount(int row, int count)
+    {
+        chargesCount[row] = count;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The total cost of the recharges of the row.
+     */
+    public double getChargesCost(int row)
+    {
+        return chargesCost[row];
+    }
+
+    /**
+     * Sets the total cost of the recharges of a row.
+     *
+     * @param row A row of the store.
+     * @param cost The new total cost.
+     */
+    public void setChargesCost(int row, double cost)
+    {
+        chargesCost[row] = cost;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The packed current location, or {@link #NO_LOCATION}.
+     */
+    public long getLocation(int row)
+    {
+        return location[row];
+    }
+
+    /**
+     * Sets the packed current location of a row.
+     *
+     * @param row A row of the store.
+     * @param packed The packed location, or {@link #NO_LOCATION}.
+     */
+    public void setLocation(int row, long packed)
+    {
+        location[row] = packed;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The packed target location, or {@link #NO_LOCATION}.
+     */
+    public long getTarget(int row)
+    {
+        return target[row];
+    }
+
+    /**
+     * Sets the packed target location of a row.
+     *
+     * @param row A row of the store.
+     * @param packed The packed location, or {@link #NO_LOCATION}.
+     */
+    public void setTarget(int row, long packed)
+    {
+        target[row] = packed;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The packed recharging location, or {@link #NO_LOCATION} if no recharge is planned.
+     */
+    public long getRecharging(int row)
+    {
+        return recharging[row];
+    }
+
+    /**
+     * Sets the packed recharging location of a row.
+     *
+     * @param row A row of the store.
+     * @param packed The packed location, or {@link #NO_LOCATION}.
+     */
+    public void setRecharging(int row, long packed)
+    {
+        recharging[row] = packed;
+    }
+
+    /**
+     * @param row A row of the store.
+     * @return The ordinal of the {@link VehicleTier} of the vehicle, or {@link #NO_TIER}.
+     */
+    public byte getTier(int row)
+    {
+        return tier[row];
+    }
+
+    /**
+     * Sets the tier of a row.
+     *
+     * @param row A row of the store.
+     * @param type The vehicle type; types that are not a {@link VehicleTier} are stored as {@link #NO_TIER}.
+     */
+    public void setTier(int row, Enum<?> type)
+    {
+        tier[row] = (type instanceof VehicleTier) ? (byte) type.ordinal() : NO_TIER;
+    }
+
+    // ------------------------------------------------
+    // -------------------- Others --------------------
+    // ------------------------------------------------
+
+    /**
+     * Packs a {@link Location} for storage in a location column.
+     *
+     * @param location The location, or {@code null}.
+     * @return The packed location, or {@link #NO_LOCATION} if {@code location} is {@code null}.
+     */
+    public static long pack(Location location)
+    {
+        return location == null ? NO_LOCATION : location.getPacked();
+    }
+
+    /**
+     * Unpacks a value of a location column.
+     *
+     * @param packed The packed location, or {@link #NO_LOCATION}.
+     * @return The {@link Location}, or {@code null} if {@code packed} is {@link #NO_LOCATION}.
+     */
+    public static Location unpack(long packed)
+    {
+        return packed == NO_LOCATION ? null : Location.ofPacked(packed);
+    }
+
+    /**
+     * Creates a copy of the columns of this store, with the same vehicles as views.
+     * The vehicles stay bound to this store.
+     *
+     * @return The copy.
+     */
+    FleetStore copy()
+    {
+        FleetStore copy = new FleetStore(Math.max(1, size));
+        for (int row = 0; row < size; row++) {
+            copy.newRow(vehicles[row]);
+            copy.copyRow(this, row, row);
+        }
+        return copy;
+    }
+
+    /**
+     * Overwrites the columns of this store with those of a copy made by {@link #copy()}.
+     *
+     * @param copy The copy. Must have the same number of rows.
+     * @throws IllegalArgumentException If the copy has a different number of rows.
+     */
+    void restore(FleetStore copy)
+    {
+        if (copy.size != size) {
+            throw new IllegalArgumentException("The copy of the fleet has " + copy.size + " rows instead of " + size);
+        }
+        for (int row = 0; row < size; row++) {
+            copyRow(copy, row, row);
+        }
+    }
+
+    /**
+     * @return The number of bytes that {@link #writeColumns(ByteBuffer)} writes.
+     */
+    long columnsSize()
+    {
+        return (long) size * (5 * Integer.BYTES + Double.BYTES + 3 * Long.BYTES + 1);
+    }
+
+    /**
+     * Writes every column of the rows in use, one column after another, with bulk puts.
+     * Lazy idle counts are written as they are read, without changing the store.
+     *
+     * @param buffer The buffer; it must have {@link #columnsSize()} bytes remaining.
+     */
+    void writeColumns(ByteBuffer buffer)
+    {
+        int[] idle = new int[size];
+        for (int row = 0; row < size; row++) {
+            idle[row] = getIdleCount(row); //se guardan las cuentas ya calculadas
+        }
+        for (int[] column : new int[][] { batteryLevel, batteryCapacity, idle, kwsCharged, chargesCount }) {
+            buffer.asIntBuffer().put(column, 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+        }
+        buffer.asDoubleBuffer().put(chargesCost, 0, size);
+        buffer.position(buffer.position() + size * Double.BYTES);
+        for (long[] column : new long[][] { location, target, recharging }) {
+            buffer.asLongBuffer().put(column, 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+        }
+        buffer.put(tier, 0, size);
+    }
+
+    /**
+     * Overwrites every column of the rows in use with those written by
+     * {@link #writeColumns(ByteBuffer)}, with bulk gets.
+     *
+     * @param buffer The buffer, positioned at the start of the columns.
+     */
+    void readColumns(ByteBuffer buffer)
+    {
+        for (int[] column : new int[][] { batteryLevel, batteryCapacity, idleCount, kwsCharged, chargesCount }) {
+            buffer.asIntBuffer().get(column, 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+        }
+        buffer.asDoubleBuffer().get(chargesCost, 0, size);
+        buffer.position(buffer.position() + size * Double.BYTES);
+        for (long[] column : new long[][] { location, target, recharging }) {
+            buffer.asLongBuffer().get(column, 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+        }
+        buffer.get(tier, 0, size);
+        Arrays.fill(idleSince, 0, size, NO_STEP);
+    }
+
+    /**
+     * Copies every column of a row of another store into a row of this one.
+     *
+     * @param from The source store.
+     * @param fromRow The source row.
+     * @param row The destination row.
+     */
+    private void copyRow(FleetStore from, int fromRow, int row)
+    {
+        batteryLevel[row] = from.batteryLevel[fromRow];
+        batteryCapacity[row] = from.batteryCapacity[fromRow];
+        idleCount[row] = from.getIdleCount(fromRow);
+        idleSince[row] = NO_STEP;
+        kwsCharged[row] = from.kwsCharged[fromRow];
+        chargesCount[row] = from.chargesCount[fromRow];
+        chargesCost[row] = from.chargesCost[fromRow];
+        location[row] = from.location[fromRow];
+        target[row] = from.target[fromRow];
+        recharging[row] = from.recharging[fromRow];
+        tier[row] = from.tier[fromRow];
+    }
+
+    /**
+     * Doubles the capacity of every column.
+     */
+    private void grow()
+    {
+        int capacity = vehicles.length * 2;
+        batteryLevel = Arrays.copyOf(batteryLevel, capacity);
+        batteryCapacity = Arrays.copyOf(batteryCapacity, capacity);
+        idleCount = Arrays.copyOf(idleCount, capacity);
+        idleSince = Arrays.copyOf(idleSince, capacity);
+        kwsCharged = Arrays.copyOf(kwsCharged, capacity);
+        chargesCount = Arrays.copyOf(chargesCount, capacity);
+        chargesCost = Arrays.copyOf(chargesCost, capacity);
+        location = Arrays.copyOf(location, capacity);
+        target = Arrays.copyOf(target, capacity);
+        recharging = Arrays.copyOf(recharging, capacity);
+        tier = Arrays.copyOf(tier, capacity);
+        vehicles = Arrays.copyOf(vehicles, capacity);
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Read access to a journal written by {@link EventJournal}.
+ * <p>
+ * The file is mapped in memory and records are read in place by index, so
+ * opening a journal does not depend on its size and any record can be read
+ * directly. Since events are journaled in step order, the first record of a
+ * step is found with a binary search (see {@link #firstRecordOfStep(int)}).
+ * Only the records counted in the header are read, so a journal that is still
+ * being written, or was never closed, is read up to its last flush.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class JournalReader
+{
+    /** Records of each mapped chunk; a chunk must stay below 2 GB. */
+    private static final int CHUNK_RECORDS = 1 << 24;
+
+    private long records;
+    private MappedByteBuffer[] chunks;
+    /** Charger ids, by index in the charger table. */
+    private List<String> chargerIds;
+
+    /**
+     * Opens a journal.
+     *
+     * @param path The path of the journal file. Must not be {@code null}.
+     * @throws NullPointerException If {@code path} is {@code null}.
+     * @throws IllegalArgumentException If the file is not a journal of a known version.
+     * @throws UncheckedIOException If the journal or its charger table cannot be read.
+     */
+    public JournalReader(Path path)
+    {
+        if (path == null) {
+            throw new NullPointerException("JournalReader need a path");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < EventJournal.HEADER_SIZE) {
+                throw new IllegalArgumentException(path + " is not an event journal");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, EventJournal.HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != EventJournal.MAGIC || header.getInt(4) != EventJournal.VERSION
+                || header.getInt(12) != EventJournal.RECORD_SIZE) {
+                throw new IllegalArgumentException(path + " is not an event journal of version " + EventJournal.VERSION);
+            }
+            records = header.getLong(EventJournal.COUNT_OFFSET);
+            if (EventJournal.HEADER_SIZE + records * EventJournal.RECORD_SIZE > channel.size()) {
+                throw new IllegalArgumentException(path + " is truncated");
+            }
+            chunks = new MappedByteBuffer[(int) ((records + CHUNK_RECORDS - 1) / CHUNK_RECORDS)];
+            for (int i = 0; i < chunks.length; i++) {
+                long first = (long) i * CHUNK_RECORDS;
+                long count = Math.min(CHUNK_RECORDS, records - first);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    EventJournal.HEADER_SIZE + first * EventJournal.RECORD_SIZE, count * EventJournal.RECORD_SIZE);
+                chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            Path table = EventJournal.chargerTablePath(path);
+            chargerIds = Files.exists(table) ? Files.readAllLines(table) : List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the journal " + path, e);
+        }
+    }
+
+    /**
+     * @return The number of records of the journal.
+     */
+    public long size()
+    {
+        return records;
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The simulation step of the record.
+     */
+    public int getStep(long record)
+    {
+        return chunk(record).getInt(offset(record));
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The row of the vehicle of the record in the fleet of its company.
+     */
+    public int getVehicle(long record)
+    {
+        return chunk(record).getInt(offset(record) + 4);
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The kind of event of the record.
+     */
+    public StepEvent.Type getType(long record)
+    {
+        return StepEvent.Type.values()[chunk(record).getInt(offset(record) + 8)];
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The battery level of the vehicle, in kWh.
+     */
+    public int getBatteryLevel(long record)
+    {
+        return chunk(record).getInt(offset(record) + 12);
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The packed location of the vehicle.
+     */
+    public long getLocation(long record)
+    {
+        return chunk(record).getLong(offset(record) + 16);
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The id of the charger of the record, or {@code null} if it has none.
+     */
+    public String getChargerId(long record)
+    {
+        int index = chunk(record).getInt(offset(record) + 24);
+        return (index < 0 || index >= chargerIds.size()) ? null : chargerIds.get(index);
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The kWh recharged in the record.
+     */
+    public int getKwsRecharged(long record)
+    {
+        return chunk(record).getInt(offset(record) + 28);
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The cost of the recharge of the record.
+     */
+    public double getCost(long record)
+    {
+        return chunk(record).getDouble(offset(record) + 32);
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The packed recharging location of the vehicle, or {@link FleetStore#NO_LOCATION}.
+     */
+    public long getRechargingLocation(long record)
+    {
+        return chunk(record).getLong(offset(record) + 40);
+    }
+
+    /**
+     * Finds the first record of a step, or of the first later step that has records.
+     *
+     * @param step A simulation step.
+     * @return The index of the record, or {@link #size()} if every record belongs to an earlier step.
+     */
+    public long firstRecordOfStep(int step)
+    {
+        long low = 0;
+        long high = records;
+        while (low < high) { //los registros están ordenados por paso
+            long middle = (low + high) >>> 1;
+            if (getStep(middle) < step) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The chunk that contains the record.
+     * @throws IndexOutOfBoundsException If the record does not exist.
+     */
+    private MappedByteBuffer chunk(long record)
+    {
+        if (record < 0 || record >= records) {
+            throw new IndexOutOfBoundsException("Record " + record + " out of " + records);
+        }
+        return chunks[(int) (record / CHUNK_RECORDS)];
+    }
+
+    /**
+     * @param record The index of a record.
+     * @return The offset of the record inside its chunk.
+     */
+    private static int offset(long record)
+    {
+        return (int) (record % CHUNK_RECORDS) * EventJournal.RECORD_SIZE;
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.*;
-
 /**
  * Represents an immutable position in a two-dimensional grid-based city,
  * defined by non-negative (x, y) coordinates.
@@ -7,14 +5,35 @@ import java.util.*;
  * Locations are used to model positions of vehicles, charging stations,
  * and destinations within the simulation.
  * </p>
+ * <p>
+ * Both coordinates are stored packed in a single {@code long}. The static
+ * helpers {@link #pack(int, int)}, {@link #distance(long, long)} and
+ * {@link #next(long, long)} operate directly on packed values, and the cells
+ * near the origin are interned (see {@link #of(int, int)}), so moving a
+ * vehicle does not allocate new locations.
+ * </p>
  *
  * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
  * @version 2026.13.1
  */
-public class Location
+public final class Location
 {
-    private int x;
-    private int y; 
+    /**
+     * Side of the square of grid cells whose {@code Location}s are shared.
+     * Cells with both coordinates below this value are interned by {@link #of(int, int)}.
+     */
+    public static final int CACHE_SIZE = 256;
+    
+    /**
+     * Shared instances of the cells inside the cache square, created on first use.
+     * Since locations are immutable, sharing them is always safe.
+     */
+    private static final Location[] CACHE = new Location[CACHE_SIZE * CACHE_SIZE];
+    
+    /**
+     * Both coordinates packed in a single value: x in the high 32 bits and y in the low 32 bits.
+     */
+    private final long packed;
 
     /**
      * Model a location in the city.
@@ -32,32 +51,199 @@ public class Location
             throw new IllegalArgumentException(
                         "Negative y-coordinate: " + y);
         }        
-        this.x = x;
-        this.y = y;
+        this.packed = pack(x, y);
+    }
+    
+    /**
+     * Returns a location with the given coordinates. 
+     * <p>
+     * Locations inside the cache square are interned, so repeated calls
+     * return the same instance and do not allocate.
+     * </p>
+     *
+     * @param x The x coordinate. Must be non-negative.
+     * @param y The y coordinate. Must be non-negative.
+     * @return A {@link Location} with the given coordinates.
+     * @throws IllegalArgumentException If a coordinate is negative.
+     */
+    public static Location of(int x, int y)
+    {
+        if(x >= 0 && y >= 0 && x < CACHE_SIZE && y < CACHE_SIZE) {
+            int index = y * CACHE_SIZE + x;
+            Location cached = CACHE[index];
+            if(cached == null) {
+                cached = new Location(x, y);
+                CACHE[index] = cached; //los campos son final, la publicación es segura
+            }
+            return cached;
+        }
+        return new Location(x, y);
+    }
+    
+    /**
+     * Returns the location encoded in a packed value.
+     *
+     * @param packed The packed coordinates, as returned by {@link #pack(int, int)}.
+     * @return A {@link Location} with the encoded coordinates.
+     */
+    public static Location ofPacked(long packed)
+    {
+        return of(unpackX(packed), unpackY(packed));
+    }
+    
+    // ------------------------------------------------
+    // --------------- Packed coordinates -------------
+    // ------------------------------------------------
+    
+    /**
+     * Packs two coordinates into a single {@code long}.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The packed value.
+     */
+    public static long pack(int x, int y)
+    {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+    
+    /**
+     * @param packed Packed coordinates.
+     * @return The x coordinate of the packed value.
+     */
+    public static int unpackX(long packed)
+    {
+        return (int) (packed >> 32);
+    }
+    
+    /**
+     * @param packed Packed coordinates.
+     * @return The y coordinate of the packed value.
+     */
+    public static int unpackY(long packed)
+    {
+        return (int) packed;
     }
     
+    /**
+     * Computes the Chebyshev distance between two packed locations.
+     *
+     * @param from The packed origin.
+     * @param to The packed destination.
+     * @return The number of movement steps required.
+     */
+    public static int distance(long from, long to)
+    {
+        return Math.max(Math.abs(unpackX(to) - unpackX(from)), Math.abs(unpackY(to) - unpackY(from)));
+    }
+    
+    /**
+     * Computes the next packed location when moving from {@code from} towards
+     * {@code destination}, as {@link #nextLocation(Location)} does.
+     *
+     * @param from The packed origin.
+     * @param destination The packed destination.
+     * @return The packed location one step closer to the destination.
+     */
+    public static long next(long from, long destination)
+    {
+        int x = unpackX(from);
+        int y = unpackY(from);
+        x -= Integer.compare(x, unpackX(destination));
+        y -= Integer.compare(y, unpackY(destination));
+        return pack(x, y);
+    }
+
+    /**
+     * Computes the packed location reached after moving a number of times from
+     * {@code from} towards {@code destination}, as that many calls to
+     * {@link #next(long, long)} do, without visiting the intermediate locations.
+     *
+     * @param from The packed origin.
+     * @param destination The packed destination.
+     * @param moves The number of movements; values past the distance stop at the destination.
+     * @return The packed location after the movements.
+     */
+    public static long advance(long from, long destination, int moves)
+    {
+        int x = unpackX(from);
+        int y = unpackY(from);
+        int dx = unpackX(destination) - x;
+        int dy = unpackY(destination) - y;
+        x += Integer.signum(dx) * Math.min(moves, Math.abs(dx));
+        y += Integer.signum(dy) * Math.min(moves, Math.abs(dy));
+        return pack(x, y);
+    }
+
+    /**
+     * Computes the first movement after which the path from {@code from} towards
+     * {@code destination}, as followed by {@link #next(long, long)}, is at a location.
+     *
+     * @param from The packed origin of the path.
+     * @param destination The packed destination of the path.
+     * @param point The packed location looked for.
+     * @return The number of movements, between 1 and the distance to the destination,
+     *         after which the path is at {@code point}, or 0 if it never is.
+     */
+    public static int movesUntil(long from, long destination, long point)
+    {
+        int[] range = { 1, distance(from, destination) };
+        narrowMoves(unpackX(from), unpackX(destination), unpackX(point), range);
+        narrowMoves(unpackY(from), unpackY(destination), unpackY(point), range);
+        return range[0] <= range[1] ? range[0] : 0;
+    }
+
+    /**
+     * Narrows a range of movements to those after which one coordinate of a path
+     * equals a value.
+     *
+     * @param origin The coordinate at the origin of the path.
+     * @param end The coordinate at the destination of the path.
+     * @param value The coordinate looked for.
+     * @param range The lowest and highest movements, narrowed in place.
+     */
+    private static void narrowMoves(int origin, int end, int value, int[] range)
+    {
+        int length = Math.abs(end - origin);
+        int offset = value - origin;
+        if (length == 0) {
+            if (offset != 0) {
+                range[1] = 0;
+            }
+        } else if (value == end) {
+            range[0] = Math.max(range[0], length); //se queda en el valor al terminar el eje
+        } else if (offset != 0 && Integer.signum(offset) == Integer.signum(end - origin) && Math.abs(offset) < length) {
+            range[0] = Math.max(range[0], Math.abs(offset));
+            range[1] = Math.min(range[1], Math.abs(offset));
+        } else {
+            range[1] = 0;
+        }
+    }
+
+    // ------------------------------------------------
+    // -------------------- Others --------------------
+    // ------------------------------------------------
+    
     /**
      * Computes the next intermediate location when moving from this location
      * towards a destination.
      * <p>
      * Movement follows a Chebyshev-style step, allowing diagonal or straight
-     * movement of one unit per axis.
+     * movement of one unit per axis. The result is obtained with {@link #of(int, int)},
+     * so no object is allocated inside the cache square.
      * </p>
      *
      * @param destination The destination location.
-     * @return A new {@link Location} one step closer to the destination,
-     *         or the destination itself if it has already been reached.
+     * @return A {@link Location} one step closer to the destination,
+     *         or this location itself if the destination has already been reached.
      */
     public Location nextLocation(Location destination)
     {
-        Location siguiente = new Location(this.getX(),this.getY());
-        int resultado=Integer.compare(this.getX(),destination.getX());
-        if(resultado!=0)
-            siguiente.setX(this.getX()-resultado);
-        resultado=Integer.compare(this.getY(),destination.getY());
-        if(resultado!=0)
-            siguiente.setY(this.getY()-resultado);
-        return siguiente;
+        long siguiente = next(this.packed, destination.packed);
+        if(siguiente == this.packed) {
+            return this;
+        }
+        return ofPacked(siguiente);
     }
     
     /**
@@ -74,7 +260,7 @@ public class Location
      */
     public int distance(Location destination)
     {
-        return Math.max(Math.abs(destination.getX()-this.x), Math.abs(destination.getY()-this.y));
+        return distance(this.packed, destination.packed);
     }
     
     /**
@@ -90,10 +276,11 @@ public class Location
     @Override
     public boolean equals(Object other)
     {
+        if(this == other) {
+            return true;
+        }
         if(other instanceof Location) {
-            Location otherLocation = (Location) other;
-            return x == otherLocation.getX() &&
-                   y == otherLocation.getY();
+            return packed == ((Location) other).packed;
         }
         else {
             return false;
@@ -108,7 +295,7 @@ public class Location
     @Override
     public String toString()
     {
-        return x + "-" + y;
+        return getX() + "-" + getY();
     }
 
     /**
@@ -123,7 +310,7 @@ public class Location
     @Override
     public int hashCode()
     {
-        return (y << 16) + x;
+        return (getY() << 16) + getX();
     }
 
     /**
@@ -131,7 +318,7 @@ public class Location
      */
     public int getX()
     {
-        return x;
+        return unpackX(packed);
     }
 
     /**
@@ -139,22 +326,14 @@ public class Location
      */
     public int getY()
     {
-        return y;
+        return unpackY(packed);
     }
     
     /**
-     * Set the current X position .
-     * @param x New X position it is.
+     * @return Both coordinates packed in a single value (see {@link #pack(int, int)}).
      */
-    public void setX(int x) {
-        this.x=x;
-    }
-    
-    /**
-     * Set the current Y position .
-     * @param y New Y position it is.
-     */
-    public void setY(int y){
-        this.y=y;
+    public long getPacked()
+    {
+        return packed;
     }
-}
\ No newline at end of file
+}
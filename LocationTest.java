@@ -88,26 +88,83 @@ public class LocationTest
     public void testNonAdjacentLocations()
     {
         Location nextStepLocation = new Location(3,2);
-        Location destiny = new Location(3,2);
+        Location destiny;
         //caso1 restan ambos
         assertEquals( ubi2.nextLocation(ubi1), nextStepLocation );
         
         //caso2 suman ambos
-        nextStepLocation.setX(5);
-        nextStepLocation.setY(4);
+        nextStepLocation = new Location(5,4);
         assertEquals( ubi2.nextLocation(ubi3), nextStepLocation );
         
         //caso3 quieto
         assertEquals( ubi2.nextLocation(ubi2), ubi2 );
         
         //caso4 x resta e y suma
-        nextStepLocation.setX(3);
-        nextStepLocation.setY(4);
-        destiny.setX(2);
-        destiny.setY(4);
+        nextStepLocation = new Location(3,4);
+        destiny = new Location(2,4);
         assertEquals( ubi2.nextLocation(destiny), nextStepLocation );
     }
     
+    /**
+     * Tests that {@code nextLocation} and {@code of} reuse the interned instances
+     * of the cells inside the cache square.
+     */
+    @Test
+    public void testInternedLocations()
+    {
+        assertSame(Location.of(3,2), Location.of(3,2));
+        assertSame(Location.of(3,2), ubi2.nextLocation(ubi1));
+        assertSame(ubi2, ubi2.nextLocation(ubi2));
+        assertEquals(new Location(3,2), Location.of(3,2));
+        assertEquals(Location.of(3,2).hashCode(), new Location(3,2).hashCode());
+    }
+    
+    /**
+     * Tests the static helpers that operate on packed coordinates.
+     */
+    @Test
+    public void testPackedCoordinates()
+    {
+        long packed = Location.pack(4,3);
+        assertEquals(4, Location.unpackX(packed));
+        assertEquals(3, Location.unpackY(packed));
+        assertEquals(ubi2.getPacked(), packed);
+        assertEquals(7, Location.distance(ubi3.getPacked(), packed));
+        assertEquals(Location.pack(5,4), Location.next(packed, ubi3.getPacked()));
+        assertEquals(ubi2, Location.ofPacked(packed));
+    }
+
+    /**
+     * Tests that {@code advance} reaches the same location as repeated calls to {@code next}.
+     */
+    @Test
+    public void testAdvance()
+    {
+        long from = Location.pack(4,3);
+        long destination = Location.pack(0,12);
+        long location = from;
+        for (int moves = 0; moves <= 12; moves++) {
+            assertEquals(location, Location.advance(from, destination, moves));
+            location = Location.next(location, destination);
+        }
+        assertEquals(destination, Location.advance(from, destination, 50));
+    }
+
+    /**
+     * Tests that {@code movesUntil} finds the first movement of a path at a location.
+     */
+    @Test
+    public void testMovesUntil()
+    {
+        long from = Location.pack(0,0);
+        long destination = Location.pack(10,4);
+        assertEquals(2, Location.movesUntil(from, destination, Location.pack(2,2)));
+        assertEquals(6, Location.movesUntil(from, destination, Location.pack(6,4)));
+        assertEquals(10, Location.movesUntil(from, destination, destination));
+        assertEquals(0, Location.movesUntil(from, destination, Location.pack(3,4)));
+        assertEquals(0, Location.movesUntil(from, destination, from));
+    }
+    
     /**
      * Tests the {@code equals(Object)} method of the {@link Location} class.
      * Ensures that two {@link Location} objects with the same coordinates 
@@ -0,0 +1,46 @@
+/**
+ * Enumeration of the destinations of the simulation log.
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public enum LogSink
+{
+    /** Lines are written to the output file only. */
+    FILE(true, false),
+    /** Lines are written to the console only. */
+    CONSOLE(false, true),
+    /** Lines are written to both the output file and the console. */
+    BOTH(true, true),
+    /** Lines are discarded. */
+    NONE(false, false);
+
+    /** Whether lines go to the output file. */
+    private boolean toFile;
+    /** Whether lines go to the console. */
+    private boolean toConsole;
+
+    /**
+     * Constructor for the log sinks.
+     * @param toFile Whether lines go to the output file.
+     * @param toConsole Whether lines go to the console.
+     */
+    LogSink(boolean toFile, boolean toConsole){
+        this.toFile = toFile;
+        this.toConsole = toConsole;
+    }
+
+    /**
+     * @return {@code true} if lines are written to the output file.
+     */
+    public boolean writesFile(){
+        return toFile;
+    }
+
+    /**
+     * @return {@code true} if lines are written to the console.
+     */
+    public boolean writesConsole(){
+        return toConsole;
+    }
+}
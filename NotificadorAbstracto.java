@@ -1,70 +1,331 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 
 /**
  * Abstract class NotificadorAbstracto (AbstractSubject).
  * Implements the {@link NotificadorInterfaz} interface and manages the list of observers.
  * Provides the base notification functionality for child classes.
+ * <p>
+ * Notifications are asynchronous: they are published on a {@link RechargeEventBus}
+ * and the observers receive them on the delivery threads shared by the bus, each
+ * in the order they were sent, so a slow observer does not stall the notifier.
+ * A batch observer that blocks for long can be given an executor of its own
+ * (see {@link #addBatchObserver(BatchObserver, RechargeTopic, int, Executor)}). Observers may subscribe
+ * to a {@link RechargeTopic} to be notified only of the events of a station, a
+ * charger, a vehicle tier or a class of charger. An observer that falls
+ * too far behind loses its oldest notifications (see {@link #getDropped(CompanyObserver)}).
+ * </p>
+ * <p>
+ * Notifications are delivered in batches of consecutive recharges of the same
+ * step: {@link BatchObserver}s receive each batch with a single call, and
+ * {@link CompanyObserver}s are adapted with a {@link CompanyObserverAdapter}
+ * that passes the batch on recharge by recharge. A batch is delivered when it
+ * fills its window or when its step ends (see {@link #notifyStepEnd(int)}).
+ * </p>
  *
  * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
  * @version 15-01-2026
  */
 public abstract class NotificadorAbstracto implements NotificadorInterfaz {
-    
+
     /**
-     * List of subscribers (observers).
+     * Maximum number of recharges of the batches of the {@link CompanyObserver}s.
      */
-    private List<CompanyObserver> observers;  // Lista de suscriptores
+    public static final int OBSERVER_WINDOW = 256;
+
+    /**
+     * Adapts a batch observer to a subscriber of the event bus that requests
+     * one batch at a time.
+     */
+    private static final class ObserverSubscriber implements Flow.Subscriber<RechargeBatch> {
+
+        private final BatchObserver observer;
+        private Flow.Subscription subscription;
+
+        /**
+         * @param observer The observer notified of each batch.
+         */
+        private ObserverSubscriber(BatchObserver observer) {
+            this.observer = observer;
+        }
+
+        /**
+         * @param subscription The subscription, from which the first batch is requested.
+         */
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        /**
+         * Notifies the observer and requests the next batch.
+         * @param batch The batch.
+         */
+        @Override
+        public void onNext(RechargeBatch batch) {
+            observer.onRechargesRegistered(batch);
+            subscription.request(1);
+        }
+
+        /**
+         * @param error The error that ended the subscription.
+         */
+        @Override
+        public void onError(Throwable error) {
+            System.err.println("Error in the notifications of an observer: " + error.getMessage());
+        }
+
+        /**
+         * Nothing to do when the notifications end.
+         */
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    /**
+     * Subscribers ({@link CompanyObserver}s and {@link BatchObserver}s), with the
+     * adapter that receives their notifications.
+     */
+    private Map<Object, ObserverSubscriber> observers;  // Lista de suscriptores
+
+    /**
+     * Bus that delivers the notifications to the observers.
+     */
+    private RechargeEventBus eventBus;
+
 
-    
     /**
      * Default constructor.
      * Initializes the empty list of observers.
      */
     public NotificadorAbstracto() {
-        this.observers = new ArrayList<>();
+        this.observers = new LinkedHashMap<>();
+        this.eventBus = new RechargeEventBus();
     }
 
     /**
-     * Registers a new observer.
+     * Registers a new observer, notified of every event.
      * Adds the observer to the internal list if it is not null and not already registered.
      * * @param observer The observer to be added.
      */
     @Override
     public void addObserver(CompanyObserver observer) { //suscribir
-        if (observer != null && !observers.contains(observer)) {
-            observers.add(observer);
+        addObserver(observer, RechargeTopic.all());
+    }
+
+    /**
+     * Registers a new observer that is only notified of the events of a topic.
+     * Adds the observer to the internal list if it is not null and not already registered.
+     * Publishing an event only visits the observers of its topics.
+     * * @param observer The observer to be added.
+     * @param topic The events the observer is notified of; {@code null} means every event.
+     */
+    @Override
+    public void addObserver(CompanyObserver observer, RechargeTopic topic) { //suscribir a un tema
+        if (observer != null) {
+            register(observer, new CompanyObserverAdapter(observer), topic, OBSERVER_WINDOW, null);
+        }
+    }
+
+    /**
+     * Registers a new observer that is notified of the events of a topic in batches.
+     * Adds the observer to the internal list if it is not null and not already registered.
+     * * @param observer The observer to be added.
+     * @param topic The events the observer is notified of; {@code null} means every event.
+     * @param window The maximum number of recharges of a batch, or {@link RechargeBatch#WHOLE_STEP}
+     *               to receive every recharge of a step in one batch. Must be positive.
+     * @throws IllegalArgumentException If {@code window} is not positive.
+     */
+    public void addBatchObserver(BatchObserver observer, RechargeTopic topic, int window) { //suscribir por lotes
+        addBatchObserver(observer, topic, window, null);
+    }
+
+    /**
+     * Registers a new observer that is notified of the events of a topic in batches,
+     * delivered on the given executor instead of the delivery threads shared by the bus.
+     * * @param observer The observer to be added.
+     * @param topic The events the observer is notified of; {@code null} means every event.
+     * @param window The maximum number of recharges of a batch, or {@link RechargeBatch#WHOLE_STEP}
+     *               to receive every recharge of a step in one batch. Must be positive.
+     * @param executor The executor of the notifications, or {@code null} for the shared delivery threads.
+     * @throws IllegalArgumentException If {@code window} is not positive.
+     */
+    public void addBatchObserver(BatchObserver observer, RechargeTopic topic, int window, Executor executor) { //suscribir con ejecutor propio
+        if (observer != null) {
+            register(observer, observer, topic, window, executor);
+        }
+    }
+
+    /**
+     * Subscribes an observer to the event bus, unless it is already registered.
+     *
+     * @param key The registered observer.
+     * @param observer The observer notified of each batch.
+     * @param topic The events the observer is notified of; {@code null} means every event.
+     * @param window The maximum number of recharges of a batch.
+     * @param executor The executor of the notifications, or {@code null} for the shared delivery threads.
+     */
+    private synchronized void register(Object key, BatchObserver observer, RechargeTopic topic, int window, Executor executor) {
+        if (!observers.containsKey(key)) {
+            ObserverSubscriber subscriber = new ObserverSubscriber(observer);
+            eventBus.subscribeBatches(subscriber, topic == null ? RechargeTopic.all() : topic, window, executor);
+            observers.put(key, subscriber);
         }
     }
 
     /**
      * Removes an existing observer from the internal list.
+     * Notifications that are being delivered to it may still arrive.
      * * @param observer The observer to be removed.
      */
     @Override
     public void removeObserver(CompanyObserver observer) { //anularSuscripción
-        observers.remove(observer);
+        unregister(observer);
+    }
+
+    /**
+     * Removes an existing batch observer from the internal list.
+     * Notifications that are being delivered to it may still arrive.
+     * * @param observer The observer to be removed.
+     */
+    public void removeBatchObserver(BatchObserver observer) {
+        unregister(observer);
+    }
+
+    /**
+     * Cancels the subscription of an observer, if it is registered.
+     *
+     * @param key The registered observer.
+     */
+    private synchronized void unregister(Object key) {
+        ObserverSubscriber subscriber = observers.remove(key);
+        if (subscriber != null) {
+            eventBus.unsubscribe(subscriber);
+        }
     }
 
     /**
      * Protected method to notify all registered observers.
-     * This method iterates through the list of observers and invokes their update method.
+     * The notification is published on the event bus and this method returns without
+     * waiting for the observers.
      * It is not part of the public interface as it is intended for internal use by subclasses.
      *
      * @param charger The {@link Charger} where the event occurred.
      * @param ev The {@link ElectricVehicle} involved in the event.
      */
     public void notifyObservers(Charger charger, ElectricVehicle ev) { //notificar
-        for (CompanyObserver observer : observers) {
-            observer.onRechargeRegistered(ev, charger);
-        }
+        eventBus.publish(ev, charger);
     }
-    
+
     /**
-     * Clears the list of observers.
+     * Notifies all registered observers of an event of a simulation step
+     * (see {@link #notifyObservers(Charger, ElectricVehicle)}).
+     *
+     * @param charger The {@link Charger} where the event occurred.
+     * @param ev The {@link ElectricVehicle} involved in the event.
+     * @param step The simulation step of the event.
+     */
+    public void notifyObservers(Charger charger, ElectricVehicle ev, int step) { //notificar con paso
+        eventBus.publish(ev, charger, step);
+    }
+
+    /**
+     * Notifies all registered observers of a recharge of a simulation step, with
+     * the kWh recharged and its cost (see {@link #notifyObservers(Charger, ElectricVehicle)}).
+     * The observers receive a snapshot of the recharge taken on the calling thread.
+     *
+     * @param charger The {@link Charger} where the recharge took place.
+     * @param ev The {@link ElectricVehicle} recharged.
+     * @param kws The number of kWh recharged.
+     * @param cost The cost of the recharge.
+     * @param step The simulation step of the recharge.
+     */
+    public void notifyObservers(Charger charger, ElectricVehicle ev, int kws, double cost, int step) { //notificar con carga
+        eventBus.publish(ev, charger, kws, cost, step);
+    }
+
+    /**
+     * Informs the observers that a simulation step has ended, so the batches of
+     * that step are delivered without waiting for their windows to fill.
+     *
+     * @param step The step that has ended.
+     */
+    public void notifyStepEnd(int step) {
+        eventBus.endStep(step);
+    }
+
+    /**
+     * Clears the list of observers and cancels every subscription to the event bus.
      * Useful for resetting the state of the subject without recreating it.
      */
-    public void clearObservers() { //limpiar lista
+    public synchronized void clearObservers() { //limpiar lista
         observers.clear();
+        eventBus.unsubscribeAll();
+    }
+
+    /**
+     * @return The bus that delivers the notifications, to which {@link Flow.Subscriber}s
+     *         that control their own demand can subscribe directly.
+     */
+    public RechargeEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * @param observer An observer.
+     * @return The number of notifications sent and not yet delivered to the observer,
+     *         or 0 if it is not registered.
+     */
+    public long getLag(CompanyObserver observer) {
+        return lagOf(observer);
+    }
+
+    /**
+     * @param observer A batch observer.
+     * @return The number of notifications sent and not yet delivered to the observer,
+     *         or 0 if it is not registered.
+     */
+    public long getLag(BatchObserver observer) {
+        return lagOf(observer);
+    }
+
+    /**
+     * @param observer An observer.
+     * @return The number of notifications the observer lost by falling too far behind,
+     *         or 0 if it is not registered.
+     */
+    public long getDropped(CompanyObserver observer) {
+        return droppedOf(observer);
+    }
+
+    /**
+     * @param observer A batch observer.
+     * @return The number of notifications the observer lost by falling too far behind,
+     *         or 0 if it is not registered.
+     */
+    public long getDropped(BatchObserver observer) {
+        return droppedOf(observer);
+    }
+
+    /**
+     * @param key A registered observer.
+     * @return The lag of the observer, or 0 if it is not registered.
+     */
+    private synchronized long lagOf(Object key) {
+        ObserverSubscriber subscriber = observers.get(key);
+        return subscriber == null ? 0 : eventBus.getLag(subscriber);
+    }
+
+    /**
+     * @param key A registered observer.
+     * @return The notifications lost by the observer, or 0 if it is not registered.
+     */
+    private synchronized long droppedOf(Object key) {
+        ObserverSubscriber subscriber = observers.get(key);
+        return subscriber == null ? 0 : eventBus.getDropped(subscriber);
     }
-}
\ No newline at end of file
+}
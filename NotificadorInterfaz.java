@@ -14,6 +14,13 @@ public interface NotificadorInterfaz {
      */
     void addObserver(CompanyObserver observer);
 
+    /**
+     * Registers a new observer that is only notified of the events of a topic.
+     * @param observer The observer to be added.
+     * @param topic The events the observer is notified of.
+     */
+    void addObserver(CompanyObserver observer, RechargeTopic topic);
+
     /**
      * Removes an existing observer.
      * @param observer The observer to be removed.
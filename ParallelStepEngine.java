@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Step engine that executes {@link ElectricVehicle#act(int, StepEventSink)} for
+ * several vehicles at the same time on a {@link ForkJoinPool}.
+ * <p>
+ * Each step runs in two phases:
+ * <ol>
+ *   <li>All vehicles act in parallel. Their own state is updated directly, but
+ *       the updates of shared objects (the {@link Charger} that recharges them,
+ *       the {@link ChargingSessions} and the registry of the {@link EVCompany})
+ *       and the delivery of their step events are collected instead of
+ *       applied.</li>
+ *   <li>The collected updates and events are applied on the calling thread in
+ *       vehicle order, and within a vehicle in the order they were requested.</li>
+ * </ol>
+ * When several vehicles arrive at the same {@link ChargingStation} in the same
+ * step, their recharges are therefore registered in vehicle order, as the
+ * sequential loop of {@link EVDemo} does. With charging sessions, the charger of
+ * each arriving vehicle is chosen, and its {@link StepEvent.Type#CHARGING} or
+ * {@link StepEvent.Type#WAITING} event emitted, inside the second phase, so it
+ * sees the chargers claimed by the vehicles before it. The final state and the
+ * step events are identical to the sequential ones for any number of threads.
+ * </p>
+ * <p>
+ * Observers of the company are notified in the second phase, so their
+ * notifications are published in vehicle order.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class ParallelStepEngine
+{
+    /**
+     * The vehicles to step, in the order their shared updates are applied.
+     */
+    private List<ElectricVehicle> vehicles;
+
+    /**
+     * The pool that runs the first phase of each step.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Constructs a parallel engine.
+     *
+     * @param vehicles The vehicles to step. Must not be {@code null}.
+     * @param threads The number of worker threads. Must be positive.
+     * @throws NullPointerException If {@code vehicles} is {@code null}.
+     * @throws IllegalArgumentException If {@code threads} is not positive.
+     */
+    public ParallelStepEngine(List<ElectricVehicle> vehicles, int threads)
+    {
+        if (vehicles == null) {
+            throw new NullPointerException("ParallelStepEngine need a list of vehicles");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads of ParallelStepEngine must be positive");
+        }
+        this.vehicles = new ArrayList<>(vehicles);
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * @return The number of worker threads.
+     */
+    public int getThreads()
+    {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Executes a single simulation step for every vehicle.
+     *
+     * @param step The current simulation step.
+     * @return The events of each vehicle, in vehicle order.
+     */
+    public List<List<StepEvent>> step(int step)
+    {
+        return step(step, true);
+    }
+
+    /**
+     * Executes a single simulation step for every vehicle.
+     *
+     * @param step The current simulation step.
+     * @param collectEvents Whether the events of the vehicles are collected; when
+     *                      {@code false} no event is created.
+     * @return The events of each vehicle, in vehicle order (empty lists if not collected).
+     */
+    public List<List<StepEvent>> step(int step, boolean collectEvents)
+    {
+        int n = vehicles.size();
+        List<List<StepEvent>> events = new ArrayList<>(n);
+        List<List<Runnable>> updates = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            events.add(new ArrayList<>());
+            updates.add(new ArrayList<>());
+        }
+
+        try {
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> {
+                ElectricVehicle ev = vehicles.get(i);
+                ev.deferSharedUpdates(updates.get(i));
+                try {
+                    List<StepEvent> vehicleEvents = events.get(i);
+                    ev.act(step, collectEvents ? vehicleEvents::add : null);
+                } finally {
+                    ev.deferSharedUpdates(null);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Step " + step + " interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error in step " + step + ": " + e.getCause(), e.getCause());
+        }
+
+        for (List<Runnable> vehicleUpdates : updates) { //orden de los vehículos: determinista
+            for (Runnable update : vehicleUpdates) {
+                update.run();
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Stops the worker threads. The engine cannot be used afterwards.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+}
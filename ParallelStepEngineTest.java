@@ -0,0 +1,193 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for the {@link ParallelStepEngine} class.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>The parallel engine producing the same logs and final state as the sequential loop.</li>
+ *   <li>Recharges registered in vehicle order when several vehicles share a station.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class ParallelStepEngineTest
+{
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /**
+     * Default constructor for test class ParallelStepEngineTest.
+     */
+    public ParallelStepEngineTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        company = null;
+    }
+
+    /**
+     * Creates a small world with stations of every charger type and vehicles of
+     * every tier that need to recharge before reaching their target.
+     *
+     * @return The vehicles of the world, in creation order.
+     */
+    private List<ElectricVehicle> createWorld()
+    {
+        company.reset();
+        Location[] stationLocations = { new Location(5, 5), new Location(15, 15), new Location(5, 15), new Location(15, 5) };
+        for (int i = 0; i < stationLocations.length; i++) {
+            ChargingStation station = new ChargingStation("Cáceres", "CC0" + i, stationLocations[i]);
+            station.addCharger(new StandardCharger("CC0" + i + "_000", 20 + i * 10, 0.2 + i * 0.1));
+            station.addCharger(new SolarCharger("CC0" + i + "_001", 40, 0.3));
+            station.addCharger(new UltraFastCharger("CC0" + i + "_002", 80 + i, 0.5));
+            station.addCharger(new PriorityCharger("CC0" + i + "_003", 60, 0.4));
+            company.addChargingStation(station);
+        }
+        List<ElectricVehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Location start = new Location(i % 3, (i * 7) % 20);
+            Location target = new Location(20 - (i % 4), 19 - (i * 3) % 20);
+            int battery = 40 + (i % 5) * 10;
+            ElectricVehicle ev;
+            switch (i % 4) {
+                case 0: ev = new PriorityEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+                case 1: ev = new VtcEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+                case 2: ev = new PremiumEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+                default: ev = new StandardEV(company, start, target, "EV" + i, i + "CCC", battery); break;
+            }
+            ev.calculateRoute();
+            company.addElectricVehicle(ev);
+            vehicles.add(ev);
+        }
+        return vehicles;
+    }
+
+    /**
+     * Builds a textual snapshot of the state of the vehicles and stations.
+     *
+     * @param vehicles The vehicles of the world.
+     * @return The snapshot.
+     */
+    private List<String> snapshot(List<ElectricVehicle> vehicles)
+    {
+        List<String> state = new ArrayList<>();
+        for (ElectricVehicle ev : vehicles) {
+            state.add(ev.toString());
+        }
+        for (ChargingStation station : company.getCityStations()) {
+            state.add(station.getCompleteInfo());
+        }
+        return state;
+    }
+
+    /**
+     * Runs the world sequentially, calling {@code act()} on every vehicle in order.
+     *
+     * @param vehicles The vehicles of the world.
+     * @param steps The number of steps.
+     * @return Every log message, in order.
+     */
+    private List<String> runSequential(List<ElectricVehicle> vehicles, int steps)
+    {
+        List<String> logs = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            for (ElectricVehicle ev : vehicles) {
+                logs.addAll(ev.act(step));
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Runs the world with a {@link ParallelStepEngine}.
+     *
+     * @param vehicles The vehicles of the world.
+     * @param steps The number of steps.
+     * @param threads The number of threads.
+     * @return Every log message, in order.
+     */
+    private List<String> runParallel(List<ElectricVehicle> vehicles, int steps, int threads)
+    {
+        ParallelStepEngine engine = new ParallelStepEngine(vehicles, threads);
+        List<String> logs = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            for (List<StepEvent> events : engine.step(step)) {
+                for (StepEvent event : events) {
+                    logs.add(event.render());
+                }
+            }
+        }
+        engine.shutdown();
+        return logs;
+    }
+
+    /**
+     * Tests that the parallel engine produces the same logs, final state and
+     * charges registry as the sequential loop for several numbers of threads.
+     */
+    @Test
+    public void testParallelMatchesSequential()
+    {
+        List<ElectricVehicle> vehicles = createWorld();
+        List<String> expectedLogs = runSequential(vehicles, 40);
+        List<String> expectedState = snapshot(vehicles);
+        String expectedRegistry = company.getChargesRegistry().toString();
+
+        for (int threads : new int[] { 1, 2, 4, 8 }) {
+            vehicles = createWorld();
+            assertEquals(expectedLogs, runParallel(vehicles, 40, threads));
+            assertEquals(expectedState, snapshot(vehicles));
+            assertEquals(expectedRegistry, company.getChargesRegistry().toString());
+        }
+    }
+
+    /**
+     * Tests that vehicles recharging at the same charger in the same step are
+     * registered in vehicle order.
+     */
+    @Test
+    public void testSameStationSameStep()
+    {
+        company.reset();
+        ChargingStation station = new ChargingStation("Cáceres", "CC00", new Location(2, 2));
+        Charger charger = new StandardCharger("CC00_000", 50, 0.5);
+        station.addCharger(charger);
+        company.addChargingStation(station);
+        List<ElectricVehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ElectricVehicle ev = new StandardEV(company, new Location(1, 1), new Location(19, 19), "EV" + i, i + "CCC", 50);
+            ev.calculateRoute();
+            company.addElectricVehicle(ev);
+            vehicles.add(ev);
+        }
+
+        runParallel(vehicles, 1, 4);
+        assertEquals(vehicles, charger.getEVsRecharged());
+        assertEquals(vehicles, company.getChargesRegistry().get(charger));
+    }
+}
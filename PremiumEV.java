@@ -67,8 +67,9 @@ public class PremiumEV extends ElectricVehicle {
     /**
      * Selects a free charger from the current charging station.
      * <p>
-     * Among all chargers that are capable of charging this vehicle, the one
-     * with the highest charging speed is selected.
+     * Among all free chargers that are capable of charging this vehicle, the one
+     * with the highest charging speed is selected (see
+     * {@link ChargingStation#getFastestCharger(ElectricVehicle)}).
      * </p>
      *
      * @return The {@link Charger} with the maximum charging speed that can
@@ -77,21 +78,7 @@ public class PremiumEV extends ElectricVehicle {
      */
     @Override
     public Charger getFreeChargerFromStation(){
-        List<Charger> list =
-            getCompany().getChargingStation(getRechargingLocation()).getChargers();
-
-        int maxSpeed = -1;
-        Charger bestCharger = null;
-
-        for (Charger c : list){
-            if (c.canCharge(this)){
-                if (c.getChargingSpeed() > maxSpeed){
-                    maxSpeed = c.getChargingSpeed();
-                    bestCharger = c;
-                }
-            }
-        }
-        return bestCharger;
+        return getCompany().getChargingStation(getRechargingLocation()).getFastestCharger(this);
     }
 
     /**
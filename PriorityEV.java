@@ -48,11 +48,11 @@ public class PriorityEV extends ElectricVehicle
      * recharging operation is performed.
      * </p>
      *
-     * @param charger The {@link Charger} used for recharging.
+     * @return {@code false}.
      */
     @Override
-    protected void notifyCompany(Charger charger) {
-        // No action required for priority vehicles.
+    protected boolean notifiesCompany() {
+        return false; // No action required for priority vehicles.
     }
     
     /**
@@ -75,6 +75,16 @@ public class PriorityEV extends ElectricVehicle
         }
     }
     
+    /**
+     * Priority vehicles can perform two movement steps per simulation step (see {@link #move(int)}).
+     *
+     * @return The number of movements per simulation step.
+     */
+    @Override
+    public int getMovesPerStep() {
+        return 2;
+    }
+    
     /**
      * Determines whether a candidate charger is better than the current best
      * one according to the priority vehicle strategy.
@@ -0,0 +1,189 @@
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ranking of a collection of objects whose sort key changes over time.
+ * <p>
+ * Objects are ordered by a numeric rank, ascending, and then by an id. The
+ * index stores a snapshot of the rank of each object, so it stays consistent
+ * while the objects change: {@link #update(Object)} must be called when the
+ * rank of an object may have changed, and moves it in O(log n) if it did.
+ * Lookups of the objects themselves are done by identity, never through the
+ * rank, so they remain reliable at any time. Ids must be unique among the
+ * ranked objects.
+ * </p>
+ *
+ * @param <T> The type of the ranked objects.
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class RankedIndex<T>
+{
+    /**
+     * Snapshot of the sort key of an object.
+     */
+    private static final class Entry implements Comparable<Entry>
+    {
+        private final long rank;
+        private final String id;
+
+        private Entry(long rank, String id)
+        {
+            this.rank = rank;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Entry other)
+        {
+            int result = Long.compare(rank, other.rank);
+            return result != 0 ? result : id.compareTo(other.id);
+        }
+    }
+
+    private ToLongFunction<T> rankOf;
+    private Function<T, String> idOf;
+    /** Ranked objects, in order. */
+    private TreeMap<Entry, T> ranking;
+    /** Current entry of each ranked object. */
+    private Map<T, Entry> entries;
+    /** Read-only view of the ranking. */
+    private Set<T> view;
+
+    /**
+     * Constructs an empty ranking.
+     *
+     * @param rankOf The rank of an object; lower ranks come first. Must not be {@code null}.
+     * @param idOf The id of an object, used to order objects with the same rank. Must not be {@code null}.
+     * @throws NullPointerException If a parameter is {@code null}.
+     */
+    public RankedIndex(ToLongFunction<T> rankOf, Function<T, String> idOf)
+    {
+        if (rankOf == null || idOf == null) {
+            throw new NullPointerException("RankedIndex need a rank and an id");
+        }
+        this.rankOf = rankOf;
+        this.idOf = idOf;
+        this.ranking = new TreeMap<>();
+        this.entries = new IdentityHashMap<>();
+        this.view = new AbstractSet<T>() {
+            @Override
+            public Iterator<T> iterator()
+            {
+                return Collections.unmodifiableCollection(ranking.values()).iterator();
+            }
+
+            @Override
+            public int size()
+            {
+                return ranking.size();
+            }
+
+            @Override
+            public boolean contains(Object o)
+            {
+                return entries.containsKey(o);
+            }
+        };
+    }
+
+    /**
+     * @return A read-only view of the ranked objects, in rank order.
+     */
+    public Set<T> view()
+    {
+        return view;
+    }
+
+    /**
+     * @return The number of ranked objects.
+     */
+    public int size()
+    {
+        return ranking.size();
+    }
+
+    /**
+     * Adds an object to the ranking.
+     *
+     * @param item The object.
+     * @return {@code false} if the object was already ranked.
+     */
+    public boolean add(T item)
+    {
+        if (entries.containsKey(item)) {
+            return false;
+        }
+        Entry entry = new Entry(rankOf.applyAsLong(item), idOf.apply(item));
+        entries.put(item, entry);
+        ranking.put(entry, item);
+        return true;
+    }
+
+    /**
+     * Removes an object from the ranking, whatever its current rank.
+     *
+     * @param item The object.
+     * @return {@code true} if the object was ranked.
+     */
+    public boolean remove(T item)
+    {
+        Entry entry = entries.remove(item);
+        if (entry == null) {
+            return false;
+        }
+        ranking.remove(entry);
+        return true;
+    }
+
+    /**
+     * Moves an object to the position of its current rank.
+     * Objects that are not ranked are ignored.
+     *
+     * @param item The object whose rank may have changed.
+     */
+    public void update(T item)
+    {
+        Entry entry = entries.get(item);
+        if (entry == null) {
+            return;
+        }
+        long rank = rankOf.applyAsLong(item);
+        if (rank == entry.rank) {
+            return;
+        }
+        ranking.remove(entry);
+        Entry moved = new Entry(rank, entry.id);
+        entries.put(item, moved);
+        ranking.put(moved, item);
+    }
+
+    /**
+     * Recalculates the rank of every object, after changes that were not reported
+     * one by one.
+     */
+    public void rebuild()
+    {
+        for (T item : new ArrayList<>(entries.keySet())) {
+            update(item);
+        }
+    }
+
+    /**
+     * Removes every object from the ranking.
+     */
+    public void clear()
+    {
+        ranking.clear();
+        entries.clear();
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for {@link RankedIndex}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Ordering by rank and then by id.</li>
+ *   <li>Moving objects when their rank changes.</li>
+ *   <li>Removing objects whose rank changed without being reported.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class RankedIndexTest
+{
+    /** Current rank of each ranked id. */
+    private Map<String, Long> ranks;
+
+    /** The index under test. */
+    private RankedIndex<String> index;
+
+    /**
+     * Default constructor for test class RankedIndexTest.
+     */
+    public RankedIndexTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        ranks = new HashMap<>();
+        index = new RankedIndex<>(id -> ranks.get(id), id -> id);
+        for (String id : new String[] { "C", "A", "B" }) {
+            ranks.put(id, 0L);
+            index.add(id);
+        }
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        ranks = null;
+        index = null;
+    }
+
+    /**
+     * Tests that objects are ordered by rank, then by id, and that repeated objects are ignored.
+     */
+    @Test
+    public void testOrder()
+    {
+        assertEquals(List.of("A", "B", "C"), List.copyOf(index.view()));
+        assertFalse(index.add("A"));
+        assertEquals(3, index.size());
+        assertTrue(index.view().contains("B"));
+        assertThrows(UnsupportedOperationException.class, () -> index.view().remove("B"));
+    }
+
+    /**
+     * Tests that {@code update} and {@code rebuild} move the objects whose rank changed.
+     */
+    @Test
+    public void testUpdate()
+    {
+        ranks.put("A", 5L);
+        assertEquals(List.of("A", "B", "C"), List.copyOf(index.view()));
+        index.update("A");
+        assertEquals(List.of("B", "C", "A"), List.copyOf(index.view()));
+
+        ranks.put("C", -1L);
+        ranks.put("B", 7L);
+        index.rebuild();
+        assertEquals(List.of("C", "A", "B"), List.copyOf(index.view()));
+
+        index.update("Z");
+        assertEquals(3, index.size());
+    }
+
+    /**
+     * Tests that an object can be removed after its rank changed without being reported.
+     */
+    @Test
+    public void testRemoveAfterChange()
+    {
+        ranks.put("B", 9L);
+        assertTrue(index.remove("B"));
+        assertFalse(index.view().contains("B"));
+        assertEquals(List.of("A", "C"), List.copyOf(index.view()));
+        assertFalse(index.remove("B"));
+
+        index.clear();
+        assertTrue(index.view().isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.List;
+
+/**
+ * Group of consecutive {@link RechargeEvent}s of the same simulation step,
+ * delivered with a single call to a {@link BatchObserver} or to a batch
+ * subscriber of a {@link RechargeEventBus}.
+ * <p>
+ * The recharges are stored in order, oldest first, so a subscriber can
+ * process a whole step with one call. Like the events, a batch is an
+ * immutable snapshot and never refers to the vehicles or chargers.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public final class RechargeBatch
+{
+    /** Number of recharges of a batch that groups every recharge of a step. */
+    public static final int WHOLE_STEP = Integer.MAX_VALUE;
+
+    private final int step;
+    private final RechargeEvent[] events;
+
+    /**
+     * Constructs a batch from events of the same step.
+     *
+     * @param events The events, oldest first. Must not be empty.
+     * @throws IllegalArgumentException If {@code events} is empty or mixes steps.
+     */
+    public RechargeBatch(List<RechargeEvent> events)
+    {
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("RechargeBatch need at least one event");
+        }
+        this.step = events.get(0).getStep();
+        this.events = events.toArray(new RechargeEvent[0]);
+        for (RechargeEvent event : this.events) {
+            if (event.getStep() != step) {
+                throw new IllegalArgumentException("Events of steps " + step + " and " + event.getStep() + " in the same batch");
+            }
+        }
+    }
+
+    /**
+     * @return The number of recharges of the batch.
+     */
+    public int size()
+    {
+        return events.length;
+    }
+
+    /**
+     * @return The simulation step of every recharge of the batch, or {@link RechargeHistory#NO_STEP}.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The recharge.
+     */
+    public RechargeEvent getEvent(int i)
+    {
+        return events[i];
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The position of the recharge among the events published by its bus.
+     */
+    public long getSequence(int i)
+    {
+        return events[i].getSequence();
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The plate of the vehicle recharged.
+     */
+    public String getPlate(int i)
+    {
+        return events[i].getPlate();
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The tier of the vehicle recharged.
+     */
+    public Enum<?> getTier(int i)
+    {
+        return events[i].getTier();
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The id of the charger where the recharge took place.
+     */
+    public String getChargerId(int i)
+    {
+        return events[i].getChargerId();
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The id of the station of the charger, or {@code null} if it has none.
+     */
+    public String getStationId(int i)
+    {
+        return events[i].getStationId();
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The number of kWh recharged, or 0 if it is not known.
+     */
+    public int getKws(int i)
+    {
+        return events[i].getKws();
+    }
+
+    /**
+     * @param i The index of a recharge of the batch.
+     * @return The cost of the recharge, or 0 if it is not known.
+     */
+    public double getCost(int i)
+    {
+        return events[i].getCost();
+    }
+
+    /**
+     * @return A description of the batch.
+     */
+    @Override
+    public String toString()
+    {
+        return "RechargeBatch of step " + step + ": " + size() + " recharges from #" + events[0].getSequence();
+    }
+}
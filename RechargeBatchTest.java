@@ -0,0 +1,121 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for {@link RechargeBatch} and {@link CompanyObserverAdapter}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Taking immutable snapshots of recharges.</li>
+ *   <li>Building a batch from events of the same step.</li>
+ *   <li>Rejecting empty batches and batches that mix steps.</li>
+ *   <li>Passing a batch on to a per-event observer, recharge by recharge.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class RechargeBatchTest
+{
+    /** A standard charger used in tests. */
+    private Charger charger;
+
+    /** A standard electric vehicle used in tests. */
+    private ElectricVehicle eVehicle1;
+
+    /** A VTC electric vehicle used in tests. */
+    private ElectricVehicle eVehicle2;
+
+    /**
+     * Default constructor for test class RechargeBatchTest.
+     */
+    public RechargeBatchTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        EVCompany company = EVCompany.getInstance();
+        charger = new StandardCharger("CC00_000", 40, 0.25);
+        eVehicle1 = new StandardEV(company, new Location(1, 1), new Location(5, 5), "Tesla Std", "CC12", 50);
+        eVehicle2 = new VtcEV(company, new Location(1, 1), new Location(5, 5), "Tesla VTC", "CC15", 60);
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        charger = null;
+        eVehicle1 = null;
+        eVehicle2 = null;
+    }
+
+    /**
+     * Tests that an event is a snapshot of the recharge, unaffected by later changes of the charger.
+     */
+    @Test
+    public void testSnapshot()
+    {
+        RechargeEvent event = RechargeEvent.snapshot(3, 2, eVehicle1, charger, 20, 5.0);
+        charger.setId("CC00_999");
+        assertEquals(3, event.getSequence());
+        assertEquals(2, event.getStep());
+        assertEquals("CC12", event.getPlate());
+        assertEquals(VehicleTier.STANDARD, event.getTier());
+        assertEquals("CC00_000", event.getChargerId());
+        assertNull(event.getStationId());
+        assertEquals(20, event.getKws());
+        assertEquals(5.0, event.getCost(), 1e-9);
+        assertThrows(NullPointerException.class,
+            () -> new RechargeEvent(0, 0, null, VehicleTier.STANDARD, "CC00_000", null, 0, 0));
+    }
+
+    /**
+     * Tests that a batch keeps its events in order, and that invalid batches are rejected.
+     */
+    @Test
+    public void testBatch()
+    {
+        RechargeBatch batch = new RechargeBatch(List.of(RechargeEvent.snapshot(4, 2, eVehicle1, charger, 10, 2.5),
+            RechargeEvent.snapshot(6, 2, eVehicle2, charger, 30, 7.5)));
+        assertEquals(2, batch.size());
+        assertEquals(2, batch.getStep());
+        assertEquals(6, batch.getSequence(1));
+        assertEquals("CC15", batch.getPlate(1));
+        assertEquals(VehicleTier.VTC, batch.getTier(1));
+        assertEquals("CC00_000", batch.getChargerId(0));
+        assertEquals(10, batch.getKws(0));
+        assertEquals(7.5, batch.getCost(1), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> new RechargeBatch(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new RechargeBatch(List.of(
+            RechargeEvent.snapshot(0, 1, eVehicle1, charger, 0, 0), RechargeEvent.snapshot(1, 2, eVehicle1, charger, 0, 0))));
+    }
+
+    /**
+     * Tests that the adapter notifies a per-event observer of every recharge of a batch, in order.
+     */
+    @Test
+    public void testAdapter()
+    {
+        List<String> plates = new ArrayList<>();
+        CompanyObserverAdapter adapter = new CompanyObserverAdapter(recharge -> plates.add(recharge.getPlate()));
+        adapter.onRechargesRegistered(new RechargeBatch(List.of(RechargeEvent.snapshot(0, 0, eVehicle1, charger, 0, 0),
+            RechargeEvent.snapshot(1, 0, eVehicle2, charger, 0, 0))));
+        assertEquals(List.of("CC12", "CC15"), plates);
+        assertThrows(NullPointerException.class, () -> new CompanyObserverAdapter(null));
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Recharge registered by an {@link EVCompany}, as delivered to its observers
+ * by a {@link RechargeEventBus}.
+ * <p>
+ * The event is an immutable snapshot of the recharge, taken when it is
+ * published: observers receive it on other threads while the simulation keeps
+ * changing the vehicle and the charger, so it never refers to them.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public final class RechargeEvent
+{
+    private final long sequence;
+    private final int step;
+    private final String plate;
+    private final Enum<?> tier;
+    private final String chargerId;
+    /** The id of the station of the charger, or {@code null} if it has none. */
+    private final String stationId;
+    private final int kws;
+    private final double cost;
+
+    /**
+     * Constructs an event.
+     *
+     * @param sequence The position of the event among those published by its bus, starting at 0.
+     * @param step The simulation step of the recharge, or {@link RechargeHistory#NO_STEP}.
+     * @param plate The plate of the vehicle recharged. Must not be {@code null}.
+     * @param tier The tier of the vehicle recharged.
+     * @param chargerId The id of the charger where the recharge took place. Must not be {@code null}.
+     * @param stationId The id of the station of the charger, or {@code null} if it has none.
+     * @param kws The number of kWh recharged.
+     * @param cost The cost of the recharge.
+     * @throws NullPointerException If {@code plate} or {@code chargerId} is {@code null}.
+     */
+    public RechargeEvent(long sequence, int step, String plate, Enum<?> tier, String chargerId, String stationId,
+        int kws, double cost)
+    {
+        if (plate == null || chargerId == null) {
+            throw new NullPointerException("RechargeEvent need a plate and a charger id");
+        }
+        this.sequence = sequence;
+        this.step = step;
+        this.plate = plate;
+        this.tier = tier;
+        this.chargerId = chargerId;
+        this.stationId = stationId;
+        this.kws = kws;
+        this.cost = cost;
+    }
+
+    /**
+     * Takes a snapshot of a recharge. Must be called on the thread that performs the recharge.
+     *
+     * @param sequence The position of the event among those published by its bus, starting at 0.
+     * @param step The simulation step of the recharge, or {@link RechargeHistory#NO_STEP}.
+     * @param vehicle The vehicle recharged.
+     * @param charger The charger where the recharge took place.
+     * @param kws The number of kWh recharged.
+     * @param cost The cost of the recharge.
+     * @return The event.
+     */
+    static RechargeEvent snapshot(long sequence, int step, ElectricVehicle vehicle, Charger charger, int kws, double cost)
+    {
+        ChargingStation station = charger.getStation();
+        return new RechargeEvent(sequence, step, vehicle.getPlate(), vehicle.getType(), charger.getId(),
+            station == null ? null : station.getId(), kws, cost);
+    }
+
+    /**
+     * @return The position of the event among those published by its bus, starting at 0.
+     */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @return The simulation step of the recharge, or {@link RechargeHistory#NO_STEP} if it is not known.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * @return The plate of the vehicle recharged.
+     */
+    public String getPlate()
+    {
+        return plate;
+    }
+
+    /**
+     * @return The tier of the vehicle recharged.
+     */
+    public Enum<?> getTier()
+    {
+        return tier;
+    }
+
+    /**
+     * @return The id of the charger where the recharge took place.
+     */
+    public String getChargerId()
+    {
+        return chargerId;
+    }
+
+    /**
+     * @return The id of the station of the charger, or {@code null} if it has none.
+     */
+    public String getStationId()
+    {
+        return stationId;
+    }
+
+    /**
+     * @return The number of kWh recharged, or 0 if it is not known.
+     */
+    public int getKws()
+    {
+        return kws;
+    }
+
+    /**
+     * @return The cost of the recharge, or 0 if it is not known.
+     */
+    public double getCost()
+    {
+        return cost;
+    }
+
+    /**
+     * @return A description of the event.
+     */
+    @Override
+    public String toString()
+    {
+        return "RechargeEvent #" + sequence + ": " + plate + " at " + chargerId;
+    }
+}
@@ -0,0 +1,712 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous publisher of the {@link RechargeEvent}s of a company.
+ * <p>
+ * {@link #publish(ElectricVehicle, Charger)} only stores a snapshot of the
+ * recharge (see {@link RechargeEvent}) in the
+ * bounded ring buffers of the interested subscribers and returns, so a slow
+ * subscriber never stalls the simulation. Each subscriber receives the events
+ * in the order they were published and only as many as it has requested
+ * through its {@link Flow.Subscription}. A
+ * subscriber that falls more than the capacity of its buffer behind loses its
+ * oldest pending events, which are counted as dropped (see
+ * {@link #getLag(Flow.Subscriber)} and {@link #getDropped(Flow.Subscriber)}).
+ * </p>
+ * <p>
+ * The events are delivered on a small pool of delivery threads shared by every
+ * subscriber of the bus, whose threads end when they are idle. A subscriber is
+ * never delivered to by two threads at the same time. Subscribers that block
+ * for long should be given an {@link Executor} of their own when they
+ * subscribe, so they do not hold the shared threads.
+ * </p>
+ * <p>
+ * Each subscriber selects the events it receives with a {@link RechargeTopic}.
+ * Subscriptions are indexed by kind of topic and by the id, tier or class they
+ * select, so publishing an event looks up the interested subscribers directly
+ * and never visits the others.
+ * </p>
+ * <p>
+ * Batch subscribers (see {@link #subscribeBatches(Flow.Subscriber, RechargeTopic, int, Executor)})
+ * receive {@link RechargeBatch}es instead: consecutive events of the same step,
+ * up to a window size. A batch is delivered when it fills the window, when the
+ * step of its events ends ({@link #endStep(int)} or an event of a later step)
+ * or when the bus is closed. Their demand counts batches, not events.
+ * </p>
+ * <p>
+ * Subscribers only receive the events published after they subscribed.
+ * {@link #close()} completes every subscriber once it has received its pending
+ * events.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class RechargeEventBus implements Flow.Publisher<RechargeEvent>
+{
+    /** Default number of events the buffer can hold. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Default number of threads that deliver the events of a bus. */
+    public static final int DEFAULT_DELIVERY_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /** Seconds an idle delivery thread waits for work before it ends. */
+    private static final long DELIVERY_KEEP_ALIVE = 30;
+
+    /**
+     * Subscription of a subscriber, which also delivers its events.
+     * Every field is guarded by the lock of the bus.
+     */
+    private final class BusSubscription implements Flow.Subscription, Runnable
+    {
+        private final Flow.Subscriber<?> subscriber;
+        /** The subscriber of single events, or {@code null} for a batch subscriber. */
+        private final Flow.Subscriber<? super RechargeEvent> eventSubscriber;
+        /** The subscriber of batches, or {@code null} for a subscriber of single events. */
+        private final Flow.Subscriber<? super RechargeBatch> batchSubscriber;
+        /** Maximum number of events of a batch. */
+        private final int window;
+        private final RechargeTopic topic;
+        private final Executor executor;
+        /** Events published and not delivered yet, oldest first. */
+        private final ArrayDeque<RechargeEvent> pending;
+        /** Events or batches requested and not delivered yet; {@link Long#MAX_VALUE} means unbounded. */
+        private long requested;
+        private long delivered;
+        private long dropped;
+        /** Whether a delivery task is pending or running on the executor. */
+        private boolean scheduled;
+        private boolean subscribed;
+        private boolean cancelled;
+        /** Error caused by an invalid request, to be signalled by the delivery task. */
+        private Throwable error;
+
+        /**
+         * @param eventSubscriber The subscriber of single events, or {@code null}.
+         * @param batchSubscriber The subscriber of batches, or {@code null}.
+         * @param window The maximum number of events of a batch.
+         * @param topic The events the subscriber receives.
+         * @param executor The executor of the deliveries.
+         */
+        private BusSubscription(Flow.Subscriber<? super RechargeEvent> eventSubscriber,
+            Flow.Subscriber<? super RechargeBatch> batchSubscriber, int window, RechargeTopic topic, Executor executor)
+        {
+            this.subscriber = eventSubscriber != null ? eventSubscriber : batchSubscriber;
+            this.eventSubscriber = eventSubscriber;
+            this.batchSubscriber = batchSubscriber;
+            this.window = window;
+            this.topic = topic;
+            this.executor = executor;
+            this.pending = new ArrayDeque<>();
+        }
+
+        /**
+         * Adds demand for events.
+         *
+         * @param n The number of events; a non-positive value ends the subscription with an error.
+         */
+        @Override
+        public void request(long n)
+        {
+            boolean start;
+            synchronized (RechargeEventBus.this) {
+                if (cancelled) {
+                    return;
+                }
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested " + n + " events, must be positive");
+                } else {
+                    requested = (requested + n < 0) ? Long.MAX_VALUE : requested + n; //sin desbordamiento
+                }
+                start = schedule();
+            }
+            start(start);
+        }
+
+        /**
+         * Ends the subscription. Events being delivered may still arrive.
+         */
+        @Override
+        public void cancel()
+        {
+            synchronized (RechargeEventBus.this) {
+                if (cancelled) {
+                    return;
+                }
+                end();
+            }
+        }
+
+        /**
+         * Delivers the pending signals while there is demand for them.
+         */
+        @Override
+        public void run()
+        {
+            boolean first;
+            synchronized (RechargeEventBus.this) {
+                first = !subscribed;
+                subscribed = true;
+            }
+            if (first) {
+                subscriber.onSubscribe(this);
+            }
+            while (true) {
+                RechargeEvent event = null;
+                RechargeBatch batch = null;
+                Throwable failure = null;
+                synchronized (RechargeEventBus.this) {
+                    if (cancelled) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (error != null) {
+                        failure = error;
+                        end();
+                    } else if (requested > 0 && ready()) {
+                        if (batchSubscriber == null) {
+                            event = pending.poll();
+                            delivered++;
+                        } else {
+                            batch = takeBatch();
+                            delivered += batch.size();
+                        }
+                        if (requested != Long.MAX_VALUE) {
+                            requested--;
+                        }
+                    } else if (closed && pending.isEmpty()) {
+                        end();
+                    } else {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                if (event == null && batch == null) { //la suscripción ha terminado
+                    if (failure != null) {
+                        subscriber.onError(failure);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                try {
+                    if (event != null) {
+                        eventSubscriber.onNext(event);
+                    } else {
+                        batchSubscriber.onNext(batch);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Error in a recharge subscriber: " + e.getMessage());
+                    cancel();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Must be called with the lock of the bus.
+         *
+         * @return {@code true} if a delivery task has to be started, which is then marked as scheduled.
+         */
+        private boolean schedule()
+        {
+            if (scheduled || cancelled) {
+                return false;
+            }
+            if (!subscribed || error != null || (requested > 0 && ready()) || (closed && pending.isEmpty())) {
+                scheduled = true;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Starts the delivery task. Must be called without the lock of the bus,
+         * since the executor may run the task on the calling thread.
+         *
+         * @param start Whether the task has to be started, as returned by {@link #schedule()}.
+         */
+        private void start(boolean start)
+        {
+            if (!start) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) { //el ejecutor ya no acepta tareas
+                synchronized (RechargeEventBus.this) {
+                    scheduled = false;
+                    end();
+                }
+            }
+        }
+
+        /**
+         * Must be called with the lock of the bus.
+         *
+         * @return {@code true} if there is an event, or a complete batch, to deliver.
+         */
+        private boolean ready()
+        {
+            RechargeEvent first = pending.peek();
+            if (first == null) {
+                return false;
+            }
+            if (batchSubscriber == null) {
+                return true;
+            }
+            int step = first.getStep();
+            return pending.size() >= window || closed || step == RechargeHistory.NO_STEP
+                || step <= endedStep || pending.peekLast().getStep() != step;
+        }
+
+        /**
+         * Takes the next batch: the oldest pending events of the same step, up to the window.
+         * Must be called with the lock of the bus.
+         *
+         * @return The batch.
+         */
+        private RechargeBatch takeBatch()
+        {
+            int step = pending.peek().getStep();
+            List<RechargeEvent> events = new ArrayList<>(Math.min(window, pending.size()));
+            while (events.size() < window && !pending.isEmpty() && pending.peek().getStep() == step) {
+                events.add(pending.poll());
+            }
+            return new RechargeBatch(events);
+        }
+
+        /**
+         * Adds an event to the pending ones, dropping the oldest if the buffer is full.
+         * Must be called with the lock of the bus.
+         *
+         * @param event The event.
+         */
+        private void offer(RechargeEvent event)
+        {
+            if (pending.size() == capacity) {
+                pending.poll();
+                dropped++;
+            }
+            pending.add(event);
+        }
+
+        /**
+         * Marks the subscription as ended and removes it from the bus.
+         * Must be called with the lock of the bus.
+         */
+        private void end()
+        {
+            cancelled = true;
+            if (subscriptions.remove(subscriber, this)) {
+                List<BusSubscription> same = index.get(topic.getKind()).get(topic.getKey());
+                same.remove(this);
+                if (same.isEmpty()) {
+                    index.get(topic.getKind()).remove(topic.getKey());
+                }
+            }
+        }
+    }
+
+    /** Number of events each subscriber can fall behind. */
+    private final int capacity;
+    /** Delivery threads shared by the subscribers that have no executor of their own. */
+    private final ThreadPoolExecutor deliveryPool;
+    /** Number of events published, which is the sequence of the next one. */
+    private long published;
+    /** Last step whose end has been announced by {@link #endStep(int)}. */
+    private int endedStep;
+    private boolean closed;
+    /** Active subscriptions, in order of subscription. */
+    private final Map<Flow.Subscriber<?>, BusSubscription> subscriptions;
+    /** Active subscriptions by kind of topic and by the id, tier or class selected. */
+    private final Map<RechargeTopic.Kind, Map<Object, List<BusSubscription>>> index;
+
+    /**
+     * Constructs a bus with the default capacity.
+     */
+    public RechargeEventBus()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a bus with the default number of delivery threads.
+     *
+     * @param capacity The number of events each subscriber can fall behind before losing events. Must be positive.
+     * @throws IllegalArgumentException If {@code capacity} is not positive.
+     */
+    public RechargeEventBus(int capacity)
+    {
+        this(capacity, DEFAULT_DELIVERY_THREADS);
+    }
+
+    /**
+     * Constructs a bus.
+     *
+     * @param capacity The number of events each subscriber can fall behind before losing events. Must be positive.
+     * @param deliveryThreads The maximum number of threads shared by the subscribers without an executor of
+     *                        their own. Must be positive.
+     * @throws IllegalArgumentException If {@code capacity} or {@code deliveryThreads} is not positive.
+     */
+    public RechargeEventBus(int capacity, int deliveryThreads)
+    {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of RechargeEventBus must be positive");
+        }
+        if (deliveryThreads <= 0) {
+            throw new IllegalArgumentException("Delivery threads of RechargeEventBus must be positive");
+        }
+        this.capacity = capacity;
+        AtomicInteger created = new AtomicInteger();
+        //cada suscripción tiene como mucho una tarea en cola, así que la cola no crece sin límite
+        this.deliveryPool = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, DELIVERY_KEEP_ALIVE, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), task -> {
+                Thread thread = new Thread(task, "recharge-delivery-" + created.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        deliveryPool.allowCoreThreadTimeOut(true); //los hilos ociosos terminan
+        this.endedStep = RechargeHistory.NO_STEP;
+        this.subscriptions = new LinkedHashMap<>();
+        this.index = new EnumMap<>(RechargeTopic.Kind.class);
+        for (RechargeTopic.Kind kind : RechargeTopic.Kind.values()) {
+            index.put(kind, new HashMap<>());
+        }
+    }
+
+    /**
+     * Subscribes a subscriber that receives every event on the shared delivery threads.
+     *
+     * @param subscriber The subscriber. Must not be {@code null}.
+     * @throws NullPointerException If {@code subscriber} is {@code null}.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super RechargeEvent> subscriber)
+    {
+        subscribe(subscriber, RechargeTopic.all(), null);
+    }
+
+    /**
+     * Subscribes a subscriber that receives every event on the given executor.
+     *
+     * @param subscriber The subscriber. Must not be {@code null}.
+     * @param executor The executor of the deliveries, or {@code null} for the shared delivery threads.
+     * @throws NullPointerException If {@code subscriber} is {@code null}.
+     */
+    public void subscribe(Flow.Subscriber<? super RechargeEvent> subscriber, Executor executor)
+    {
+        subscribe(subscriber, RechargeTopic.all(), executor);
+    }
+
+    /**
+     * Subscribes a subscriber that receives the events of a topic on the given executor.
+     * A subscriber that is already subscribed receives an {@link IllegalStateException}
+     * through {@link Flow.Subscriber#onError(Throwable)}.
+     *
+     * @param subscriber The subscriber. Must not be {@code null}.
+     * @param topic The events the subscriber receives. Must not be {@code null}.
+     * @param executor The executor of the deliveries, or {@code null} for the shared delivery threads.
+     * @throws NullPointerException If {@code subscriber} or {@code topic} is {@code null}.
+     */
+    public void subscribe(Flow.Subscriber<? super RechargeEvent> subscriber, RechargeTopic topic, Executor executor)
+    {
+        if (subscriber == null || topic == null) {
+            throw new NullPointerException("RechargeEventBus need a subscriber and a topic");
+        }
+        add(subscriber, new BusSubscription(subscriber, null, 1, topic, executor == null ? deliveryPool : executor));
+    }
+
+    /**
+     * Subscribes a subscriber that receives the events of a topic in batches on the given executor.
+     * A subscriber that is already subscribed receives an {@link IllegalStateException}
+     * through {@link Flow.Subscriber#onError(Throwable)}.
+     *
+     * @param subscriber The subscriber. Must not be {@code null}.
+     * @param topic The events the subscriber receives. Must not be {@code null}.
+     * @param window The maximum number of events of a batch, or {@link RechargeBatch#WHOLE_STEP}. Must be positive.
+     * @param executor The executor of the deliveries, or {@code null} for the shared delivery threads.
+     * @throws NullPointerException If {@code subscriber} or {@code topic} is {@code null}.
+     * @throws IllegalArgumentException If {@code window} is not positive.
+     */
+    public void subscribeBatches(Flow.Subscriber<? super RechargeBatch> subscriber, RechargeTopic topic, int window, Executor executor)
+    {
+        if (subscriber == null || topic == null) {
+            throw new NullPointerException("RechargeEventBus need a subscriber and a topic");
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window of a batch subscription must be positive");
+        }
+        add(subscriber, new BusSubscription(null, subscriber, window, topic, executor == null ? deliveryPool : executor));
+    }
+
+    /**
+     * Registers a new subscription, unless its subscriber is already subscribed.
+     *
+     * @param subscriber The subscriber.
+     * @param created The subscription, which is discarded if it is not registered.
+     */
+    private void add(Flow.Subscriber<?> subscriber, BusSubscription created)
+    {
+        RechargeTopic topic = created.topic;
+        BusSubscription subscription;
+        synchronized (this) {
+            if (subscriptions.containsKey(subscriber)) {
+                subscription = null;
+            } else {
+                subscription = created;
+                subscriptions.put(subscriber, subscription);
+                index.get(topic.getKind()).computeIfAbsent(topic.getKey(), key -> new ArrayList<>()).add(subscription);
+                subscription.schedule(); //siempre hay que llamar a onSubscribe
+            }
+        }
+        if (subscription == null) {
+            subscriber.onError(new IllegalStateException("Subscriber already subscribed"));
+        } else {
+            subscription.start(true);
+        }
+    }
+
+    /**
+     * Publishes a recharge whose step is not known to the subscribers of its topics,
+     * without waiting for them. Batch subscribers receive it on its own.
+     *
+     * @param vehicle The vehicle recharged.
+     * @param charger The charger where the recharge took place.
+     */
+    public void publish(ElectricVehicle vehicle, Charger charger)
+    {
+        publish(vehicle, charger, 0, 0, RechargeHistory.NO_STEP);
+    }
+
+    /**
+     * Publishes a recharge whose kWh and cost are not known to the subscribers of its
+     * topics, without waiting for them.
+     *
+     * @param vehicle The vehicle recharged.
+     * @param charger The charger where the recharge took place.
+     * @param step The simulation step of the recharge, or {@link RechargeHistory#NO_STEP}.
+     */
+    public void publish(ElectricVehicle vehicle, Charger charger, int step)
+    {
+        publish(vehicle, charger, 0, 0, step);
+    }
+
+    /**
+     * Publishes a recharge to the subscribers of its topics, without waiting for them.
+     * The subscribers receive a snapshot of the recharge taken now, on the calling thread.
+     * Events published after {@link #close()} are discarded.
+     *
+     * @param vehicle The vehicle recharged.
+     * @param charger The charger where the recharge took place.
+     * @param kws The number of kWh recharged.
+     * @param cost The cost of the recharge.
+     * @param step The simulation step of the recharge, or {@link RechargeHistory#NO_STEP}.
+     */
+    public void publish(ElectricVehicle vehicle, Charger charger, int kws, double cost, int step)
+    {
+        List<BusSubscription> ready;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (subscriptions.isEmpty()) { //nadie lo va a recibir
+                published++;
+                return;
+            }
+            RechargeEvent event = RechargeEvent.snapshot(published++, step, vehicle, charger, kws, cost);
+            ready = new ArrayList<>();
+            offer(event, RechargeTopic.Kind.ALL, null, ready);
+            offer(event, RechargeTopic.Kind.CHARGER, event.getChargerId(), ready);
+            if (event.getStationId() != null) {
+                offer(event, RechargeTopic.Kind.STATION, event.getStationId(), ready);
+            }
+            offer(event, RechargeTopic.Kind.TIER, event.getTier(), ready);
+            offer(event, RechargeTopic.Kind.CHARGER_CLASS, charger.getClass(), ready);
+        }
+        for (BusSubscription subscription : ready) {
+            subscription.start(true);
+        }
+    }
+
+    /**
+     * Adds an event to the subscriptions of a topic. Must be called with the lock of the bus.
+     *
+     * @param event The event.
+     * @param kind The kind of topic.
+     * @param key The id, tier or class of the event for that kind of topic.
+     * @param ready The list that collects the subscriptions whose delivery task has to be started.
+     */
+    private void offer(RechargeEvent event, RechargeTopic.Kind kind, Object key, List<BusSubscription> ready)
+    {
+        List<BusSubscription> interested = index.get(kind).get(key);
+        if (interested == null) {
+            return;
+        }
+        for (BusSubscription subscription : interested) {
+            subscription.offer(event);
+            if (subscription.schedule()) {
+                ready.add(subscription);
+            }
+        }
+    }
+
+    /**
+     * Announces that no more events of a step, or of earlier steps, will be
+     * published, so batch subscribers receive the batches of those steps
+     * without waiting for their windows to fill.
+     *
+     * @param step The step that has ended.
+     */
+    public void endStep(int step)
+    {
+        List<BusSubscription> ready = new ArrayList<>();
+        synchronized (this) {
+            if (step <= endedStep) {
+                return;
+            }
+            endedStep = step;
+            for (BusSubscription subscription : subscriptions.values()) {
+                if (subscription.batchSubscriber != null && subscription.schedule()) {
+                    ready.add(subscription);
+                }
+            }
+        }
+        for (BusSubscription subscription : ready) {
+            subscription.start(true);
+        }
+    }
+
+    /**
+     * Stops accepting events. Every subscriber is completed once it has received its pending events.
+     */
+    public void close()
+    {
+        List<BusSubscription> ready = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (BusSubscription subscription : subscriptions.values()) {
+                if (subscription.schedule()) {
+                    ready.add(subscription);
+                }
+            }
+        }
+        for (BusSubscription subscription : ready) {
+            subscription.start(true);
+        }
+    }
+
+    /**
+     * Cancels the subscription of a subscriber, if it is subscribed.
+     *
+     * @param subscriber The subscriber.
+     */
+    public void unsubscribe(Flow.Subscriber<?> subscriber)
+    {
+        BusSubscription subscription;
+        synchronized (this) {
+            subscription = subscriptions.get(subscriber);
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Cancels every subscription.
+     */
+    public void unsubscribeAll()
+    {
+        List<BusSubscription> active;
+        synchronized (this) {
+            active = new ArrayList<>(subscriptions.values());
+        }
+        for (BusSubscription subscription : active) {
+            subscription.cancel();
+        }
+    }
+
+    // -------------------------------------------------
+    // -------------------- Getters --------------------
+    // -------------------------------------------------
+
+    /**
+     * @return The number of events each subscriber can fall behind before losing events.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @return The maximum number of threads shared by the subscribers without an executor of their own.
+     */
+    public int getDeliveryThreads()
+    {
+        return deliveryPool.getMaximumPoolSize();
+    }
+
+    /**
+     * @return The number of events published.
+     */
+    public synchronized long getPublished()
+    {
+        return published;
+    }
+
+    /**
+     * @return The number of active subscriptions.
+     */
+    public synchronized int getSubscriberCount()
+    {
+        return subscriptions.size();
+    }
+
+    /**
+     * @param subscriber A subscriber.
+     * @return The number of events of its topic published and not yet delivered to the
+     *         subscriber, or 0 if it is not subscribed.
+     */
+    public synchronized long getLag(Flow.Subscriber<?> subscriber)
+    {
+        BusSubscription subscription = subscriptions.get(subscriber);
+        return subscription == null ? 0 : subscription.pending.size();
+    }
+
+    /**
+     * @param subscriber A subscriber.
+     * @return The number of events the subscriber lost by falling too far behind,
+     *         or 0 if it is not subscribed.
+     */
+    public synchronized long getDropped(Flow.Subscriber<?> subscriber)
+    {
+        BusSubscription subscription = subscriptions.get(subscriber);
+        return subscription == null ? 0 : subscription.dropped;
+    }
+
+    /**
+     * @param subscriber A subscriber.
+     * @return The number of events delivered to the subscriber, or 0 if it is not subscribed.
+     */
+    public synchronized long getDelivered(Flow.Subscriber<?> subscriber)
+    {
+        BusSubscription subscription = subscriptions.get(subscriber);
+        return subscription == null ? 0 : subscription.delivered;
+    }
+}
@@ -0,0 +1,419 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for {@link RechargeEventBus}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Delivering the events in order on the shared delivery threads.</li>
+ *   <li>Sharing a bounded number of delivery threads among every subscriber.</li>
+ *   <li>Delivering only the requested events and dropping those of subscribers that fall behind.</li>
+ *   <li>Delivering to each subscriber only the events of its topic.</li>
+ *   <li>Grouping the events of a step in batches.</li>
+ *   <li>Completing subscribers and rejecting invalid requests.</li>
+ *   <li>Notifying observers of the company without waiting for them.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class RechargeEventBusTest
+{
+    /**
+     * Subscriber that records what it receives and requests nothing by itself.
+     */
+    private static class Recorder implements Flow.Subscriber<RechargeEvent>
+    {
+        private final List<Long> sequences = new ArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        /**
+         * @param subscription The subscription, kept to request events from the tests.
+         */
+        @Override
+        public void onSubscribe(Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+        }
+
+        /**
+         * @param event The event, whose sequence is recorded.
+         */
+        @Override
+        public synchronized void onNext(RechargeEvent event)
+        {
+            sequences.add(event.getSequence());
+        }
+
+        /**
+         * @param error The error, which is recorded.
+         */
+        @Override
+        public void onError(Throwable error)
+        {
+            this.error = error;
+            done.countDown();
+        }
+
+        /**
+         * Records that the subscriber has been completed.
+         */
+        @Override
+        public void onComplete()
+        {
+            completed = true;
+            done.countDown();
+        }
+
+        /**
+         * @return A copy of the sequences received.
+         */
+        private synchronized List<Long> getSequences()
+        {
+            return new ArrayList<>(sequences);
+        }
+    }
+
+    /** The bus under test, of capacity 8. */
+    private RechargeEventBus bus;
+
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /** A vehicle used in the events. */
+    private ElectricVehicle vehicle;
+
+    /** A charger used in the events. */
+    private Charger charger;
+
+    /**
+     * Default constructor for test class RechargeEventBusTest.
+     */
+    public RechargeEventBusTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+        vehicle = new StandardEV(company, new Location(1, 1), new Location(5, 5), "Tesla Std", "CC12", 50);
+        charger = new StandardCharger("CC00_000", 40, 0.25);
+        bus = new RechargeEventBus(8);
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        bus.unsubscribeAll();
+        company.reset();
+        bus = null;
+        company = null;
+    }
+
+    /**
+     * Tests that a subscriber on the shared delivery threads receives every requested event in order
+     * and is completed when the bus is closed.
+     */
+    @Test
+    public void testDeliveryInOrder() throws InterruptedException
+    {
+        Recorder recorder = new Recorder() {
+            /**
+             * Requests every event.
+             */
+            @Override
+            public void onSubscribe(Flow.Subscription subscription)
+            {
+                super.onSubscribe(subscription);
+                subscription.request(Long.MAX_VALUE);
+            }
+        };
+        RechargeEventBus large = new RechargeEventBus(); //cabe todo, no se pierde nada
+        large.subscribe(recorder);
+        List<Long> expected = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            large.publish(vehicle, charger);
+            expected.add(i);
+        }
+        large.close();
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertTrue(recorder.completed);
+        assertEquals(expected, recorder.getSequences());
+        assertEquals(0, large.getSubscriberCount());
+    }
+
+    /**
+     * Tests that many subscribers without an executor of their own share the
+     * delivery threads of the bus instead of getting a thread each.
+     */
+    @Test
+    public void testSharedDeliveryThreads() throws InterruptedException
+    {
+        RechargeEventBus shared = new RechargeEventBus(8, 2);
+        Set<String> threads = new HashSet<>();
+        List<Recorder> recorders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Recorder recorder = new Recorder() {
+                /**
+                 * Requests every event.
+                 */
+                @Override
+                public void onSubscribe(Flow.Subscription subscription)
+                {
+                    super.onSubscribe(subscription);
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                /**
+                 * Records the thread of the delivery.
+                 */
+                @Override
+                public synchronized void onNext(RechargeEvent event)
+                {
+                    super.onNext(event);
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread().getName());
+                    }
+                }
+            };
+            recorders.add(recorder);
+            shared.subscribe(recorder);
+        }
+        for (int i = 0; i < 5; i++) {
+            shared.publish(vehicle, charger);
+        }
+        shared.close();
+        for (Recorder recorder : recorders) {
+            assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(0L, 1L, 2L, 3L, 4L), recorder.getSequences());
+        }
+        assertEquals(2, shared.getDeliveryThreads());
+        synchronized (threads) {
+            assertTrue(threads.size() <= 2);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new RechargeEventBus(8, 0));
+    }
+
+    /**
+     * Tests that events wait for demand, that the lag and drops are counted and
+     * that a subscriber that fell behind receives the most recent events.
+     */
+    @Test
+    public void testBackpressure()
+    {
+        Recorder recorder = new Recorder();
+        bus.subscribe(recorder, Runnable::run);
+        for (int i = 0; i < 13; i++) {
+            bus.publish(vehicle, charger);
+        }
+        assertTrue(recorder.getSequences().isEmpty());
+        assertEquals(8, bus.getLag(recorder));
+        assertEquals(5, bus.getDropped(recorder));
+
+        recorder.subscription.request(3);
+        assertEquals(List.of(5L, 6L, 7L), recorder.getSequences());
+        assertEquals(5, bus.getLag(recorder));
+        assertEquals(3, bus.getDelivered(recorder));
+    }
+
+    /**
+     * Tests that invalid requests end the subscription with an error and that
+     * subscribers cannot subscribe twice.
+     */
+    @Test
+    public void testInvalidRequest()
+    {
+        Recorder recorder = new Recorder();
+        bus.subscribe(recorder, Runnable::run);
+        assertEquals(1, bus.getSubscriberCount());
+        recorder.subscription.request(0);
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertEquals(0, bus.getSubscriberCount());
+
+        Recorder twice = new Recorder();
+        bus.subscribe(twice, Runnable::run);
+        bus.subscribe(twice, Runnable::run);
+        assertTrue(twice.error instanceof IllegalStateException);
+        assertThrows(NullPointerException.class, () -> bus.subscribe(null));
+        assertThrows(IllegalArgumentException.class, () -> new RechargeEventBus(0));
+    }
+
+    /**
+     * Tests that subscribers only receive the events of their topics.
+     */
+    @Test
+    public void testTopics()
+    {
+        ChargingStation station = new ChargingStation("Cáceres", "CC00", new Location(2, 2));
+        station.addCharger(charger);
+        Charger other = new SolarCharger("CC01_000", 40, 0.25);
+        ElectricVehicle vtc = new VtcEV(company, new Location(1, 1), new Location(5, 5), "Tesla VTC", "CC15", 60);
+        Recorder all = new Recorder();
+        Recorder byStation = new Recorder();
+        Recorder byCharger = new Recorder();
+        Recorder byTier = new Recorder();
+        Recorder byClass = new Recorder();
+        bus.subscribe(all, Runnable::run);
+        bus.subscribe(byStation, RechargeTopic.station("CC00"), Runnable::run);
+        bus.subscribe(byCharger, RechargeTopic.charger("CC01_000"), Runnable::run);
+        bus.subscribe(byTier, RechargeTopic.tier(VehicleTier.VTC), Runnable::run);
+        bus.subscribe(byClass, RechargeTopic.chargerClass(StandardCharger.class), Runnable::run);
+        for (Recorder recorder : List.of(all, byStation, byCharger, byTier, byClass)) {
+            recorder.subscription.request(Long.MAX_VALUE);
+        }
+
+        bus.publish(vehicle, charger);
+        bus.publish(vtc, other);
+        bus.publish(vtc, charger);
+        assertEquals(List.of(0L, 1L, 2L), all.getSequences());
+        assertEquals(List.of(0L, 2L), byStation.getSequences());
+        assertEquals(List.of(1L), byCharger.getSequences());
+        assertEquals(List.of(1L, 2L), byTier.getSequences());
+        assertEquals(List.of(0L, 2L), byClass.getSequences());
+
+        bus.unsubscribe(byStation);
+        bus.publish(vehicle, charger);
+        assertEquals(List.of(0L, 2L), byStation.getSequences());
+        assertEquals(4, bus.getSubscriberCount());
+    }
+
+    /**
+     * Tests that batch subscribers receive the events of a step together, split by
+     * the window, when the step ends or a later step begins.
+     */
+    @Test
+    public void testBatches()
+    {
+        List<RechargeBatch> batches = new ArrayList<>();
+        Flow.Subscriber<RechargeBatch> subscriber = new Flow.Subscriber<RechargeBatch>() {
+            /**
+             * Requests every batch.
+             */
+            @Override
+            public void onSubscribe(Flow.Subscription subscription)
+            {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            /**
+             * Records the batch.
+             */
+            @Override
+            public void onNext(RechargeBatch batch)
+            {
+                batches.add(batch);
+            }
+
+            /**
+             * Nothing to do.
+             */
+            @Override
+            public void onError(Throwable error)
+            {
+            }
+
+            /**
+             * Nothing to do.
+             */
+            @Override
+            public void onComplete()
+            {
+            }
+        };
+        bus.subscribeBatches(subscriber, RechargeTopic.all(), 3, Runnable::run);
+        for (int i = 0; i < 5; i++) {
+            bus.publish(vehicle, charger, 0);
+        }
+        assertEquals(1, batches.size()); //solo el lote lleno
+        assertEquals(3, batches.get(0).size());
+        bus.publish(vehicle, charger, 1); //empieza otro paso: se entrega el resto del paso 0
+        assertEquals(2, batches.size());
+        assertEquals(0, batches.get(1).getStep());
+        assertEquals(4, batches.get(1).getSequence(1));
+        assertEquals(1, bus.getLag(subscriber));
+        bus.endStep(1);
+        assertEquals(3, batches.size());
+        assertEquals(1, batches.get(2).getStep());
+        assertEquals(6, bus.getDelivered(subscriber));
+        assertThrows(IllegalArgumentException.class,
+            () -> bus.subscribeBatches(subscriber, RechargeTopic.all(), 0, Runnable::run));
+    }
+
+    /**
+     * Tests that a batch observer of the company receives every recharge of a step in one call.
+     */
+    @Test
+    public void testBatchObserver() throws InterruptedException
+    {
+        List<RechargeBatch> batches = new ArrayList<>();
+        CountDownLatch received = new CountDownLatch(1);
+        BatchObserver observer = batch -> {
+            synchronized (batches) {
+                batches.add(batch);
+            }
+            received.countDown();
+        };
+        company.addBatchObserver(observer, RechargeTopic.all(), RechargeBatch.WHOLE_STEP);
+        for (int i = 0; i < 10; i++) {
+            company.registerRecharge(charger, vehicle, 20, 5.0, 7);
+        }
+        company.notifyStepEnd(7);
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        synchronized (batches) {
+            assertEquals(1, batches.size());
+            assertEquals(10, batches.get(0).size());
+            assertEquals(7, batches.get(0).getStep());
+            assertEquals(vehicle.getPlate(), batches.get(0).getPlate(9));
+            assertEquals(20, batches.get(0).getKws(9));
+        }
+    }
+
+    /**
+     * Tests that a blocked observer of the company does not stall the registration of recharges.
+     */
+    @Test
+    public void testSlowObserver() throws InterruptedException
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(3);
+        CompanyObserver slow = recharge -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.countDown();
+        };
+        company.addObserver(slow);
+        for (int i = 0; i < 3; i++) {
+            company.registerRecharge(charger, vehicle);
+        }
+        assertTrue(company.getLag(slow) > 0);
+        release.countDown();
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(0, company.getDropped(slow));
+    }
+}
@@ -0,0 +1,316 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded history of the recharges performed by a {@link Charger}.
+ * <p>
+ * The most recent recharges are kept in a ring buffer of primitive columns
+ * (vehicle, kWh, cost and step). When the buffer is full, every new recharge
+ * replaces the oldest one, so the memory used does not grow with the length of
+ * the simulation. The total number of recharges ever recorded is kept apart.
+ * The columns start small and grow up to the capacity as recharges arrive, so
+ * a charger that is barely used does not reserve the whole buffer.
+ * </p>
+ * <p>
+ * The vehicle column holds an index in a table of the distinct vehicles of the
+ * retained recharges, so a recharge does not keep a reference of its own. Each
+ * entry of the table counts the recharges that refer to it and is released when
+ * the last of them is overwritten, so the table never holds more vehicles than
+ * the capacity.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class RechargeHistory
+{
+    /** Step of recharges recorded without one. */
+    public static final int NO_STEP = -1;
+
+    /** Initial length of the columns, if the capacity is larger. */
+    private static final int INITIAL_COLUMNS = 16;
+
+    /** Number of recharges retained. */
+    private int capacity;
+    private int[] vehicle;
+    private int[] kws;
+    private double[] cost;
+    private int[] step;
+    /** Position of the oldest retained recharge. */
+    private int head;
+    /** Number of retained recharges. */
+    private int size;
+    /** Number of recharges ever recorded. */
+    private int total;
+    /** Distinct vehicles of the retained recharges, indexed by the vehicle column; released entries are {@code null}. */
+    private List<ElectricVehicle> vehicles;
+    private Map<ElectricVehicle, Integer> vehicleIndex;
+    /** Number of retained recharges of each entry of the table of vehicles. */
+    private int[] references;
+    /** Released entries of the table of vehicles, to be reused. */
+    private int[] freeIndices;
+    private int freeCount;
+    /** Read-only view of the vehicles of the retained recharges. */
+    private List<ElectricVehicle> retainedVehicles;
+
+    /**
+     * Constructs an empty history.
+     *
+     * @param capacity The number of recharges retained. Must be positive.
+     * @throws IllegalArgumentException If {@code capacity} is not positive.
+     */
+    public RechargeHistory(int capacity)
+    {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of RechargeHistory must be positive");
+        }
+        this.capacity = capacity;
+        int columns = Math.min(capacity, INITIAL_COLUMNS);
+        this.vehicle = new int[columns];
+        this.kws = new int[columns];
+        this.cost = new double[columns];
+        this.step = new int[columns];
+        this.vehicles = new ArrayList<>();
+        this.vehicleIndex = new IdentityHashMap<>();
+        this.references = new int[columns];
+        this.freeIndices = new int[columns];
+        this.retainedVehicles = new AbstractList<ElectricVehicle>() {
+            @Override
+            public ElectricVehicle get(int i)
+            {
+                return getVehicle(i);
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+
+    // -------------------------------------------------
+    // -------------------- Getters --------------------
+    // -------------------------------------------------
+
+    /**
+     * @return The number of recharges retained.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @return The number of recharges currently retained.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return The number of distinct vehicles of the retained recharges.
+     */
+    public int getDistinctVehicles()
+    {
+        return vehicleIndex.size();
+    }
+
+    /**
+     * @return The number of recharges ever recorded, including those no longer retained.
+     */
+    public int getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * @param i The index of a retained recharge, 0 being the oldest.
+     * @return The vehicle recharged.
+     */
+    public ElectricVehicle getVehicle(int i)
+    {
+        return vehicles.get(vehicle[position(i)]);
+    }
+
+    /**
+     * @param i The index of a retained recharge, 0 being the oldest.
+     * @return The kWh recharged.
+     */
+    public int getKws(int i)
+    {
+        return kws[position(i)];
+    }
+
+    /**
+     * @param i The index of a retained recharge, 0 being the oldest.
+     * @return The cost of the recharge.
+     */
+    public double getCost(int i)
+    {
+        return cost[position(i)];
+    }
+
+    /**
+     * @param i The index of a retained recharge, 0 being the oldest.
+     * @return The step of the recharge, or {@link #NO_STEP}.
+     */
+    public int getStep(int i)
+    {
+        return step[position(i)];
+    }
+
+    /**
+     * @return A read-only view of the vehicles of the retained recharges, oldest first.
+     */
+    public List<ElectricVehicle> vehicles()
+    {
+        return retainedVehicles;
+    }
+
+    // ------------------------------------------------
+    // -------------------- Others --------------------
+    // ------------------------------------------------
+
+    /**
+     * Records a recharge, replacing the oldest one if the history is full.
+     *
+     * @param recharged The vehicle recharged.
+     * @param kwsRecharged The kWh recharged.
+     * @param fee The cost of the recharge.
+     * @param rechargeStep The step of the recharge, or {@link #NO_STEP}.
+     */
+    void add(ElectricVehicle recharged, int kwsRecharged, double fee, int rechargeStep)
+    {
+        int at;
+        if (size < capacity) {
+            if (size == vehicle.length) {
+                grow(); //aún no se ha sobrescrito nada: head es 0
+            }
+            at = (head + size) % vehicle.length;
+            size++;
+        } else {
+            at = head; //se sobrescribe la más antigua
+            head = (head + 1) % vehicle.length;
+            release(vehicle[at]);
+        }
+        vehicle[at] = indexOf(recharged);
+        kws[at] = kwsRecharged;
+        cost[at] = fee;
+        step[at] = rechargeStep;
+        total++;
+    }
+
+    /**
+     * Creates a copy of this history with another capacity, keeping the most recent recharges.
+     *
+     * @param capacity The number of recharges retained by the copy. Must be positive.
+     * @return The copy.
+     * @throws IllegalArgumentException If {@code capacity} is not positive.
+     */
+    public RechargeHistory copy(int capacity)
+    {
+        RechargeHistory copy = new RechargeHistory(capacity);
+        for (int i = Math.max(0, size - capacity); i < size; i++) {
+            copy.add(getVehicle(i), getKws(i), getCost(i), getStep(i));
+        }
+        copy.total = total;
+        return copy;
+    }
+
+    /**
+     * @return A copy of this history with the same capacity.
+     */
+    public RechargeHistory copy()
+    {
+        return copy(getCapacity());
+    }
+
+    /**
+     * Sets the number of recharges ever recorded, when rebuilding a saved history.
+     *
+     * @param total The number of recharges. Must not be lower than the retained ones.
+     * @throws IllegalArgumentException If {@code total} is lower than {@link #size()}.
+     */
+    void setTotal(int total)
+    {
+        if (total < size) {
+            throw new IllegalArgumentException("Total recharges lower than the retained ones");
+        }
+        this.total = total;
+    }
+
+    /**
+     * @param i The index of a retained recharge, 0 being the oldest.
+     * @return Its position in the columns.
+     * @throws IndexOutOfBoundsException If the recharge is not retained.
+     */
+    private int position(int i)
+    {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Recharge " + i + " out of " + size);
+        }
+        return (head + i) % vehicle.length;
+    }
+
+    /**
+     * Doubles the length of the columns, up to the capacity.
+     */
+    private void grow()
+    {
+        int columns = (int) Math.min(capacity, 2L * vehicle.length);
+        vehicle = Arrays.copyOf(vehicle, columns);
+        kws = Arrays.copyOf(kws, columns);
+        cost = Arrays.copyOf(cost, columns);
+        step = Arrays.copyOf(step, columns);
+    }
+
+    /**
+     * Adds a reference to a vehicle from a retained recharge.
+     *
+     * @param recharged A vehicle.
+     * @return The index of the vehicle in the table of vehicles, adding it if it is new.
+     */
+    private int indexOf(ElectricVehicle recharged)
+    {
+        Integer index = vehicleIndex.get(recharged);
+        if (index == null) {
+            if (freeCount > 0) {
+                index = freeIndices[--freeCount];
+                vehicles.set(index, recharged);
+            } else {
+                index = vehicles.size();
+                vehicles.add(recharged);
+                if (index == references.length) {
+                    references = Arrays.copyOf(references, index * 2);
+                }
+            }
+            vehicleIndex.put(recharged, index);
+        }
+        references[index]++;
+        return index;
+    }
+
+    /**
+     * Removes a reference to an entry of the table of vehicles, releasing the
+     * entry when no retained recharge refers to it any more.
+     *
+     * @param index The index of the vehicle in the table.
+     */
+    private void release(int index)
+    {
+        if (--references[index] == 0) {
+            vehicleIndex.remove(vehicles.get(index));
+            vehicles.set(index, null);
+            if (freeCount == freeIndices.length) {
+                freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+            }
+            freeIndices[freeCount++] = index;
+        }
+    }
+}
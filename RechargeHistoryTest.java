@@ -0,0 +1,159 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+/**
+ * Test class for {@link RechargeHistory}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Replacing the oldest recharges once the history is full.</li>
+ *   <li>Counting every recharge ever recorded.</li>
+ *   <li>Copying a history with another capacity.</li>
+ *   <li>Releasing the vehicles of overwritten recharges and growing up to the capacity.</li>
+ *   <li>Rejecting invalid capacities and indexes.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class RechargeHistoryTest
+{
+    /** The history under test, of capacity 3. */
+    private RechargeHistory history;
+
+    /** A standard electric vehicle used in tests. */
+    private ElectricVehicle eVehicle1;
+
+    /** A VTC electric vehicle used in tests. */
+    private ElectricVehicle eVehicle2;
+
+    /**
+     * Default constructor for test class RechargeHistoryTest.
+     */
+    public RechargeHistoryTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        EVCompany company = EVCompany.getInstance();
+        eVehicle1 = new StandardEV(company, new Location(4, 7), new Location(5, 7), "Tesla Std", "CC12", 50);
+        eVehicle2 = new VtcEV(company, new Location(10, 9), new Location(12, 9), "Tesla VTC", "CC15", 60);
+        history = new RechargeHistory(3);
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        history = null;
+        eVehicle1 = null;
+        eVehicle2 = null;
+    }
+
+    /**
+     * Tests that a full history replaces its oldest recharge and keeps counting the total.
+     */
+    @Test
+    public void testEviction()
+    {
+        for (int i = 0; i < 5; i++) {
+            history.add(i % 2 == 0 ? eVehicle1 : eVehicle2, 10 + i, i * 1.5, i);
+        }
+        assertEquals(3, history.size());
+        assertEquals(5, history.getTotal());
+        assertEquals(List.of(eVehicle1, eVehicle2, eVehicle1), history.vehicles());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(12 + i, history.getKws(i));
+            assertEquals((2 + i) * 1.5, history.getCost(i), 0.0001);
+            assertEquals(2 + i, history.getStep(i));
+        }
+    }
+
+    /**
+     * Tests that a copy with a lower capacity keeps the most recent recharges and the total.
+     */
+    @Test
+    public void testCopy()
+    {
+        history.add(eVehicle1, 10, 1.0, 0);
+        history.add(eVehicle2, 20, 2.0, RechargeHistory.NO_STEP);
+        history.add(eVehicle1, 30, 3.0, 2);
+        RechargeHistory copy = history.copy(2);
+        assertEquals(2, copy.getCapacity());
+        assertEquals(List.of(eVehicle2, eVehicle1), copy.vehicles());
+        assertEquals(RechargeHistory.NO_STEP, copy.getStep(0));
+        assertEquals(30, copy.getKws(1));
+        assertEquals(3, copy.getTotal());
+
+        copy.add(eVehicle2, 40, 4.0, 3);
+        assertEquals(3, history.size()); //la copia es independiente
+        assertEquals(4, copy.getTotal());
+    }
+
+    /**
+     * Tests that a history keeps only the vehicles of its retained recharges,
+     * reusing the entries of the vehicles whose recharges were overwritten.
+     */
+    @Test
+    public void testVehiclesReleased()
+    {
+        EVCompany company = EVCompany.getInstance();
+        for (int i = 0; i < 20; i++) {
+            history.add(new StandardEV(company, new Location(0, 0), new Location(1, 1), "EV", "P" + i, 50), i, 0, i);
+            assertTrue(history.getDistinctVehicles() <= 3);
+        }
+        history.add(eVehicle1, 1, 0, 20);
+        history.add(eVehicle1, 2, 0, 21);
+        assertEquals(2, history.getDistinctVehicles());
+        assertEquals("P19", history.getVehicle(0).getPlate());
+        assertSame(eVehicle1, history.getVehicle(2));
+        assertEquals(22, history.getTotal());
+    }
+
+    /**
+     * Tests that a large history grows as recharges arrive and wraps around at its capacity.
+     */
+    @Test
+    public void testGrowth()
+    {
+        RechargeHistory large = new RechargeHistory(100);
+        for (int i = 0; i < 250; i++) {
+            large.add(i % 2 == 0 ? eVehicle1 : eVehicle2, i, i * 0.5, i);
+        }
+        assertEquals(100, large.getCapacity());
+        assertEquals(100, large.size());
+        assertEquals(250, large.getTotal());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(150 + i, large.getStep(i));
+            assertEquals(150 + i, large.getKws(i));
+        }
+        assertEquals(2, large.getDistinctVehicles());
+    }
+
+    /**
+     * Tests that invalid capacities, indexes and totals are rejected.
+     */
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new RechargeHistory(0));
+        history.add(eVehicle1, 10, 1.0, 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getKws(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getVehicle(-1));
+        assertThrows(IllegalArgumentException.class, () -> history.setTotal(0));
+        assertThrows(UnsupportedOperationException.class, () -> history.vehicles().add(eVehicle2));
+    }
+}
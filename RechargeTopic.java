@@ -0,0 +1,190 @@
+import java.util.Objects;
+
+/**
+ * Filter of the {@link RechargeEvent}s a subscriber of a {@link RechargeEventBus}
+ * is interested in.
+ * <p>
+ * A topic selects every recharge, or the recharges of one charger, of one
+ * station, of one {@link VehicleTier} or of one class of charger. The bus
+ * indexes its subscribers by topic, so publishing an event only touches the
+ * subscribers whose topic matches it.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public final class RechargeTopic
+{
+    /**
+     * Kinds of topics, by the attribute of the recharge they select on.
+     */
+    public enum Kind
+    {
+        /** Every recharge. */
+        ALL,
+        /** The recharges of a charger, by id. */
+        CHARGER,
+        /** The recharges at the chargers of a station, by id. */
+        STATION,
+        /** The recharges of vehicles of a tier. */
+        TIER,
+        /** The recharges at chargers of a class. */
+        CHARGER_CLASS
+    }
+
+    /** The topic of every recharge. */
+    private static final RechargeTopic ALL = new RechargeTopic(Kind.ALL, null);
+
+    private final Kind kind;
+    /** The id, tier or class selected, or {@code null} for {@link Kind#ALL}. */
+    private final Object key;
+
+    /**
+     * @param kind The kind of topic.
+     * @param key The id, tier or class selected.
+     */
+    private RechargeTopic(Kind kind, Object key)
+    {
+        this.kind = kind;
+        this.key = key;
+    }
+
+    /**
+     * @return The topic of every recharge.
+     */
+    public static RechargeTopic all()
+    {
+        return ALL;
+    }
+
+    /**
+     * @param chargerId The id of a charger. Must not be {@code null}.
+     * @return The topic of the recharges of the charger.
+     * @throws NullPointerException If {@code chargerId} is {@code null}.
+     */
+    public static RechargeTopic charger(String chargerId)
+    {
+        if (chargerId == null) {
+            throw new NullPointerException("RechargeTopic need a charger id");
+        }
+        return new RechargeTopic(Kind.CHARGER, chargerId);
+    }
+
+    /**
+     * @param stationId The id of a station. Must not be {@code null}.
+     * @return The topic of the recharges at the chargers of the station.
+     * @throws NullPointerException If {@code stationId} is {@code null}.
+     */
+    public static RechargeTopic station(String stationId)
+    {
+        if (stationId == null) {
+            throw new NullPointerException("RechargeTopic need a station id");
+        }
+        return new RechargeTopic(Kind.STATION, stationId);
+    }
+
+    /**
+     * @param tier A vehicle tier. Must not be {@code null}.
+     * @return The topic of the recharges of vehicles of the tier.
+     * @throws NullPointerException If {@code tier} is {@code null}.
+     */
+    public static RechargeTopic tier(VehicleTier tier)
+    {
+        if (tier == null) {
+            throw new NullPointerException("RechargeTopic need a vehicle tier");
+        }
+        return new RechargeTopic(Kind.TIER, tier);
+    }
+
+    /**
+     * @param chargerClass A class of charger. Must not be {@code null}.
+     * @return The topic of the recharges at chargers of exactly that class.
+     * @throws NullPointerException If {@code chargerClass} is {@code null}.
+     */
+    public static RechargeTopic chargerClass(Class<? extends Charger> chargerClass)
+    {
+        if (chargerClass == null) {
+            throw new NullPointerException("RechargeTopic need a charger class");
+        }
+        return new RechargeTopic(Kind.CHARGER_CLASS, chargerClass);
+    }
+
+    /**
+     * @return The kind of topic.
+     */
+    public Kind getKind()
+    {
+        return kind;
+    }
+
+    /**
+     * @return The id, tier or class selected, or {@code null} for the topic of every recharge.
+     */
+    public Object getKey()
+    {
+        return key;
+    }
+
+    /**
+     * Checks whether a recharge belongs to this topic.
+     *
+     * @param vehicle The vehicle recharged.
+     * @param charger The charger where the recharge took place.
+     * @return {@code true} if the recharge belongs to this topic.
+     */
+    public boolean matches(ElectricVehicle vehicle, Charger charger)
+    {
+        switch (kind) {
+            case CHARGER:
+                return key.equals(charger.getId());
+            case STATION:
+                return charger.getStation() != null && key.equals(charger.getStation().getId());
+            case TIER:
+                return key == vehicle.getType();
+            case CHARGER_CLASS:
+                return key == charger.getClass();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Compares this topic to another object for equality.
+     * Two topics are equal if they select the same recharges.
+     *
+     * @param obj The object to compare with.
+     * @return {@code true} if both topics are equal.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RechargeTopic)) {
+            return false;
+        }
+        RechargeTopic other = (RechargeTopic) obj;
+        return kind == other.kind && Objects.equals(key, other.key);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of this topic.
+     */
+    @Override
+    public int hashCode()
+    {
+        return 31 * kind.hashCode() + Objects.hashCode(key);
+    }
+
+    /**
+     * @return A description of the topic.
+     */
+    @Override
+    public String toString()
+    {
+        return kind == Kind.ALL ? "ALL" : kind + "=" + (key instanceof Class ? ((Class<?>) key).getSimpleName() : key);
+    }
+}
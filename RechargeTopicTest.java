@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link RechargeTopic}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Matching recharges by charger, station, vehicle tier and charger class.</li>
+ *   <li>Equality of topics and rejection of missing keys.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class RechargeTopicTest
+{
+    /** A standard charger, in station CC00. */
+    private Charger charger;
+
+    /** A standard electric vehicle used in tests. */
+    private ElectricVehicle eVehicle;
+
+    /**
+     * Default constructor for test class RechargeTopicTest.
+     */
+    public RechargeTopicTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        ChargingStation station = new ChargingStation("Cáceres", "CC00", new Location(2, 2));
+        charger = new StandardCharger("CC00_000", 40, 0.25);
+        station.addCharger(charger);
+        eVehicle = new StandardEV(EVCompany.getInstance(), new Location(1, 1), new Location(5, 5), "Tesla Std", "CC12", 50);
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        charger = null;
+        eVehicle = null;
+    }
+
+    /**
+     * Tests that each kind of topic matches the recharges it selects.
+     */
+    @Test
+    public void testMatches()
+    {
+        assertTrue(RechargeTopic.all().matches(eVehicle, charger));
+        assertTrue(RechargeTopic.charger("CC00_000").matches(eVehicle, charger));
+        assertFalse(RechargeTopic.charger("CC00_001").matches(eVehicle, charger));
+        assertTrue(RechargeTopic.station("CC00").matches(eVehicle, charger));
+        assertFalse(RechargeTopic.station("CC00").matches(eVehicle, new StandardCharger("X", 40, 0.25)));
+        assertTrue(RechargeTopic.tier(VehicleTier.STANDARD).matches(eVehicle, charger));
+        assertFalse(RechargeTopic.tier(VehicleTier.VTC).matches(eVehicle, charger));
+        assertTrue(RechargeTopic.chargerClass(StandardCharger.class).matches(eVehicle, charger));
+        assertFalse(RechargeTopic.chargerClass(SolarCharger.class).matches(eVehicle, charger));
+    }
+
+    /**
+     * Tests that topics selecting the same recharges are equal and that topics need a key.
+     */
+    @Test
+    public void testEqualsAndInvalid()
+    {
+        assertEquals(RechargeTopic.station("CC00"), RechargeTopic.station("CC00"));
+        assertEquals(RechargeTopic.station("CC00").hashCode(), RechargeTopic.station("CC00").hashCode());
+        assertNotEquals(RechargeTopic.station("CC00"), RechargeTopic.charger("CC00"));
+        assertEquals("STATION=CC00", RechargeTopic.station("CC00").toString());
+        assertThrows(NullPointerException.class, () -> RechargeTopic.charger(null));
+        assertThrows(NullPointerException.class, () -> RechargeTopic.tier(null));
+    }
+}
@@ -0,0 +1,399 @@
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of simulation worlds of any size.
+ * <p>
+ * Unlike the fixed scenarios of {@link DemoType}, the generator is configured
+ * with the size of the grid, the number of vehicles, stations and chargers per
+ * station, the proportion of each {@link VehicleTier} and the spatial
+ * {@link Distribution} of stations and vehicles. The same seed and parameters
+ * always produce the same world.
+ * </p>
+ * <p>
+ * {@link #populate(EVCompany)} streams the stations and vehicles straight into
+ * an {@link EVCompany} as they are generated, without building intermediate
+ * lists, so worlds with hundreds of thousands of vehicles can be created for
+ * load tests.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class ScenarioGenerator
+{
+    /**
+     * Spatial distribution of the generated locations.
+     */
+    public enum Distribution
+    {
+        /** Every cell of the grid is equally likely. */
+        UNIFORM,
+        /** Locations are concentrated around a few random hotspots. */
+        CLUSTERED
+    }
+
+    /** Name of the city of the generated stations. */
+    public static final String CITY = "Cáceres";
+    /** Minimum battery capacity of a generated vehicle, in kWh. */
+    public static final int MIN_BATTERY = 20;
+    /** Maximum battery capacity of a generated vehicle, in kWh. */
+    public static final int MAX_BATTERY = 120;
+
+    /** Attempts to find a free cell around a hotspot before using a uniform cell. */
+    private static final int CLUSTER_ATTEMPTS = 32;
+
+    private long seed;
+    private int width;
+    private int height;
+    private int numVehicles;
+    private int numStations;
+    private int numChargersPerStation;
+    /** Accumulated weights of the tiers, indexed by ordinal. */
+    private int[] tierThresholds;
+    private Distribution distribution;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param seed The seed of the random generator.
+     * @param width The number of columns of the grid; x coordinates go from 0 to {@code width - 1}.
+     * @param height The number of rows of the grid; y coordinates go from 0 to {@code height - 1}.
+     * @param numVehicles The number of vehicles to create.
+     * @param numStations The number of stations to create. Must not exceed the number of cells.
+     * @param numChargersPerStation The number of chargers of each station.
+     * @param tierMix The relative weight of each tier; missing tiers get no vehicles.
+     * @param distribution The spatial distribution of stations and vehicles.
+     * @throws NullPointerException If {@code tierMix} or {@code distribution} is {@code null}.
+     * @throws IllegalArgumentException If a size or count is out of range, or the tier weights are negative or add up to 0.
+     */
+    public ScenarioGenerator(long seed, int width, int height, int numVehicles, int numStations,
+                             int numChargersPerStation, Map<VehicleTier, Integer> tierMix, Distribution distribution)
+    {
+        if (tierMix == null) {
+            throw new NullPointerException("ScenarioGenerator need a tier mix");
+        }
+        if (distribution == null) {
+            throw new NullPointerException("ScenarioGenerator need a distribution");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Size of the grid must be positive");
+        }
+        if (numVehicles < 0 || numStations < 0 || numChargersPerStation < 0) {
+            throw new IllegalArgumentException("Number of vehicles, stations and chargers must not be negative");
+        }
+        if (numStations > (long) width * height) {
+            throw new IllegalArgumentException("Number of stations must not exceed the number of cells");
+        }
+        this.tierThresholds = new int[VehicleTier.numTiers()];
+        int total = 0;
+        for (VehicleTier tier : VehicleTier.values()) {
+            Integer weight = tierMix.get(tier);
+            if (weight != null && weight < 0) {
+                throw new IllegalArgumentException("Weight of tier " + tier + " must not be negative");
+            }
+            total += (weight == null) ? 0 : weight;
+            tierThresholds[tier.ordinal()] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Tier mix must have a positive weight");
+        }
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.numVehicles = numVehicles;
+        this.numStations = numStations;
+        this.numChargersPerStation = numChargersPerStation;
+        this.distribution = distribution;
+    }
+
+    /**
+     * Creates a generator with the counts of a {@link DemoType} over the grid of
+     * {@link EVDemo}, every tier with the same weight and a uniform distribution.
+     *
+     * @param demo The demo whose counts are used.
+     * @param seed The seed of the random generator.
+     * @return The generator.
+     */
+    public static ScenarioGenerator fromDemo(DemoType demo, long seed)
+    {
+        return new ScenarioGenerator(seed, EVDemo.MAXX, EVDemo.MAXY, demo.getNumVehiclesToCreate(),
+            demo.getNumStationsToCreate(), demo.getNumChargersToCreate(), evenTierMix(), Distribution.UNIFORM);
+    }
+
+    /**
+     * @return A tier mix that gives every {@link VehicleTier} the same weight.
+     */
+    public static Map<VehicleTier, Integer> evenTierMix()
+    {
+        Map<VehicleTier, Integer> mix = new EnumMap<>(VehicleTier.class);
+        for (VehicleTier tier : VehicleTier.values()) {
+            mix.put(tier, 1);
+        }
+        return mix;
+    }
+
+    // -------------------------------------------------
+    // -------------------- Getters --------------------
+    // -------------------------------------------------
+
+    /**
+     * @return The seed of the random generator.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return The number of columns of the grid.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return The number of rows of the grid.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * @return The number of vehicles to create.
+     */
+    public int getNumVehicles()
+    {
+        return numVehicles;
+    }
+
+    /**
+     * @return The number of stations to create.
+     */
+    public int getNumStations()
+    {
+        return numStations;
+    }
+
+    /**
+     * @return The number of chargers of each station.
+     */
+    public int getNumChargersPerStation()
+    {
+        return numChargersPerStation;
+    }
+
+    /**
+     * @return The spatial distribution of stations and vehicles.
+     */
+    public Distribution getDistribution()
+    {
+        return distribution;
+    }
+
+    // ------------------------------------------------
+    // ------------------ Generation ------------------
+    // ------------------------------------------------
+
+    /**
+     * Generates the world and adds it to a company: first the stations with
+     * their chargers, then the vehicles with their routes already calculated.
+     * <p>
+     * The company is not reset; the generated stations and vehicles are added to
+     * the ones it already manages.
+     * </p>
+     *
+     * @param company The company that receives the world.
+     * @throws NullPointerException If {@code company} is {@code null}.
+     */
+    public void populate(EVCompany company)
+    {
+        if (company == null) {
+            throw new NullPointerException("ScenarioGenerator need a company");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom vehicleRandom = random.split(); //los vehículos no dependen del número de estaciones
+        long[] hotspots = createHotspots(random);
+
+        Set<Long> usedCells = new HashSet<>();
+        for (int i = 0; i < numStations; i++) {
+            Location location = Location.ofPacked(stationCell(random, hotspots, usedCells));
+            ChargingStation station = new ChargingStation(CITY, stationId(i), location);
+            for (int j = 0; j < numChargersPerStation; j++) {
+                station.addCharger(createCharger(random, station.getId() + "_" + j));
+            }
+            station.orderList();
+            company.addChargingStation(station);
+        }
+
+        for (int i = 0; i < numVehicles; i++) {
+            ElectricVehicle ev = createVehicle(vehicleRandom, hotspots, company, i);
+            ev.calculateRoute();
+            company.addElectricVehicle(ev);
+        }
+    }
+
+    /**
+     * @param index The index of the station.
+     * @return The id of the station; ids are zero-padded so they sort in creation order.
+     */
+    public static String stationId(int index)
+    {
+        return String.format("ST%06d", index);
+    }
+
+    // ------------------------------------------------
+    // -------------------- Others --------------------
+    // ------------------------------------------------
+
+    /**
+     * Chooses the hotspots of a clustered distribution: roughly the square root
+     * of the number of stations, and at least one.
+     *
+     * @param random The random generator.
+     * @return The packed locations of the hotspots, empty for a uniform distribution.
+     */
+    private long[] createHotspots(SplittableRandom random)
+    {
+        if (distribution != Distribution.CLUSTERED) {
+            return new long[0];
+        }
+        long[] hotspots = new long[Math.max(1, (int) Math.sqrt(numStations))];
+        for (int i = 0; i < hotspots.length; i++) {
+            hotspots[i] = uniformCell(random);
+        }
+        return hotspots;
+    }
+
+    /**
+     * Picks a cell for a station that no other generated station occupies.
+     *
+     * @param random The random generator.
+     * @param hotspots The hotspots of the distribution.
+     * @param usedCells The packed cells already taken; the chosen cell is added to it.
+     * @return The packed chosen cell.
+     */
+    private long stationCell(SplittableRandom random, long[] hotspots, Set<Long> usedCells)
+    {
+        for (int attempt = 0; attempt < CLUSTER_ATTEMPTS; attempt++) {
+            long cell = cell(random, hotspots);
+            if (usedCells.add(cell)) {
+                return cell;
+            }
+        }
+        //zona saturada: se recorre la rejilla desde una celda aleatoria hasta encontrar una libre
+        long cells = (long) width * height;
+        long start = random.nextLong(cells);
+        for (long k = 0; k < cells; k++) {
+            long index = (start + k) % cells;
+            long cell = Location.pack((int) (index % width), (int) (index / width));
+            if (usedCells.add(cell)) {
+                return cell;
+            }
+        }
+        throw new IllegalStateException("No free cell for a station"); //imposible: se valida en el constructor
+    }
+
+    /**
+     * Creates a charger of a random type, speed and fee, in the ranges used by {@link EVDemo}.
+     *
+     * @param random The random generator.
+     * @param id The id of the charger.
+     * @return The charger.
+     */
+    private Charger createCharger(SplittableRandom random, String id)
+    {
+        int speed = (random.nextInt(6) + 1) * 20;
+        double fee = (random.nextInt(4) + 1) * 0.20f;
+        switch (random.nextInt(4)) {
+            case 0: return new SolarCharger(id, speed, fee);
+            case 1: return new UltraFastCharger(id, speed, fee);
+            case 2: return new PriorityCharger(id, speed, fee);
+            default: return new StandardCharger(id, speed, fee);
+        }
+    }
+
+    /**
+     * Creates a vehicle of a tier drawn from the tier mix.
+     * {@link VehicleTier#DELIVERY} vehicles are {@link StandardEV}s, as in {@link EVDemo}.
+     *
+     * @param random The random generator.
+     * @param hotspots The hotspots of the distribution.
+     * @param company The company of the vehicle.
+     * @param index The index of the vehicle, used for its name and plate.
+     * @return The vehicle.
+     */
+    private ElectricVehicle createVehicle(SplittableRandom random, long[] hotspots, EVCompany company, int index)
+    {
+        Location location = Location.ofPacked(cell(random, hotspots));
+        Location target = Location.ofPacked(cell(random, hotspots));
+        int battery = MIN_BATTERY + random.nextInt(MAX_BATTERY - MIN_BATTERY + 1);
+        String name = "EV" + index;
+        String plate = index + "CCC";
+        switch (tier(random)) {
+            case PRIORITY: return new PriorityEV(company, location, target, name, plate, battery);
+            case VTC: return new VtcEV(company, location, target, name, plate, battery);
+            case PREMIUM: return new PremiumEV(company, location, target, name, plate, battery);
+            default: return new StandardEV(company, location, target, name, plate, battery);
+        }
+    }
+
+    /**
+     * @param random The random generator.
+     * @return A tier drawn according to the weights of the tier mix.
+     */
+    private VehicleTier tier(SplittableRandom random)
+    {
+        int value = random.nextInt(tierThresholds[tierThresholds.length - 1]);
+        VehicleTier[] tiers = VehicleTier.values();
+        for (int i = 0; i < tiers.length; i++) {
+            if (value < tierThresholds[i]) {
+                return tiers[i];
+            }
+        }
+        return tiers[tiers.length - 1];
+    }
+
+    /**
+     * Picks a cell according to the distribution.
+     *
+     * @param random The random generator.
+     * @param hotspots The hotspots of the distribution.
+     * @return The packed cell.
+     */
+    private long cell(SplittableRandom random, long[] hotspots)
+    {
+        if (hotspots.length == 0) {
+            return uniformCell(random);
+        }
+        long hotspot = hotspots[random.nextInt(hotspots.length)];
+        double spread = Math.max(1.0, Math.min(width, height) / 16.0);
+        int x = clamp((int) Math.round(Location.unpackX(hotspot) + random.nextGaussian() * spread), width);
+        int y = clamp((int) Math.round(Location.unpackY(hotspot) + random.nextGaussian() * spread), height);
+        return Location.pack(x, y);
+    }
+
+    /**
+     * @param random The random generator.
+     * @return A packed cell chosen uniformly over the grid.
+     */
+    private long uniformCell(SplittableRandom random)
+    {
+        return Location.pack(random.nextInt(width), random.nextInt(height));
+    }
+
+    /**
+     * @param value A coordinate.
+     * @param size The size of the grid in that axis.
+     * @return The coordinate limited to the range {@code [0, size - 1]}.
+     */
+    private static int clamp(int value, int size)
+    {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
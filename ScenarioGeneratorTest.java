@@ -0,0 +1,158 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class for the {@link ScenarioGenerator} class.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Reproducibility of the generated world for the same seed.</li>
+ *   <li>Counts, bounds and unique station cells of the generated world.</li>
+ *   <li>Vehicle tiers following the tier mix.</li>
+ *   <li>Validation of the parameters.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class ScenarioGeneratorTest
+{
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /**
+     * Default constructor for test class ScenarioGeneratorTest.
+     */
+    public ScenarioGeneratorTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+        company.reset();
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        company.reset();
+        company = null;
+    }
+
+    /**
+     * Builds a textual description of every station and vehicle of the company.
+     *
+     * @return The description.
+     */
+    private List<String> describeWorld()
+    {
+        List<String> world = new ArrayList<>();
+        for (ChargingStation station : company.getCityStations()) {
+            world.add(station.getCompleteInfo());
+        }
+        for (ElectricVehicle ev : company.getVehicles()) {
+            world.add(ev.toString());
+        }
+        return world;
+    }
+
+    /**
+     * Tests that the same seed produces the same world and a different seed a different one.
+     */
+    @Test
+    public void testSameSeedSameWorld()
+    {
+        ScenarioGenerator generator = new ScenarioGenerator(42, 200, 150, 500, 60, 3,
+            ScenarioGenerator.evenTierMix(), ScenarioGenerator.Distribution.CLUSTERED);
+        generator.populate(company);
+        List<String> first = describeWorld();
+
+        company.reset();
+        generator.populate(company);
+        assertEquals(first, describeWorld());
+
+        company.reset();
+        new ScenarioGenerator(43, 200, 150, 500, 60, 3,
+            ScenarioGenerator.evenTierMix(), ScenarioGenerator.Distribution.CLUSTERED).populate(company);
+        assertNotEquals(first, describeWorld());
+    }
+
+    /**
+     * Tests the counts and bounds of a generated world, and that no two stations share a cell.
+     */
+    @Test
+    public void testWorldShape()
+    {
+        new ScenarioGenerator(7, 30, 10, 1000, 250, 4,
+            ScenarioGenerator.evenTierMix(), ScenarioGenerator.Distribution.CLUSTERED).populate(company);
+
+        assertEquals(250, company.getNumberOfStations());
+        assertEquals(1000, company.getVehicles().size());
+        Set<Location> cells = new HashSet<>();
+        for (ChargingStation station : company.getCityStations()) {
+            assertEquals(4, station.getChargers().size());
+            assertTrue(cells.add(station.getLocation()));
+            assertTrue(station.getLocation().getX() < 30 && station.getLocation().getY() < 10);
+            assertSame(station, company.getChargingStation(station.getLocation()));
+        }
+        for (ElectricVehicle ev : company.getVehicles()) {
+            assertTrue(ev.getLocation().getX() < 30 && ev.getLocation().getY() < 10);
+            assertTrue(ev.getTargetLocation().getX() < 30 && ev.getTargetLocation().getY() < 10);
+            assertTrue(ev.getBatteryCapacity() >= ScenarioGenerator.MIN_BATTERY);
+            assertTrue(ev.getBatteryCapacity() <= ScenarioGenerator.MAX_BATTERY);
+        }
+    }
+
+    /**
+     * Tests that only the tiers with a positive weight get vehicles.
+     */
+    @Test
+    public void testTierMix()
+    {
+        Map<VehicleTier, Integer> mix = new EnumMap<>(VehicleTier.class);
+        mix.put(VehicleTier.PREMIUM, 3);
+        mix.put(VehicleTier.VTC, 1);
+        new ScenarioGenerator(1, 50, 50, 400, 10, 2, mix, ScenarioGenerator.Distribution.UNIFORM).populate(company);
+
+        int premium = 0;
+        for (ElectricVehicle ev : company.getVehicles()) {
+            assertTrue(ev.getType() == VehicleTier.PREMIUM || ev.getType() == VehicleTier.VTC);
+            if (ev.getType() == VehicleTier.PREMIUM) {
+                premium++;
+            }
+        }
+        assertTrue(premium > 200 && premium < 400);
+    }
+
+    /**
+     * Tests that invalid parameters are rejected.
+     */
+    @Test
+    public void testInvalidParameters()
+    {
+        Map<VehicleTier, Integer> mix = ScenarioGenerator.evenTierMix();
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 0, 10, 1, 1, 1, mix, ScenarioGenerator.Distribution.UNIFORM));
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 2, 2, 1, 5, 1, mix, ScenarioGenerator.Distribution.UNIFORM));
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 2, 2, 1, 1, 1, new EnumMap<>(VehicleTier.class), ScenarioGenerator.Distribution.UNIFORM));
+        assertThrows(NullPointerException.class, () -> new ScenarioGenerator(1, 2, 2, 1, 1, 1, mix, null));
+    }
+}
@@ -0,0 +1,528 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkpoint of the complete state of a simulation in a compact binary file.
+ * <p>
+ * {@link #save(EVCompany, int, Path)} writes every vehicle of a company, its
+ * stations with their chargers (including the history of recharges, the amount
+ * collected and the kWh delivered) and the charges registry. {@link #load(Path, EVCompany)}
+ * rebuilds that world in a company, without creating the scenario again or
+ * calculating any route, so a long run can resume from the saved step.
+ * </p>
+ * <p>
+ * The file is little-endian. After a header (magic number, version, step and
+ * counts) come the vehicles, the columns of the {@link FleetStore} of the
+ * company, one after another, the stations and their chargers and the
+ * registry. Vehicles are referenced by their row in the fleet and chargers by
+ * their position in the stations, so the file holds no object references.
+ * The fleet columns and the columns of the recharge histories are written and
+ * read with bulk operations, and the whole file is read with a single call.
+ * </p>
+ * <p>
+ * The file is first written next to its destination and then moved over it,
+ * so a crash while saving leaves the previous checkpoint intact. Observers of
+ * the company are not saved, and neither are its {@link ChargingSessions}: a
+ * world can only be saved while no session is in progress and no vehicle is
+ * waiting for a charger, and the sessions must be set again after loading.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class SimulationCheckpoint
+{
+    /** Magic number at the start of every checkpoint ("EVC1"). */
+    public static final int MAGIC = 0x45564331;
+    /** Version of the file layout. */
+    public static final int VERSION = 4;
+
+    /** Charger classes that can be saved, by their code in the file. */
+    private static final List<Class<?>> CHARGER_KINDS = List.of(
+        StandardCharger.class, SolarCharger.class, UltraFastCharger.class, PriorityCharger.class);
+    /** Vehicle classes that can be saved, by their code in the file. */
+    private static final List<Class<?>> VEHICLE_KINDS = List.of(
+        StandardEV.class, PremiumEV.class, VtcEV.class, PriorityEV.class);
+
+    /** Buffer being written. */
+    private ByteBuffer buffer;
+
+    /**
+     * Constructs a checkpoint writer with an empty buffer.
+     */
+    private SimulationCheckpoint()
+    {
+        this.buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Saves the state of the world of a company.
+     *
+     * @param company The company. Must not be {@code null}.
+     * @param step The step the simulation will resume from.
+     * @param path The path of the checkpoint file. An existing file is replaced. Must not be {@code null}.
+     * @throws NullPointerException If {@code company} or {@code path} is {@code null}.
+     * @throws IllegalArgumentException If the world has a charger or vehicle of an unknown class, a charger
+     *                                  type that is not a {@link VehicleTier}, or a recharged vehicle that is
+     *                                  not part of the fleet of the company.
+     * @throws IllegalStateException If the company has charging sessions in progress or vehicles waiting for a charger.
+     * @throws UncheckedIOException If the file cannot be written.
+     */
+    public static void save(EVCompany company, int step, Path path)
+    {
+        if (company == null) {
+            throw new NullPointerException("SimulationCheckpoint need a company");
+        }
+        if (path == null) {
+            throw new NullPointerException("SimulationCheckpoint need a path");
+        }
+        ChargingSessions sessions = company.getChargingSessions();
+        if (sessions != null && (sessions.getActiveSessions() > 0 || sessions.getWaitingCount() > 0)) {
+            throw new IllegalStateException("SimulationCheckpoint cannot save a world with charging sessions in progress"); //sus cargadores quedarían ocupados
+        }
+        new SimulationCheckpoint().write(company, step, path);
+    }
+
+    /**
+     * Saves the state of the world of a company to be replayed by a {@link SimulationReplay},
+     * even with charging sessions in progress: the chargers they occupy are saved as busy and
+     * the sessions are not saved, since a replay does not run them.
+     *
+     * @param company The company.
+     * @param step The step whose start the checkpoint represents.
+     * @param path The path of the checkpoint file. An existing file is replaced.
+     * @throws IllegalArgumentException If the world cannot be saved (see {@link #save(EVCompany, int, Path)}).
+     * @throws UncheckedIOException If the file cannot be written.
+     */
+    static void saveForReplay(EVCompany company, int step, Path path)
+    {
+        new SimulationCheckpoint().write(company, step, path);
+    }
+
+    /**
+     * Replaces the world of a company with the one saved in a checkpoint.
+     * The company is reset first, so its observers and charging sessions must be added again afterwards.
+     *
+     * @param path The path of the checkpoint file. Must not be {@code null}.
+     * @param company The company. Must not be {@code null}.
+     * @return The step the simulation resumes from.
+     * @throws NullPointerException If {@code path} or {@code company} is {@code null}.
+     * @throws IllegalArgumentException If the file is not a checkpoint of a known version.
+     * @throws UncheckedIOException If the file cannot be read.
+     */
+    public static int load(Path path, EVCompany company)
+    {
+        if (path == null) {
+            throw new NullPointerException("SimulationCheckpoint need a path");
+        }
+        if (company == null) {
+            throw new NullPointerException("SimulationCheckpoint need a company");
+        }
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(path + " is too large for a checkpoint");
+            }
+            in = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (in.hasRemaining() && channel.read(in) >= 0) {
+                //lectura en bloque del fichero entero
+            }
+            in.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the checkpoint " + path, e);
+        }
+        if (in.remaining() < 3 * Integer.BYTES || in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IllegalArgumentException(path + " is not a checkpoint of version " + VERSION);
+        }
+        try {
+            return read(in, company);
+        } catch (RuntimeException e) {
+            company.reset(); //no se deja un mundo a medias
+            throw new IllegalArgumentException(path + " is not a valid checkpoint", e);
+        }
+    }
+
+    // ------------------------------------------------
+    // -------------------- Saving --------------------
+    // ------------------------------------------------
+
+    /**
+     * Writes the world of a company to a file.
+     *
+     * @param company The company.
+     * @param step The step the simulation will resume from.
+     * @param path The path of the checkpoint file.
+     */
+    private void write(EVCompany company, int step, Path path)
+    {
+        FleetStore fleet = company.getFleet();
+        List<Charger> chargers = WorldSnapshot.chargersOf(company);
+        Map<Charger, Integer> chargerIndex = new HashMap<>();
+        for (Charger charger : chargers) {
+            chargerIndex.put(charger, chargerIndex.size());
+        }
+        Map<Charger, List<ElectricVehicle>> registry = company.getChargesRegistry();
+
+        ensure(7 * Integer.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(step);
+        buffer.putInt(company.getNumberOfStations()).putInt(chargers.size()).putInt(fleet.size()).putInt(registry.size());
+        for (int row = 0; row < fleet.size(); row++) { //en el orden de sus filas
+            ElectricVehicle vehicle = fleet.getVehicle(row);
+            ensure(Integer.BYTES);
+            buffer.putInt(kind(VEHICLE_KINDS, vehicle));
+            putString(vehicle.getName());
+            putString(vehicle.getPlate());
+        }
+        ensure(fleet.columnsSize());
+        fleet.writeColumns(buffer);
+        for (ChargingStation station : company.getCityStations()) {
+            putString(station.getId());
+            putString(station.getCity());
+            ensure(Long.BYTES + Integer.BYTES);
+            buffer.putLong(FleetStore.pack(station.getLocation())).putInt(station.getChargers().size());
+            for (Charger charger : station.getChargers()) {
+                putCharger(charger, fleet);
+            }
+        }
+        for (Map.Entry<Charger, List<ElectricVehicle>> entry : registry.entrySet()) {
+            Integer index = chargerIndex.get(entry.getKey());
+            if (index == null) {
+                throw new IllegalArgumentException("Charger " + entry.getKey().getId() + " of the registry is not in any station");
+            }
+            ensure(Integer.BYTES);
+            buffer.putInt(index);
+            putRows(entry.getValue(), fleet);
+        }
+        buffer.flip();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the checkpoint " + path, e);
+        }
+    }
+
+    /**
+     * Writes a charger: class, id, speed, fee, amount collected, kWh delivered,
+     * availability, supported tiers and history of recharges.
+     *
+     * @param charger The charger.
+     * @param fleet The fleet whose rows identify the vehicles.
+     */
+    private void putCharger(Charger charger, FleetStore fleet)
+    {
+        ensure(Integer.BYTES);
+        buffer.putInt(kind(CHARGER_KINDS, charger));
+        putString(charger.getId());
+        ensure(2 * Integer.BYTES + 2 * Double.BYTES + 1 + Integer.BYTES + VehicleTier.numTiers());
+        buffer.putInt(charger.getChargingSpeed()).putDouble(charger.getChargingFee()).putDouble(charger.getAmountCollected());
+        buffer.putInt(charger.getKwsRecharged());
+        buffer.put((byte) (charger.getFree() ? 1 : 0));
+        List<VehicleTier> tiers = new ArrayList<>();
+        for (VehicleTier tier : VehicleTier.values()) {
+            if (charger.compareType(tier)) {
+                tiers.add(tier);
+            }
+        }
+        if (tiers.size() != charger.types.size()) {
+            throw new IllegalArgumentException("Charger " + charger.getId() + " supports a type that is not a VehicleTier");
+        }
+        buffer.putInt(tiers.size());
+        for (VehicleTier tier : tiers) {
+            buffer.put((byte) tier.ordinal());
+        }
+        putHistory(charger.getHistory(), fleet);
+    }
+
+    /**
+     * Writes a history of recharges: capacity, total recharges and the columns
+     * of the retained ones (vehicle rows, kWh, cost and step).
+     *
+     * @param history The history.
+     * @param fleet The fleet whose rows identify the vehicles.
+     */
+    private void putHistory(RechargeHistory history, FleetStore fleet)
+    {
+        int size = history.size();
+        ensure(2 * Integer.BYTES);
+        buffer.putInt(history.getCapacity()).putInt(history.getTotal());
+        putRows(history.vehicles(), fleet);
+        int[] kws = new int[size];
+        double[] costs = new double[size];
+        int[] steps = new int[size];
+        for (int i = 0; i < size; i++) {
+            kws[i] = history.getKws(i);
+            costs[i] = history.getCost(i);
+            steps[i] = history.getStep(i);
+        }
+        ensure((long) size * (2 * Integer.BYTES + Double.BYTES));
+        buffer.asIntBuffer().put(kws);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        buffer.asDoubleBuffer().put(costs);
+        buffer.position(buffer.position() + size * Double.BYTES);
+        buffer.asIntBuffer().put(steps);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+    }
+
+    /**
+     * Writes a list of vehicles as their number followed by their rows.
+     *
+     * @param vehicles The vehicles.
+     * @param fleet The fleet whose rows identify the vehicles.
+     */
+    private void putRows(List<ElectricVehicle> vehicles, FleetStore fleet)
+    {
+        int[] rows = new int[vehicles.size()];
+        for (int i = 0; i < rows.length; i++) {
+            ElectricVehicle vehicle = vehicles.get(i);
+            if (vehicle.getFleet() != fleet) {
+                throw new IllegalArgumentException("Vehicle " + vehicle.getPlate() + " is not in the fleet of the company");
+            }
+            rows[i] = vehicle.getRow();
+        }
+        ensure(Integer.BYTES * (1L + rows.length));
+        buffer.putInt(rows.length);
+        buffer.asIntBuffer().put(rows);
+        buffer.position(buffer.position() + rows.length * Integer.BYTES);
+    }
+
+    /**
+     * Writes a string as its length in bytes followed by its UTF-8 bytes.
+     *
+     * @param text The string.
+     */
+    private void putString(String text)
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensure(Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    /**
+     * Makes room in the buffer, doubling it as needed.
+     *
+     * @param bytes The number of bytes about to be written.
+     */
+    private void ensure(long bytes)
+    {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity - buffer.position() < bytes) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The world is too large for a checkpoint");
+        }
+        buffer.flip();
+        buffer = ByteBuffer.allocate((int) capacity).order(ByteOrder.LITTLE_ENDIAN).put(buffer);
+    }
+
+    /**
+     * @param kinds The classes that can be saved.
+     * @param object A charger or vehicle.
+     * @return The code of the class of the object.
+     * @throws IllegalArgumentException If the class of the object cannot be saved.
+     */
+    private static int kind(List<Class<?>> kinds, Object object)
+    {
+        int code = kinds.indexOf(object.getClass());
+        if (code < 0) {
+            throw new IllegalArgumentException(object.getClass().getName() + " cannot be saved in a checkpoint");
+        }
+        return code;
+    }
+
+    // ------------------------------------------------
+    // ------------------- Loading --------------------
+    // ------------------------------------------------
+
+    /**
+     * Rebuilds the world saved in a buffer.
+     *
+     * @param in The buffer, positioned after the version.
+     * @param company The company.
+     * @return The step the simulation resumes from.
+     */
+    private static int read(ByteBuffer in, EVCompany company)
+    {
+        company.reset();
+        int step = in.getInt();
+        int numStations = in.getInt();
+        int numChargers = in.getInt();
+        int numVehicles = in.getInt();
+        int numRegistry = in.getInt();
+
+        for (int row = 0; row < numVehicles; row++) {
+            int kind = in.getInt();
+            company.addElectricVehicle(newVehicle(kind, company, getString(in), getString(in)));
+        }
+        FleetStore fleet = company.getFleet();
+        fleet.readColumns(in);
+        company.refreshRankings(); //las columnas se han cargado en bloque
+
+        List<Charger> chargers = new ArrayList<>(numChargers);
+        for (int i = 0; i < numStations; i++) {
+            String id = getString(in);
+            String city = getString(in);
+            ChargingStation station = new ChargingStation(city, id, FleetStore.unpack(in.getLong()));
+            int count = in.getInt();
+            for (int c = 0; c < count; c++) {
+                Charger charger = getCharger(in);
+                double collected = in.getDouble();
+                int kws = in.getInt();
+                charger.setFree(in.get() != 0);
+                int tiers = in.getInt();
+                for (int t = 0; t < tiers; t++) {
+                    charger.addType(VehicleTier.values()[in.get()]);
+                }
+                charger.restoreRecharges(getHistory(in, fleet), collected, kws);
+                station.addCharger(charger);
+                chargers.add(charger);
+            }
+            company.addChargingStation(station);
+        }
+
+        Map<Charger, List<ElectricVehicle>> registry = new HashMap<>();
+        for (int i = 0; i < numRegistry; i++) {
+            Charger charger = chargers.get(in.getInt());
+            registry.put(charger, vehicles(getRows(in), fleet));
+        }
+        company.restoreRegistry(registry);
+        return step;
+    }
+
+    /**
+     * Creates a charger from its class, id, speed and fee.
+     *
+     * @param in The buffer.
+     * @return The charger.
+     */
+    private static Charger getCharger(ByteBuffer in)
+    {
+        int kind = in.getInt();
+        String id = getString(in);
+        int speed = in.getInt();
+        double fee = in.getDouble();
+        switch (kind) {
+            case 0: return new StandardCharger(id, speed, fee);
+            case 1: return new SolarCharger(id, speed, fee);
+            case 2: return new UltraFastCharger(id, speed, fee);
+            case 3: return new PriorityCharger(id, speed, fee);
+            default: throw new IllegalArgumentException("Unknown charger class " + kind);
+        }
+    }
+
+    /**
+     * Creates a vehicle whose location and target are the origin, since its
+     * state is overwritten with the saved fleet columns.
+     *
+     * @param kind The code of the class of the vehicle.
+     * @param company The company of the vehicle.
+     * @param name The name of the vehicle.
+     * @param plate The plate of the vehicle.
+     * @return The vehicle.
+     */
+    private static ElectricVehicle newVehicle(int kind, EVCompany company, String name, String plate)
+    {
+        Location origin = new Location(0, 0);
+        switch (kind) {
+            case 0: return new StandardEV(company, origin, origin, name, plate, 1);
+            case 1: return new PremiumEV(company, origin, origin, name, plate, 1);
+            case 2: return new VtcEV(company, origin, origin, name, plate, 1);
+            case 3: return new PriorityEV(company, origin, origin, name, plate, 1);
+            default: throw new IllegalArgumentException("Unknown vehicle class " + kind);
+        }
+    }
+
+    /**
+     * Reads a history of recharges written by {@link #putHistory(RechargeHistory, FleetStore)}.
+     *
+     * @param in The buffer.
+     * @param fleet The fleet whose rows identify the vehicles.
+     * @return The history.
+     */
+    private static RechargeHistory getHistory(ByteBuffer in, FleetStore fleet)
+    {
+        RechargeHistory history = new RechargeHistory(in.getInt());
+        int total = in.getInt();
+        List<ElectricVehicle> vehicles = vehicles(getRows(in), fleet);
+        int size = vehicles.size();
+        int[] kws = new int[size];
+        double[] costs = new double[size];
+        int[] steps = new int[size];
+        in.asIntBuffer().get(kws);
+        in.position(in.position() + size * Integer.BYTES);
+        in.asDoubleBuffer().get(costs);
+        in.position(in.position() + size * Double.BYTES);
+        in.asIntBuffer().get(steps);
+        in.position(in.position() + size * Integer.BYTES);
+        for (int i = 0; i < size; i++) {
+            history.add(vehicles.get(i), kws[i], costs[i], steps[i]);
+        }
+        history.setTotal(total);
+        return history;
+    }
+
+    /**
+     * Reads a list of rows written by {@link #putRows(List, FleetStore)}.
+     *
+     * @param in The buffer.
+     * @return The rows.
+     */
+    private static int[] getRows(ByteBuffer in)
+    {
+        int[] rows = new int[in.getInt()];
+        in.asIntBuffer().get(rows);
+        in.position(in.position() + rows.length * Integer.BYTES);
+        return rows;
+    }
+
+    /**
+     * @param rows Rows of a fleet.
+     * @param fleet The fleet.
+     * @return The vehicles of the rows, in order.
+     */
+    private static List<ElectricVehicle> vehicles(int[] rows, FleetStore fleet)
+    {
+        List<ElectricVehicle> vehicles = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            vehicles.add(fleet.getVehicle(row));
+        }
+        return vehicles;
+    }
+
+    /**
+     * Reads a string written by {@link #putString(String)}.
+     *
+     * @param in The buffer.
+     * @return The string.
+     */
+    private static String getString(ByteBuffer in)
+    {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,204 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for {@link SimulationCheckpoint}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Resuming a run from a checkpoint with the same result as the uninterrupted run.</li>
+ *   <li>Restoring the order of the vehicles and stations of the company.</li>
+ *   <li>Rejection of files that are not checkpoints.</li>
+ *   <li>Refusing to save while charging sessions are in progress.</li>
+ *   <li>Saving without changing the idle counts kept lazily by the fleet store.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class SimulationCheckpointTest
+{
+    /** Step at which the checkpoint is saved. */
+    private static final int SAVED_STEP = 25;
+    /** Last step of the run. */
+    private static final int STEPS = 60;
+
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /** The checkpoint file of each test. */
+    private Path path;
+
+    /**
+     * Default constructor for test class SimulationCheckpointTest.
+     */
+    public SimulationCheckpointTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     * <p>
+     * Generates a world in the company.
+     * </p>
+     */
+    @BeforeEach
+    public void setUp() throws IOException
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+        company.reset();
+        new ScenarioGenerator(5, 25, 25, 40, 6, 4, ScenarioGenerator.evenTierMix(),
+            ScenarioGenerator.Distribution.CLUSTERED).populate(company);
+        path = Files.createTempFile("checkpoint", ".bin");
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(path);
+        company.reset();
+        company = null;
+    }
+
+    /**
+     * Runs steps of the simulation, stepping the vehicles in the order of the company.
+     *
+     * @param from The first step.
+     * @param to The step after the last one.
+     */
+    private void run(int from, int to)
+    {
+        List<ElectricVehicle> vehicles = new ArrayList<>(company.getVehicles());
+        for (int step = from; step < to; step++) {
+            company.advanceChargingSessions(step);
+            for (ElectricVehicle ev : vehicles) {
+                ev.act(step, null);
+            }
+        }
+    }
+
+    /**
+     * Builds a textual description of the vehicles, stations, chargers and charges registry,
+     * in the order the company keeps them.
+     *
+     * @return The description.
+     */
+    private String describeWorld()
+    {
+        StringBuilder world = new StringBuilder();
+        for (ElectricVehicle vehicle : company.getVehicles()) {
+            world.append(vehicle).append(' ').append(vehicle.getRow()).append('\n');
+        }
+        for (ChargingStation station : company.getCityStations()) {
+            world.append(station.getCompleteInfo()).append(station.getFreeCharger()).append(' ')
+                .append(station.getKwsRecharged()).append('\n');
+        }
+        world.append(company.getChargesRegistry());
+        return world.toString();
+    }
+
+    /**
+     * Tests that a run resumed from a checkpoint ends as the uninterrupted run,
+     * with the saved step and the company order restored.
+     */
+    @Test
+    public void testResume()
+    {
+        run(0, SAVED_STEP);
+        String saved = describeWorld();
+        SimulationCheckpoint.save(company, SAVED_STEP, path);
+        run(SAVED_STEP, STEPS);
+        String expected = describeWorld();
+
+        int step = SimulationCheckpoint.load(path, company);
+        assertEquals(SAVED_STEP, step);
+        assertEquals(saved, describeWorld());
+        run(step, STEPS);
+        assertEquals(expected, describeWorld());
+    }
+
+    /**
+     * Tests that saving over an existing checkpoint replaces it.
+     */
+    @Test
+    public void testSaveReplaces()
+    {
+        SimulationCheckpoint.save(company, 0, path);
+        run(0, SAVED_STEP);
+        SimulationCheckpoint.save(company, SAVED_STEP, path);
+        String saved = describeWorld();
+        company.reset();
+        assertEquals(SAVED_STEP, SimulationCheckpoint.load(path, company));
+        assertEquals(saved, describeWorld());
+    }
+
+    /**
+     * Tests that files that are not checkpoints are rejected.
+     */
+    @Test
+    public void testRejectsInvalidFile() throws IOException
+    {
+        Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 });
+        assertThrows(IllegalArgumentException.class, () -> SimulationCheckpoint.load(path, company));
+        assertThrows(NullPointerException.class, () -> SimulationCheckpoint.save(null, 0, path));
+        assertThrows(NullPointerException.class, () -> SimulationCheckpoint.load(null, company));
+    }
+
+    /**
+     * Tests that a world whose charging sessions are in progress is not saved,
+     * since the chargers they occupy would never be released after loading it.
+     */
+    @Test
+    public void testRejectsSessionsInProgress() throws IOException
+    {
+        ChargingSessions sessions = new ChargingSessions();
+        company.setChargingSessions(sessions);
+        SimulationCheckpoint.save(company, 0, path); //sin sesiones en curso se puede guardar
+        long size = Files.size(path);
+
+        int step = 0;
+        while (sessions.getActiveSessions() == 0 && step < STEPS) {
+            run(step, step + 1);
+            step++;
+        }
+        assertTrue(sessions.getActiveSessions() > 0);
+        int resume = step;
+        assertThrows(IllegalStateException.class, () -> SimulationCheckpoint.save(company, resume, path));
+        assertEquals(size, Files.size(path));
+        assertEquals(0, SimulationCheckpoint.load(path, company));
+        assertNull(company.getChargingSessions());
+    }
+
+    /**
+     * Tests that saving a checkpoint writes the idle counts kept lazily by the
+     * fleet store without settling them in the live store.
+     */
+    @Test
+    public void testSaveKeepsLazyIdleCounts()
+    {
+        FleetStore fleet = company.getFleet();
+        fleet.setIdleCount(0, 3);
+        fleet.setIdleSince(0, 10);
+        fleet.setClock(SAVED_STEP);
+        SimulationCheckpoint.save(company, SAVED_STEP, path);
+        assertEquals(10, fleet.getIdleSince(0));
+        assertEquals(SAVED_STEP, fleet.getClock());
+
+        company.reset();
+        SimulationCheckpoint.load(path, company);
+        assertEquals(3 + SAVED_STEP - 10, company.getFleet().getIdleCount(0));
+    }
+}
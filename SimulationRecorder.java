@@ -0,0 +1,162 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records a simulation run so that it can be replayed with a {@link SimulationReplay}.
+ * <p>
+ * Step events are appended to an {@link EventJournal}, and every
+ * {@code snapshotInterval} steps the world of the company is saved in a
+ * {@link SimulationCheckpoint} file next to the journal, named after the
+ * journal and the step (see {@link #checkpointPath(Path, int)}). The run can
+ * then be replayed from the files alone, also by another process.
+ * {@link #beginStep(int)} must be called before the vehicles act in each step.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class SimulationRecorder implements StepEventSink, AutoCloseable
+{
+    /** Default number of steps between snapshots. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100;
+
+    /** Extension of the checkpoint files of a recorded run. */
+    private static final String CHECKPOINT_EXTENSION = ".checkpoint";
+
+    private EVCompany company;
+    private EventJournal journal;
+    private int snapshotInterval;
+    /** Steps of the checkpoints saved so far, in order. */
+    private List<Integer> checkpointSteps;
+
+    /**
+     * Constructs a recorder.
+     *
+     * @param company The company whose world is recorded. Must not be {@code null}.
+     * @param journal The path of the journal of the run.
+     * @param snapshotInterval The number of steps between snapshots. Must be positive.
+     * @throws NullPointerException If {@code company} or {@code journal} is {@code null}.
+     * @throws IllegalArgumentException If {@code snapshotInterval} is not positive.
+     * @throws UncheckedIOException If the journal cannot be created, or the checkpoints of an earlier
+     *                              recording with the same journal cannot be deleted.
+     */
+    public SimulationRecorder(EVCompany company, Path journal, int snapshotInterval)
+    {
+        if (company == null) {
+            throw new NullPointerException("SimulationRecorder need a company");
+        }
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval of SimulationRecorder must be positive");
+        }
+        this.company = company;
+        this.journal = new EventJournal(journal);
+        this.snapshotInterval = snapshotInterval;
+        this.checkpointSteps = new ArrayList<>();
+        try {
+            for (int step : checkpointSteps(journal)) { //los de una grabación anterior con el mismo diario
+                Files.deleteIfExists(checkpointPath(journal, step));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete the old checkpoints of " + journal, e);
+        }
+    }
+
+    /**
+     * @param journal The path of a journal file.
+     * @param step A step.
+     * @return The path of the checkpoint of the world at the start of the step.
+     */
+    public static Path checkpointPath(Path journal, int step)
+    {
+        return journal.resolveSibling(journal.getFileName() + "." + step + CHECKPOINT_EXTENSION);
+    }
+
+    /**
+     * Finds the checkpoints saved next to a journal.
+     *
+     * @param journal The path of a journal file.
+     * @return The steps of its checkpoints, in order.
+     * @throws UncheckedIOException If the directory of the journal cannot be read.
+     */
+    public static List<Integer> checkpointSteps(Path journal)
+    {
+        String prefix = journal.getFileName() + ".";
+        Path directory = journal.toAbsolutePath().getParent();
+        List<Integer> steps = new ArrayList<>();
+        DirectoryStream.Filter<Path> ofJournal = file -> file.getFileName().toString().startsWith(prefix)
+            && file.getFileName().toString().endsWith(CHECKPOINT_EXTENSION);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, ofJournal)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String step = name.substring(prefix.length(), name.length() - CHECKPOINT_EXTENSION.length());
+                try {
+                    steps.add(Integer.parseInt(step));
+                } catch (NumberFormatException e) {
+                    //no es un punto de control de este diario
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list the checkpoints of " + journal, e);
+        }
+        Collections.sort(steps);
+        return steps;
+    }
+
+    /**
+     * @return The steps of the checkpoints saved so far, in order.
+     */
+    public List<Integer> getCheckpointSteps()
+    {
+        return Collections.unmodifiableList(checkpointSteps);
+    }
+
+    /**
+     * @return The path of the journal of the run.
+     */
+    public Path getJournalPath()
+    {
+        return journal.getPath();
+    }
+
+    /**
+     * Informs the recorder that a step is about to start, so that it flushes the
+     * journal and saves a checkpoint when the step is a multiple of the interval.
+     *
+     * @param step The step that starts.
+     * @throws UncheckedIOException If the journal or the checkpoint cannot be written.
+     */
+    public void beginStep(int step)
+    {
+        if (step % snapshotInterval == 0) {
+            journal.flush(); //el diario en disco llega hasta el punto de control
+            SimulationCheckpoint.saveForReplay(company, step, checkpointPath(journal.getPath(), step));
+            checkpointSteps.add(step);
+        }
+    }
+
+    /**
+     * Appends an event to the journal.
+     *
+     * @param event The event.
+     */
+    @Override
+    public void onStepEvent(StepEvent event)
+    {
+        journal.onStepEvent(event);
+    }
+
+    /**
+     * Closes the journal. The checkpoint files are kept.
+     */
+    @Override
+    public void close()
+    {
+        journal.close();
+    }
+}
@@ -0,0 +1,205 @@
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds the state of a recorded simulation run at any step.
+ * <p>
+ * The run must have been recorded with a {@link SimulationRecorder}, and is
+ * read from its journal and the checkpoint files saved next to it, so it can
+ * be replayed by another process. To reach a step, the replay loads the
+ * closest earlier checkpoint into the company and applies the journaled events
+ * from that checkpoint on: status events set the location,
+ * battery and recharging location of the vehicle, and recharge events repeat
+ * the recharge at the journaled charger. The routing of
+ * {@link ElectricVehicle#act(int)} is never executed, so seeking costs at most
+ * the events of one snapshot interval. The last checkpoint loaded is also
+ * kept as a {@link WorldSnapshot}, so seeking back within its interval does
+ * not read the file again.
+ * </p>
+ * <p>
+ * Loading a checkpoint replaces the world of the company, and removes its
+ * observers and charging sessions; observers are not notified of replayed
+ * recharges either. With
+ * {@link ChargingSessions} a recharge is journaled in the step its session
+ * ends, so it is repeated in that step too; the occupation of the chargers and
+ * the waiting queues of the sessions are not replayed.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class SimulationReplay
+{
+    private EVCompany company;
+    private Path journalPath;
+    private JournalReader journal;
+    /** Steps of the checkpoints of the run, in order. */
+    private List<Integer> checkpointSteps;
+    /** Snapshot of the last checkpoint loaded, or {@code null} before the first seek. */
+    private WorldSnapshot loaded;
+    /** Chargers of the world loaded, by id. */
+    private Map<String, Charger> chargersById;
+    /** Step whose start the world currently represents, or -1 if unknown. */
+    private int step;
+    /** Last step that can be reached: the one after the last journaled step. */
+    private int lastStep;
+
+    /**
+     * Constructs a replay of a recorded run.
+     *
+     * @param company The company into which the recorded world is loaded. Must not be {@code null}.
+     * @param journal The path of the journal of the run. Must not be {@code null}.
+     * @throws NullPointerException If an argument is {@code null}.
+     * @throws IllegalArgumentException If the journal is not valid or has no checkpoints next to it.
+     * @throws java.io.UncheckedIOException If the journal cannot be read.
+     */
+    public SimulationReplay(EVCompany company, Path journal)
+    {
+        if (company == null || journal == null) {
+            throw new NullPointerException("SimulationReplay need a company and a journal");
+        }
+        this.checkpointSteps = SimulationRecorder.checkpointSteps(journal);
+        if (checkpointSteps.isEmpty()) {
+            throw new IllegalArgumentException("SimulationReplay need at least one checkpoint of " + journal);
+        }
+        this.company = company;
+        this.journalPath = journal;
+        this.journal = new JournalReader(journal);
+        this.chargersById = new HashMap<>();
+        this.step = -1;
+        int lastCheckpoint = checkpointSteps.get(checkpointSteps.size() - 1);
+        int lastJournaled = this.journal.size() == 0 ? -1 : this.journal.getStep(this.journal.size() - 1);
+        this.lastStep = Math.max(lastCheckpoint, lastJournaled + 1);
+    }
+
+    /**
+     * @return The step whose start the world currently represents, or -1 before the first seek.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * @return The last step that can be reached.
+     */
+    public int getLastStep()
+    {
+        return lastStep;
+    }
+
+    /**
+     * Takes the world to the state it had at the start of a step, that is,
+     * after the vehicles acted in every previous step.
+     *
+     * @param target The step to reach.
+     * @throws IllegalArgumentException If the step is before the first snapshot or after {@link #getLastStep()}.
+     */
+    public void seek(int target)
+    {
+        int base = checkpointBefore(target);
+        if (base < 0 || target > lastStep) {
+            throw new IllegalArgumentException("Step " + target + " cannot be reached");
+        }
+        if (step < 0 || step > target || base > step) { //avanzar desde el estado actual si está más cerca
+            if (loaded != null && loaded.getStep() == base) {
+                loaded.restore(company); //el mismo mundo: no hace falta leer el fichero
+            } else {
+                load(base);
+            }
+            step = base;
+        }
+        long end = journal.firstRecordOfStep(target);
+        for (long record = journal.firstRecordOfStep(step); record < end; record++) {
+            apply(record);
+        }
+        step = target;
+    }
+
+    /**
+     * Loads a checkpoint of the run into the company and indexes its chargers.
+     *
+     * @param checkpoint The step of the checkpoint.
+     */
+    private void load(int checkpoint)
+    {
+        SimulationCheckpoint.load(SimulationRecorder.checkpointPath(journalPath, checkpoint), company);
+        loaded = new WorldSnapshot(company, checkpoint);
+        chargersById.clear();
+        for (Charger charger : WorldSnapshot.chargersOf(company)) {
+            chargersById.put(charger.getId(), charger);
+        }
+    }
+
+    /**
+     * @param target A step.
+     * @return The step of the last checkpoint saved at or before the step, or -1 if none.
+     */
+    private int checkpointBefore(int target)
+    {
+        int low = 0;
+        int high = checkpointSteps.size();
+        while (low < high) { //primer punto de control posterior al paso
+            int middle = (low + high) >>> 1;
+            if (checkpointSteps.get(middle) <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low == 0 ? -1 : checkpointSteps.get(low - 1);
+    }
+
+    /**
+     * Applies the changes of a journaled event to the world.
+     *
+     * @param record The index of the record of the event.
+     */
+    private void apply(long record)
+    {
+        FleetStore fleet = company.getFleet();
+        int row = journal.getVehicle(record);
+        switch (journal.getType(record)) {
+            case RECHARGING:
+                Charger charger = chargersById.get(journal.getChargerId(record));
+                if (charger == null) {
+                    return; //no había cargador libre: no hubo recarga
+                }
+                ElectricVehicle vehicle = fleet.getVehicle(row);
+                double cost = charger.recharge(vehicle, journal.getKwsRecharged(record), journal.getStep(record));
+                fleet.setBatteryLevel(row, fleet.getBatteryCapacity(row));
+                fleet.setChargesCount(row, fleet.getChargesCount(row) + 1);
+                fleet.setChargesCost(row, fleet.getChargesCost(row) + cost);
+                if (vehicle.notifiesCompany()) {
+                    company.recordRecharge(charger, vehicle);
+                }
+                break;
+            case IDLE:
+                fleet.setIdleCount(row, fleet.getIdleCount(row) + 1);
+                applyStatus(record, row);
+                break;
+            case MOVED:
+                applyStatus(record, row);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Applies the state of a vehicle at the end of a step, journaled by a status event.
+     *
+     * @param record The index of the record of the event.
+     * @param row The row of the vehicle.
+     */
+    private void applyStatus(long record, int row)
+    {
+        FleetStore fleet = company.getFleet();
+        fleet.setLocation(row, journal.getLocation(record));
+        fleet.setBatteryLevel(row, journal.getBatteryLevel(record));
+        fleet.setRecharging(row, journal.getRechargingLocation(record));
+        fleet.getVehicle(row).rankingChanged();
+    }
+}
@@ -0,0 +1,223 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for the {@link SimulationRecorder}, {@link WorldSnapshot} and
+ * {@link SimulationReplay} classes.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Seeking forwards and backwards to any step of a recorded run.</li>
+ *   <li>Replaying a run from its files alone, into an empty company.</li>
+ *   <li>Seeking in a run with charging sessions.</li>
+ *   <li>Recalculating the totals of the stations when seeking.</li>
+ *   <li>Rejection of steps that were not recorded.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class SimulationReplayTest
+{
+    /** Number of recorded steps. */
+    private static final int STEPS = 60;
+
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /** The journal file of each test. */
+    private Path path;
+
+    /** Description of the world at the start of each step, and at the end of the run. */
+    private List<String> expected;
+
+    /** Recorder of the run. */
+    private SimulationRecorder recorder;
+
+    /**
+     * Default constructor for test class SimulationReplayTest.
+     */
+    public SimulationReplayTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method, recording a run
+     * of 30 vehicles with four chargers per station (see {@link #record(ScenarioGenerator, boolean)}).
+     */
+    @BeforeEach
+    public void setUp() throws IOException
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+        path = Files.createTempFile("replay", ".bin");
+        record(new ScenarioGenerator(11, 25, 25, 30, 6, 4, ScenarioGenerator.evenTierMix(),
+            ScenarioGenerator.Distribution.CLUSTERED), false);
+    }
+
+    /**
+     * Generates a world and records a run of {@link #STEPS} steps with a
+     * snapshot every 10 steps, keeping the description of the world at the
+     * start of every step.
+     *
+     * @param generator The generator of the world.
+     * @param sessions Whether the company has charging sessions.
+     */
+    private void record(ScenarioGenerator generator, boolean sessions)
+    {
+        company.reset();
+        generator.populate(company);
+        if (sessions) {
+            company.setChargingSessions(new ChargingSessions());
+        }
+
+        List<ElectricVehicle> vehicles = new ArrayList<>(company.getVehicles());
+        expected = new ArrayList<>();
+        recorder = new SimulationRecorder(company, path, 10);
+        for (int step = 0; step < STEPS; step++) {
+            expected.add(describeWorld());
+            recorder.beginStep(step);
+            company.advanceChargingSessions(step, recorder);
+            for (ElectricVehicle ev : vehicles) {
+                ev.act(step, recorder);
+            }
+        }
+        expected.add(describeWorld());
+        recorder.close();
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown() throws IOException
+    {
+        for (int step : SimulationRecorder.checkpointSteps(path)) {
+            Files.deleteIfExists(SimulationRecorder.checkpointPath(path, step));
+        }
+        Files.deleteIfExists(EventJournal.chargerTablePath(path));
+        Files.deleteIfExists(path);
+        company.reset();
+        company = null;
+    }
+
+    /**
+     * Builds a textual description of the vehicles, chargers and charges registry.
+     *
+     * @return The description.
+     */
+    private String describeWorld()
+    {
+        StringBuilder world = new StringBuilder();
+        for (int row = 0; row < company.getFleet().size(); row++) {
+            world.append(company.getFleet().getVehicle(row)).append('\n');
+        }
+        for (Charger charger : WorldSnapshot.chargersOf(company)) {
+            world.append(charger.getCompleteInfo()).append(charger.getEVsRecharged()).append(charger.getKwsRecharged()).append('\n');
+        }
+        world.append(company.getChargesRegistry());
+        return world.toString();
+    }
+
+    /**
+     * Tests that seeking in any order rebuilds the world of the recorded run.
+     */
+    @Test
+    public void testSeek()
+    {
+        SimulationReplay replay = new SimulationReplay(company, path);
+        assertEquals(STEPS, replay.getLastStep());
+        for (int step : new int[] { 37, 5, STEPS, 0, 20, 21, 29, 30, 59, 12 }) {
+            replay.seek(step);
+            assertEquals(step, replay.getStep());
+            assertEquals(expected.get(step), describeWorld(), "step " + step);
+        }
+    }
+
+    /**
+     * Tests that a run is replayed from its journal and checkpoint files into an
+     * empty company, as another process would do.
+     */
+    @Test
+    public void testReplayFromFiles()
+    {
+        assertEquals(List.of(0, 10, 20, 30, 40, 50), recorder.getCheckpointSteps());
+        assertEquals(recorder.getCheckpointSteps(), SimulationRecorder.checkpointSteps(path));
+        company.reset(); //nada del mundo grabado queda en memoria
+        SimulationReplay replay = new SimulationReplay(company, path);
+        for (int step : new int[] { 45, STEPS, 3, 0 }) {
+            replay.seek(step);
+            assertEquals(expected.get(step), describeWorld(), "step " + step);
+        }
+    }
+
+    /**
+     * Tests that seeking in a run with charging sessions, where vehicles wait for
+     * the chargers, repeats each recharge in the step its session ended.
+     */
+    @Test
+    public void testSeekWithSessions()
+    {
+        record(new ScenarioGenerator(5, 30, 30, 150, 6, 1, ScenarioGenerator.evenTierMix(),
+            ScenarioGenerator.Distribution.CLUSTERED), true); //un cargador por estación: hay colas
+        SimulationReplay replay = new SimulationReplay(company, path);
+        for (int step : new int[] { 37, 5, STEPS, 0, 20, 21, 29, 30, 59, 12 }) {
+            replay.seek(step);
+            assertEquals(expected.get(step), describeWorld(), "step " + step);
+        }
+    }
+
+    /**
+     * Tests that the totals of the stations are those of their chargers after
+     * restoring a snapshot, instead of accumulating the differences of every
+     * restore.
+     */
+    @Test
+    public void testSeekRecalculatesStationTotals()
+    {
+        record(new ScenarioGenerator(5, 25, 25, 150, 6, 4, ScenarioGenerator.evenTierMix(),
+            ScenarioGenerator.Distribution.CLUSTERED), false);
+        SimulationReplay replay = new SimulationReplay(company, path);
+        for (int step : new int[] { STEPS, 50, 0, 30, 10, 50, 0 }) {
+            replay.seek(step);
+            if (step % 10 != 0 || step > 50) {
+                continue; //sólo los pasos con instantánea restauran los totales
+            }
+            for (ChargingStation station : company.getCityStations()) {
+                double amount = 0;
+                for (Charger charger : station.getChargers()) {
+                    amount += charger.getAmountCollected();
+                }
+                assertEquals(0, Double.compare(amount, station.getAmountCollected()), "step " + step);
+            }
+        }
+        for (ChargingStation station : company.getCityStations()) {
+            assertEquals(0, Double.compare(0.0, station.getAmountCollected())); //ni -0.0 ni restos
+            assertEquals(0, station.getNumberEVRecharged());
+        }
+    }
+
+    /**
+     * Tests that steps outside the recorded run are rejected.
+     */
+    @Test
+    public void testSeekOutOfRange() throws IOException
+    {
+        SimulationReplay replay = new SimulationReplay(company, path);
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(-1));
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(STEPS + 1));
+        for (int step : SimulationRecorder.checkpointSteps(path)) {
+            Files.deleteIfExists(SimulationRecorder.checkpointPath(path, step));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SimulationReplay(company, path));
+    }
+}
@@ -0,0 +1,244 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bucketed spatial index of {@link ChargingStation}s over the city grid.
+ * <p>
+ * The city is divided into square cells of {@code cellSize} x {@code cellSize}
+ * positions, and each station is stored in the bucket of the cell that contains
+ * its {@link Location}. Range queries visit the cells in expanding rings around
+ * the cell of the query point, so their cost depends on the number of stations
+ * near that point and not on the total number of stations in the city.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class StationGrid
+{
+    /**
+     * Default side length of a cell, in grid positions.
+     */
+    public static final int DEFAULT_CELL_SIZE = 8;
+
+    /**
+     * Side length of a cell, in grid positions.
+     */
+    private int cellSize;
+
+    /**
+     * Stations stored in each non-empty cell, keyed by the packed cell coordinates.
+     */
+    private Map<Long, List<ChargingStation>> cells;
+
+    /**
+     * Bounds of the occupied cells. Ring expansion never goes beyond them.
+     */
+    private int minCellX;
+    private int minCellY;
+    private int maxCellX;
+    private int maxCellY;
+
+    /**
+     * Number of stations stored in the grid.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty grid using {@link #DEFAULT_CELL_SIZE}.
+     */
+    public StationGrid()
+    {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructs an empty grid with the given cell size.
+     *
+     * @param cellSize The side length of a cell. Must be positive.
+     * @throws IllegalArgumentException If {@code cellSize} is not positive.
+     */
+    public StationGrid(int cellSize)
+    {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size of StationGrid must be positive");
+        }
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+        clear();
+    }
+
+    // -------------------------------------------------
+    // -------------------- Getters --------------------
+    // -------------------------------------------------
+
+    /**
+     * @return The side length of a cell.
+     */
+    public int getCellSize()
+    {
+        return this.cellSize;
+    }
+
+    /**
+     * @return The number of stations stored in the grid.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    // ------------------------------------------------
+    // -------------------- Others --------------------
+    // ------------------------------------------------
+
+    /**
+     * Adds a {@link ChargingStation} to the bucket of its current location.
+     *
+     * @param station The station to add. Ignored if {@code null} or without location.
+     */
+    public void add(ChargingStation station)
+    {
+        if (station == null || station.getLocation() == null) {
+            return;
+        }
+        int cx = station.getLocation().getX() / cellSize;
+        int cy = station.getLocation().getY() / cellSize;
+        cells.computeIfAbsent(key(cx, cy), k -> new ArrayList<>()).add(station);
+        if (size == 0) {
+            minCellX = maxCellX = cx;
+            minCellY = maxCellY = cy;
+        } else {
+            minCellX = Math.min(minCellX, cx);
+            maxCellX = Math.max(maxCellX, cx);
+            minCellY = Math.min(minCellY, cy);
+            maxCellY = Math.max(maxCellY, cy);
+        }
+        size++;
+    }
+
+    /**
+     * Removes a {@link ChargingStation} from the bucket of the given location.
+     * The location is passed explicitly so that a station can be removed after
+     * it has been moved.
+     *
+     * @param station The station to remove.
+     * @param location The location under which the station was added.
+     * @return {@code true} if the station was found and removed, {@code false} otherwise.
+     */
+    public boolean remove(ChargingStation station, Location location)
+    {
+        if (station == null || location == null) {
+            return false;
+        }
+        Long k = key(location.getX() / cellSize, location.getY() / cellSize);
+        List<ChargingStation> bucket = cells.get(k);
+        if (bucket == null || !bucket.removeIf(s -> s == station)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            cells.remove(k); //los límites ocupados se conservan, solo acotan la búsqueda
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes every station from the grid.
+     */
+    public void clear()
+    {
+        cells.clear();
+        size = 0;
+        minCellX = minCellY = maxCellX = maxCellY = 0;
+    }
+
+    /**
+     * Returns the stations whose Chebyshev distance to {@code center} is at most {@code radius}.
+     * <p>
+     * Cells are visited in expanding rings around the cell containing {@code center}.
+     * The result is ordered by station id with {@link ComparatorChargingStationId}, so
+     * callers that keep the first of several equivalent candidates obtain the same
+     * choice regardless of the cell layout.
+     * </p>
+     *
+     * @param center The centre of the search.
+     * @param radius The maximum Chebyshev distance to {@code center}.
+     * @return A new list with the stations within range, ordered by id.
+     */
+    public List<ChargingStation> stationsWithin(Location center, int radius)
+    {
+        List<ChargingStation> result = new ArrayList<>();
+        if (center == null || radius < 0 || size == 0) {
+            return result;
+        }
+        int cx = center.getX() / cellSize;
+        int cy = center.getY() / cellSize;
+        int fromX = Math.max(minCellX, Math.max(0, center.getX() - radius) / cellSize);
+        int toX = Math.min(maxCellX, (center.getX() + radius) / cellSize);
+        int fromY = Math.max(minCellY, Math.max(0, center.getY() - radius) / cellSize);
+        int toY = Math.min(maxCellY, (center.getY() + radius) / cellSize);
+        if (fromX > toX || fromY > toY) {
+            return result;
+        }
+
+        int maxRing = Math.max(Math.max(cx - fromX, toX - cx), Math.max(cy - fromY, toY - cy));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int x = cx - ring; x <= cx + ring; x++) {
+                if (x < fromX || x > toX) {
+                    continue;
+                }
+                // Las columnas extremas del anillo se recorren enteras; las interiores, solo arriba y abajo
+                int stepY = (x == cx - ring || x == cx + ring) ? 1 : Math.max(1, 2 * ring);
+                for (int y = cy - ring; y <= cy + ring; y += stepY) {
+                    if (y >= fromY && y <= toY) {
+                        collect(cells.get(key(x, y)), center, radius, result);
+                    }
+                }
+            }
+        }
+        Collections.sort(result, new ComparatorChargingStationId());
+        return result;
+    }
+
+    /**
+     * Adds to {@code result} the stations of a bucket that are within range.
+     *
+     * @param bucket The stations of a cell, or {@code null} if the cell is empty.
+     * @param center The centre of the search.
+     * @param radius The maximum Chebyshev distance to {@code center}.
+     * @param result The list where matching stations are added.
+     */
+    private void collect(List<ChargingStation> bucket, Location center, int radius, List<ChargingStation> result)
+    {
+        if (bucket == null) {
+            return;
+        }
+        for (ChargingStation station : bucket) {
+            if (center.distance(station.getLocation()) <= radius) {
+                result.add(station);
+            }
+        }
+    }
+
+    /**
+     * Packs the coordinates of a cell into a single map key.
+     * <p>
+     * The x coordinate is mixed with a multiple of the y coordinate before
+     * packing. {@link Long#hashCode()} combines both halves with a XOR, so
+     * without the mix every cell of a diagonal would share a hash bucket.
+     * </p>
+     *
+     * @param cx The x coordinate of the cell.
+     * @param cy The y coordinate of the cell.
+     * @return The packed key.
+     */
+    private static Long key(int cx, int cy)
+    {
+        int mixedX = cx ^ (cy * 0x9E3779B9); //reversible: y está en los 32 bits bajos
+        return ((long) mixedX << 32) | (cy & 0xffffffffL);
+    }
+}
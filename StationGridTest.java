@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test class for the {@link StationGrid} class.
+ * <p>
+ * Provides unit tests for core functionalities of StationGrid:
+ * <ul>
+ *   <li>Range queries returning exactly the stations within Chebyshev distance.</li>
+ *   <li>Removal of stations, including after they have been moved.</li>
+ *   <li>Ordering of the results by station id.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class StationGridTest
+{
+    /** The grid under test, with small cells so that queries span several of them. */
+    private StationGrid grid;
+
+    /** Stations placed on a regular pattern over a 40x40 city. */
+    private List<ChargingStation> stations;
+
+    /**
+     * Default constructor for test class StationGridTest.
+     */
+    public StationGridTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     * <p>
+     * Creates a grid with cells of side 4 and fills it with stations placed
+     * every 3 positions on both axes.
+     * </p>
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        grid = new StationGrid(4);
+        stations = new ArrayList<>();
+        int n = 0;
+        for (int x = 0; x < 40; x += 3) {
+            for (int y = 0; y < 40; y += 3) {
+                ChargingStation station = new ChargingStation("Cáceres", "CC" + (1000 + n), new Location(x, y));
+                stations.add(station);
+                grid.add(station);
+                n++;
+            }
+        }
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        grid = null;
+        stations = null;
+    }
+
+    /**
+     * Tests that {@code stationsWithin()} returns the same stations as a full
+     * scan for several centres and radii, ordered by id.
+     */
+    @Test
+    public void testStationsWithinMatchesFullScan()
+    {
+        Location[] centers = { new Location(0, 0), new Location(17, 22), new Location(39, 5), new Location(60, 60) };
+        int[] radii = { 0, 1, 3, 7, 20, 100 };
+        for (Location center : centers) {
+            for (int radius : radii) {
+                List<ChargingStation> expected = new ArrayList<>();
+                for (ChargingStation station : stations) {
+                    if (center.distance(station.getLocation()) <= radius) {
+                        expected.add(station);
+                    }
+                }
+                Collections.sort(expected, new ComparatorChargingStationId());
+                assertEquals(expected, grid.stationsWithin(center, radius));
+            }
+        }
+    }
+
+    /**
+     * Tests the {@code remove()} method, including a station that has been moved.
+     */
+    @Test
+    public void testRemove()
+    {
+        ChargingStation station = stations.get(0);
+        Location oldLocation = station.getLocation();
+        station.setLocation(new Location(30, 30));
+
+        assertFalse(grid.remove(station, station.getLocation()));
+        assertTrue(grid.remove(station, oldLocation));
+        assertEquals(stations.size() - 1, grid.size());
+        assertFalse(grid.stationsWithin(oldLocation, 0).contains(station));
+
+        grid.add(station);
+        assertTrue(grid.stationsWithin(new Location(30, 30), 0).contains(station));
+    }
+
+    /**
+     * Tests that an invalid cell size is rejected.
+     */
+    @Test
+    public void testInvalidCellSize()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new StationGrid(0));
+    }
+}
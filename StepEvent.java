@@ -0,0 +1,271 @@
+import java.util.Locale;
+
+/**
+ * Compact record of something an {@link ElectricVehicle} did during a simulation step.
+ * <p>
+ * An event only stores the values needed to describe it (a snapshot of the
+ * primitive state of the vehicle, and the charger for recharges). The text of
+ * the step log is built by {@link #render()} only when a {@link StepEventSink}
+ * actually needs it, so running the simulation without output does no string
+ * work.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public final class StepEvent
+{
+    /**
+     * Kinds of step events.
+     */
+    public enum Type
+    {
+        /** The vehicle moved during the step; carries its state at the end of the step. */
+        MOVED,
+        /** The vehicle stayed idle during the step; carries its state at the end of the step. */
+        IDLE,
+        /** The vehicle arrived at its target location. */
+        ARRIVED,
+        /** The vehicle recharged at a charger; with charging sessions, when the session ends. */
+        RECHARGING,
+        /** The vehicle arrived at its recharging station and waits for a free charger. */
+        WAITING,
+        /** The vehicle started a charging session at a charger. */
+        CHARGING
+    }
+
+    private final Type type;
+    private final int step;
+    private final ElectricVehicle vehicle;
+    private final int batteryCapacity;
+    private final int batteryLevel;
+    private final int chargesCount;
+    private final double chargesCost;
+    private final int idleCount;
+    private final long location;
+    private final long recharging;
+    private final long target;
+    /** Charger of a {@link Type#RECHARGING} or {@link Type#CHARGING} event, or {@code null}. */
+    private final Charger charger;
+    /** Cost of the recharge of a {@link Type#RECHARGING} event. */
+    private final double cost;
+
+    /**
+     * Takes a snapshot of the state of a vehicle.
+     *
+     * @param type The kind of event.
+     * @param step The simulation step.
+     * @param vehicle The vehicle.
+     * @param charger The charger of a recharge or a session, or {@code null}.
+     */
+    private StepEvent(Type type, int step, ElectricVehicle vehicle, Charger charger)
+    {
+        this.type = type;
+        this.step = step;
+        this.vehicle = vehicle;
+        FleetStore fleet = vehicle.getFleet();
+        int row = vehicle.getRow();
+        this.batteryCapacity = fleet.getBatteryCapacity(row);
+        this.batteryLevel = fleet.getBatteryLevel(row);
+        this.chargesCount = fleet.getChargesCount(row);
+        this.chargesCost = fleet.getChargesCost(row);
+        this.idleCount = fleet.getIdleCount(row);
+        this.location = fleet.getLocation(row);
+        this.recharging = fleet.getRecharging(row);
+        this.target = fleet.getTarget(row);
+        this.charger = charger;
+        this.cost = (type == Type.RECHARGING) ? charger.calculateFee(batteryCapacity - batteryLevel) : 0;
+    }
+
+    /**
+     * Creates the event with the state of a vehicle at the end of a step.
+     *
+     * @param vehicle The vehicle.
+     * @param step The simulation step.
+     * @param moved Whether the vehicle moved during the step.
+     * @return A {@link Type#MOVED} or {@link Type#IDLE} event.
+     */
+    public static StepEvent status(ElectricVehicle vehicle, int step, boolean moved)
+    {
+        return new StepEvent(moved ? Type.MOVED : Type.IDLE, step, vehicle, null);
+    }
+
+    /**
+     * Creates the event of a vehicle arriving at its target location.
+     *
+     * @param vehicle The vehicle.
+     * @param step The simulation step.
+     * @return An {@link Type#ARRIVED} event.
+     */
+    public static StepEvent arrived(ElectricVehicle vehicle, int step)
+    {
+        return new StepEvent(Type.ARRIVED, step, vehicle, null);
+    }
+
+    /**
+     * Creates the event of a vehicle that is about to recharge.
+     * The recharged kWh are those missing in its battery.
+     *
+     * @param vehicle The vehicle.
+     * @param step The simulation step.
+     * @param charger The charger that will recharge the vehicle. Must not be {@code null}.
+     * @return A {@link Type#RECHARGING} event.
+     * @throws NullPointerException If {@code charger} is {@code null}.
+     */
+    public static StepEvent recharging(ElectricVehicle vehicle, int step, Charger charger)
+    {
+        if (charger == null) {
+            throw new NullPointerException("Recharging event need a charger");
+        }
+        return new StepEvent(Type.RECHARGING, step, vehicle, charger);
+    }
+
+    /**
+     * Creates the event of a vehicle that joins the waiting queue of its
+     * recharging station because no compatible charger is free.
+     *
+     * @param vehicle The vehicle.
+     * @param step The simulation step.
+     * @return A {@link Type#WAITING} event.
+     */
+    public static StepEvent waiting(ElectricVehicle vehicle, int step)
+    {
+        return new StepEvent(Type.WAITING, step, vehicle, null);
+    }
+
+    /**
+     * Creates the event of a vehicle that starts a charging session. The
+     * recharge itself is reported by a {@link Type#RECHARGING} event when the
+     * session ends.
+     *
+     * @param vehicle The vehicle.
+     * @param step The simulation step.
+     * @param charger The charger of the session. Must not be {@code null}.
+     * @return A {@link Type#CHARGING} event.
+     * @throws NullPointerException If {@code charger} is {@code null}.
+     */
+    public static StepEvent charging(ElectricVehicle vehicle, int step, Charger charger)
+    {
+        if (charger == null) {
+            throw new NullPointerException("Charging event need a charger");
+        }
+        return new StepEvent(Type.CHARGING, step, vehicle, charger);
+    }
+
+    // -------------------------------------------------
+    // -------------------- Getters --------------------
+    // -------------------------------------------------
+
+    /**
+     * @return The kind of event.
+     */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return The simulation step of the event.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * @return The vehicle of the event.
+     */
+    public ElectricVehicle getVehicle()
+    {
+        return vehicle;
+    }
+
+    /**
+     * @return The battery level of the vehicle when the event happened, in kWh.
+     */
+    public int getBatteryLevel()
+    {
+        return batteryLevel;
+    }
+
+    /**
+     * @return The packed location of the vehicle when the event happened.
+     */
+    public long getLocation()
+    {
+        return location;
+    }
+
+    /**
+     * @return The packed recharging location of the vehicle when the event happened,
+     *         or {@link FleetStore#NO_LOCATION}.
+     */
+    public long getRechargingLocation()
+    {
+        return recharging;
+    }
+
+    /**
+     * @return The charger of a {@link Type#RECHARGING} or {@link Type#CHARGING} event, or {@code null}.
+     */
+    public Charger getCharger()
+    {
+        return charger;
+    }
+
+    /**
+     * @return The kWh recharged in a {@link Type#RECHARGING} event.
+     */
+    public int getKwsRecharged()
+    {
+        return type == Type.RECHARGING ? batteryCapacity - batteryLevel : 0;
+    }
+
+    /**
+     * @return The cost of the recharge of a {@link Type#RECHARGING} event.
+     */
+    public double getCost()
+    {
+        return cost;
+    }
+
+    // ------------------------------------------------
+    // -------------------- Others --------------------
+    // ------------------------------------------------
+
+    /**
+     * Builds the line of the step log that describes this event.
+     *
+     * @return The text of the event.
+     */
+    public String render()
+    {
+        String prefix = "(step: " + step + " - ";
+        switch (type) {
+            case ARRIVED:
+                return prefix + vehicle.getClass().getSimpleName() + ": " + vehicle.getPlate() + " at target destination ********)";
+            case RECHARGING:
+                return prefix + vehicle.getClass().getSimpleName() + ": " + vehicle.getPlate() + " recharges: "
+                    + (batteryCapacity - batteryLevel) + "kwh at " + charger.getClass().getSimpleName() + ": " + charger.getId()
+                    + " with cost: " + String.format(Locale.US, "%.2f", cost) + "€ ********)";
+            case WAITING:
+                return prefix + vehicle.getClass().getSimpleName() + ": " + vehicle.getPlate()
+                    + " waits for a free charger at " + Location.ofPacked(location) + " ********)";
+            case CHARGING:
+                return prefix + vehicle.getClass().getSimpleName() + ": " + vehicle.getPlate() + " starts charging at "
+                    + charger.getClass().getSimpleName() + ": " + charger.getId() + " ********)";
+            default:
+                return prefix + ElectricVehicle.describe(vehicle, batteryCapacity, batteryLevel, chargesCount, chargesCost,
+                    idleCount, location, recharging, target).substring(1);
+        }
+    }
+
+    /**
+     * @return The text of the event (see {@link #render()}).
+     */
+    @Override
+    public String toString()
+    {
+        return render();
+    }
+}
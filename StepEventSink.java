@@ -0,0 +1,19 @@
+/**
+ * Receiver of the {@link StepEvent}s produced by the vehicles during a simulation step.
+ * <p>
+ * A sink decides what to do with each event: render it as text, count it,
+ * store it or ignore it. Events are delivered in the order they happen.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public interface StepEventSink
+{
+    /**
+     * Receives an event.
+     *
+     * @param event The event.
+     */
+    void onStepEvent(StepEvent event);
+}
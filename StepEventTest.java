@@ -0,0 +1,135 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for the {@link StepEvent} class.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>The kinds of events emitted by {@code act(int, StepEventSink)}.</li>
+ *   <li>Events rendering the same text as {@code act(int)}.</li>
+ *   <li>Events keeping the state of the step in which they happened.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class StepEventTest
+{
+    /** The singleton EVCompany instance used in tests. */
+    private EVCompany company;
+
+    /** A vehicle that needs to recharge at {@code station} before reaching its target. */
+    private StandardEV vehicle;
+
+    /** The only charging station of the company. */
+    private ChargingStation station;
+
+    /**
+     * Default constructor for test class StepEventTest.
+     */
+    public StepEventTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     * <p>
+     * Creates a station at (2, 2) and a vehicle at (0, 0) going to (2, 4) whose
+     * battery only covers 2 movements.
+     * </p>
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        EVCompany.resetInstance();
+        company = EVCompany.getInstance();
+        company.reset();
+        station = new ChargingStation("Cáceres", "CC00", new Location(2, 2));
+        station.addCharger(new StandardCharger("CC00_000", 50, 0.5));
+        company.addChargingStation(station);
+        vehicle = new StandardEV(company, new Location(0, 0), new Location(2, 4), "EV0", "0CCC", 10);
+        vehicle.calculateRoute();
+        company.addElectricVehicle(vehicle);
+    }
+
+    /**
+     * Tears down the test fixture after each test method.
+     */
+    @AfterEach
+    public void tearDown()
+    {
+        company.reset();
+        company = null;
+        vehicle = null;
+        station = null;
+    }
+
+    /**
+     * Tests the kinds of events of a trip: moves, a recharge, the arrival and idle steps.
+     */
+    @Test
+    public void testEventTypes()
+    {
+        List<StepEvent> events = new ArrayList<>();
+        for (int step = 0; step < 6; step++) {
+            vehicle.act(step, events::add);
+        }
+        List<StepEvent.Type> types = new ArrayList<>();
+        for (StepEvent event : events) {
+            types.add(event.getType());
+        }
+        assertEquals(List.of(StepEvent.Type.MOVED, StepEvent.Type.RECHARGING, StepEvent.Type.MOVED,
+                             StepEvent.Type.MOVED, StepEvent.Type.ARRIVED, StepEvent.Type.MOVED,
+                             StepEvent.Type.IDLE, StepEvent.Type.IDLE), types);
+
+        StepEvent recharge = events.get(1);
+        assertSame(station.getChargers().get(0), recharge.getCharger());
+        assertEquals(10, recharge.getKwsRecharged());
+        assertEquals(5.0, recharge.getCost(), 0.001);
+        assertEquals(1, recharge.getStep());
+    }
+
+    /**
+     * Tests that the events render the same text that {@code act(int)} returns.
+     */
+    @Test
+    public void testRenderMatchesAct()
+    {
+        List<String> rendered = new ArrayList<>();
+        for (int step = 0; step < 8; step++) {
+            vehicle.act(step, event -> rendered.add(event.render()));
+        }
+
+        setUp();
+        List<String> logs = new ArrayList<>();
+        for (int step = 0; step < 8; step++) {
+            logs.addAll(vehicle.act(step));
+        }
+        assertEquals(logs, rendered);
+        assertTrue(rendered.get(1).contains("recharges: 10kwh at StandardCharger: CC00_000 with cost: 5.00€"));
+    }
+
+    /**
+     * Tests that an event renders the state of its step even after the vehicle has changed.
+     */
+    @Test
+    public void testEventIsSnapshot()
+    {
+        List<StepEvent> events = new ArrayList<>();
+        vehicle.act(0, events::add);
+        String text = events.get(0).render();
+        assertEquals(vehicle.getStepInfo(0), text);
+
+        vehicle.act(1, null);
+        vehicle.act(2, null);
+        assertEquals(text, events.get(0).render());
+        assertNotEquals(text, vehicle.getStepInfo(0));
+    }
+}
@@ -22,15 +22,14 @@ public class Suscriptor implements CompanyObserver {
      * Update method.
      * This method is automatically executed when the Subject ({@link EVCompany}) notifies a state change.
      *
-     * @param vehicle The {@link ElectricVehicle} involved in the event.
-     * @param charger The {@link Charger} where the event occurred.
+     * @param recharge A snapshot of the recharge, taken when it was registered.
      */
     @Override
-    public void onRechargeRegistered(ElectricVehicle vehicle, Charger charger) {
+    public void onRechargeRegistered(RechargeEvent recharge) {
         //Ejemplo de qué es lo que podría hacer este patrón observer
         String mensaje = "Suscriptor: " + this.nombre + "," +
-                         "Notificación recibida: El vehículo " + vehicle.getPlate() + 
-                         " ha cargado en " + charger.getId();
+                         "Notificación recibida: El vehículo " + recharge.getPlate() + 
+                         " ha cargado en " + recharge.getChargerId();
                          
         //System.out.println(mensaje); 
         //No lo imprimimos en pantalla para que la salida por consola coincida con la del fichero
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical timing wheel that schedules integer entries to expire at a
+ * future tick (a simulation step).
+ * <p>
+ * The wheel has several levels of {@value #SLOTS} slots. The slots of the first
+ * level hold the entries that expire in each of the next ticks; each slot of a
+ * higher level holds the entries of {@value #SLOTS} times more ticks, which are
+ * moved (cascaded) to the level below when the clock reaches them. Scheduling
+ * an entry and expiring it are constant-time operations, and an entry is
+ * cascaded at most once per level, so advancing the clock costs O(1) amortized
+ * per tick and per entry, however many entries are pending.
+ * </p>
+ * <p>
+ * Entries are identified by non-negative ints chosen by the caller, linked into
+ * the slots through primitive arrays, so scheduling does not allocate. An entry
+ * must not be scheduled again while it is pending. The entries that expire in
+ * the same tick are reported in a deterministic order.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class TimingWheel
+{
+    /**
+     * Number of slots of each level.
+     */
+    public static final int SLOTS = 64;
+
+    /**
+     * Bits of the tick covered by each level.
+     */
+    private static final int BITS = 6;
+
+    /**
+     * Number of levels; they cover every non-negative int tick.
+     */
+    private static final int LEVELS = 6;
+
+    /**
+     * End of a list of entries.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * First and last entry of each slot, by level.
+     */
+    private int[][] heads;
+    private int[][] tails;
+
+    /**
+     * Next entry of the slot of each entry.
+     */
+    private int[] next;
+
+    /**
+     * Tick at which each entry expires.
+     */
+    private long[] deadlines;
+
+    /**
+     * Last tick reached by the clock.
+     */
+    private long now;
+
+    /**
+     * Number of pending entries.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty wheel.
+     *
+     * @param start The tick of the clock. Must not be negative.
+     * @throws IllegalArgumentException If {@code start} is negative.
+     */
+    public TimingWheel(long start)
+    {
+        if (start < 0) {
+            throw new IllegalArgumentException("Start of TimingWheel must not be negative");
+        }
+        this.heads = new int[LEVELS][SLOTS];
+        this.tails = new int[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            Arrays.fill(heads[level], NONE);
+            Arrays.fill(tails[level], NONE);
+        }
+        this.next = new int[16];
+        this.deadlines = new long[16];
+        this.now = start;
+    }
+
+    // -------------------- Getters --------------------
+
+    /**
+     * @return The last tick reached by the clock.
+     */
+    public long getNow()
+    {
+        return now;
+    }
+
+    /**
+     * @return The number of pending entries.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    // -------------------- Others --------------------
+
+    /**
+     * Schedules an entry to expire at a tick.
+     *
+     * @param entry The entry. Must not be negative nor pending.
+     * @param tick The tick at which it expires. Must be later than {@link #getNow()}
+     *             and lower than 2<sup>36</sup>.
+     * @throws IllegalArgumentException If {@code entry} is negative or {@code tick} is out of range.
+     */
+    public void schedule(int entry, long tick)
+    {
+        if (entry < 0) {
+            throw new IllegalArgumentException("Entries of TimingWheel must not be negative");
+        }
+        if (tick <= now || (tick >>> (BITS * LEVELS)) != 0) {
+            throw new IllegalArgumentException("Tick " + tick + " out of the range of the TimingWheel at " + now);
+        }
+        if (entry >= next.length) {
+            int capacity = Math.max(entry + 1, next.length * 2);
+            next = Arrays.copyOf(next, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+        }
+        deadlines[entry] = tick;
+        place(entry);
+        size++;
+    }
+
+    /**
+     * Advances the clock tick by tick up to a tick, reporting every entry that
+     * expires on the way, earliest first.
+     *
+     * @param tick The tick to reach; nothing happens if it is not later than {@link #getNow()}.
+     * @param expired Receives each expired entry, which may be scheduled again from it.
+     */
+    public void advance(long tick, IntConsumer expired)
+    {
+        while (now < tick) {
+            now++;
+            int top = 0;
+            while (top + 1 < LEVELS && (now & ((1L << (BITS * (top + 1))) - 1)) == 0) {
+                top++;
+            }
+            for (int level = top; level > 0; level--) { //baja las entradas que empiezan ahora
+                int slot = (int) (now >>> (BITS * level)) & (SLOTS - 1);
+                int entry = detach(level, slot);
+                while (entry != NONE) {
+                    int following = next[entry];
+                    place(entry);
+                    entry = following;
+                }
+            }
+            int entry = detach(0, (int) now & (SLOTS - 1));
+            while (entry != NONE) {
+                int following = next[entry];
+                size--;
+                expired.accept(entry);
+                entry = following;
+            }
+        }
+    }
+
+    /**
+     * Links an entry into the slot of its deadline, in the lowest level whose
+     * slots do not wrap around before the deadline.
+     *
+     * @param entry The entry.
+     */
+    private void place(int entry)
+    {
+        long tick = deadlines[entry];
+        int level = 0;
+        while ((tick >>> (BITS * (level + 1))) != (now >>> (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) (tick >>> (BITS * level)) & (SLOTS - 1);
+        next[entry] = NONE;
+        if (tails[level][slot] == NONE) {
+            heads[level][slot] = entry;
+        } else {
+            next[tails[level][slot]] = entry;
+        }
+        tails[level][slot] = entry;
+    }
+
+    /**
+     * Empties a slot.
+     *
+     * @param level The level of the slot.
+     * @param slot The slot.
+     * @return The first entry of the slot, linked to the rest, or {@link #NONE}.
+     */
+    private int detach(int level, int slot)
+    {
+        int head = heads[level][slot];
+        heads[level][slot] = NONE;
+        tails[level][slot] = NONE;
+        return head;
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for {@link TimingWheel}.
+ * <p>
+ * Provides unit tests for:
+ * <ul>
+ *   <li>Expiring entries exactly at their ticks, near and far in the future.</li>
+ *   <li>Scheduling entries again while they expire.</li>
+ *   <li>Rejecting invalid entries and ticks.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Author: Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano<br>
+ * Version: 17-10-2026
+ * </p>
+ */
+public class TimingWheelTest
+{
+    /** The wheel under test, starting at tick 10. */
+    private TimingWheel wheel;
+
+    /**
+     * Default constructor for test class TimingWheelTest.
+     */
+    public TimingWheelTest()
+    {
+    }
+
+    /**
+     * Sets up the test fixture before each test method.
+     */
+    @BeforeEach
+    public void setUp()
+    {
+        wheel = new TimingWheel(10);
+    }
+
+    /**
+     * Tests that every entry expires in the tick it was scheduled for, whatever
+     * the level of the wheel it was placed in.
+     */
+    @Test
+    public void testExpiry()
+    {
+        long[] ticks = { 11, 12, 73, 74, 4106, 4107, 300000, 11, 5000000 };
+        for (int i = 0; i < ticks.length; i++) {
+            wheel.schedule(i, ticks[i]);
+        }
+        assertEquals(ticks.length, wheel.size());
+        long[] expiredAt = new long[ticks.length];
+        long tick = 10;
+        while (tick < 5000000) {
+            tick = Math.min(5000000, tick + 1 + tick / 1000); //avanza a saltos cada vez mayores
+            long now = tick;
+            wheel.advance(tick, entry -> expiredAt[entry] = now);
+            for (int i = 0; i < ticks.length; i++) {
+                if (ticks[i] <= tick) {
+                    assertTrue(expiredAt[i] >= ticks[i] && expiredAt[i] <= tick);
+                } else {
+                    assertEquals(0, expiredAt[i]);
+                }
+            }
+        }
+        List<Integer> again = new ArrayList<>();
+        wheel.advance(5000000, again::add);
+        assertTrue(again.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Tests that advancing tick by tick reports each entry exactly in its tick,
+     * in order, and that entries can be scheduled again from the callback.
+     */
+    @Test
+    public void testOrderAndReschedule()
+    {
+        List<String> expired = new ArrayList<>();
+        wheel.schedule(0, 80);
+        wheel.schedule(1, 15);
+        wheel.schedule(2, 80);
+        for (long tick = 11; tick <= 200; tick++) {
+            long now = tick;
+            wheel.advance(tick, entry -> {
+                expired.add(entry + "@" + now);
+                if (entry == 1 && now < 100) {
+                    wheel.schedule(1, now + 65);
+                }
+            });
+        }
+        assertEquals(List.of("1@15", "0@80", "2@80", "1@80", "1@145"), expired);
+        assertEquals(200, wheel.getNow());
+    }
+
+    /**
+     * Tests that invalid entries and ticks are rejected.
+     */
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(-1, 20));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(0, 1L << 40));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(-1));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -68,8 +68,9 @@ public class VtcEV extends ElectricVehicle {
     /**
      * Selects a free charger from the current charging station.
      * <p>
-     * Among all chargers in the station that are able to charge this vehicle,
-     * the one with the lowest charging fee is selected.
+     * Among all free chargers in the station that are able to charge this vehicle,
+     * the one with the lowest charging fee is selected (see
+     * {@link ChargingStation#getCheapestCharger(ElectricVehicle)}).
      * </p>
      *
      * @return The {@link Charger} with the lowest charging fee that can charge
@@ -77,21 +78,7 @@ public class VtcEV extends ElectricVehicle {
      */
     @Override
     public Charger getFreeChargerFromStation(){
-        List<Charger> list =
-            getCompany().getChargingStation(getRechargingLocation()).getChargers();
-
-        double lowestPrice = Double.MAX_VALUE;
-        Charger bestCharger = null;
-
-        for (Charger c : list){
-            if (c.canCharge(this)){
-                if (c.getChargingFee() < lowestPrice){
-                    lowestPrice = c.getChargingFee();
-                    bestCharger = c;
-                }
-            }
-        }
-        return bestCharger;
+        return getCompany().getChargingStation(getRechargingLocation()).getCheapestCharger(this);
     }
     
     /**
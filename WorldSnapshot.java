@@ -0,0 +1,93 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the mutable state of the world of an {@link EVCompany} at
+ * the start of a simulation step.
+ * <p>
+ * It holds a copy of the {@link FleetStore} of the company, the recharges, the
+ * amount collected and the kWh delivered by every {@link Charger} and the
+ * charges registry of the company. The stations, chargers and vehicles themselves are not copied: a
+ * snapshot can only be restored into the same world.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+public class WorldSnapshot
+{
+    private int step;
+    private FleetStore fleet;
+    private List<Charger> chargers;
+    private List<RechargeHistory> recharges;
+    private double[] collected;
+    private int[] kws;
+    private Map<Charger, List<ElectricVehicle>> registry;
+
+    /**
+     * Takes a snapshot of the world of a company.
+     *
+     * @param company The company. Must not be {@code null}.
+     * @param step The step whose start the snapshot represents.
+     * @throws NullPointerException If {@code company} is {@code null}.
+     */
+    public WorldSnapshot(EVCompany company, int step)
+    {
+        if (company == null) {
+            throw new NullPointerException("WorldSnapshot need a company");
+        }
+        this.step = step;
+        this.fleet = company.getFleet().copy();
+        this.chargers = chargersOf(company);
+        this.recharges = new ArrayList<>(chargers.size());
+        this.collected = new double[chargers.size()];
+        this.kws = new int[chargers.size()];
+        for (int i = 0; i < chargers.size(); i++) {
+            recharges.add(chargers.get(i).getHistory().copy());
+            collected[i] = chargers.get(i).getAmountCollected();
+            kws[i] = chargers.get(i).getKwsRecharged();
+        }
+        this.registry = company.copyRegistry();
+    }
+
+    /**
+     * @return The step whose start the snapshot represents.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * Takes the world of a company back to the state of this snapshot.
+     *
+     * @param company The company the snapshot was taken from.
+     * @throws IllegalArgumentException If the fleet of the company has changed size.
+     */
+    public void restore(EVCompany company)
+    {
+        company.getFleet().restore(fleet);
+        for (int i = 0; i < chargers.size(); i++) {
+            chargers.get(i).restoreRecharges(recharges.get(i), collected[i], kws[i]);
+        }
+        for (ChargingStation station : new ArrayList<>(company.getCityStations())) { //cambiar los totales reordena las estaciones
+            station.recalculateTotals(); //desde los cargadores: sin errores acumulados
+        }
+        company.restoreRegistry(registry);
+        company.refreshRankings();
+    }
+
+    /**
+     * @param company A company.
+     * @return Every charger of the stations of the company.
+     */
+    static List<Charger> chargersOf(EVCompany company)
+    {
+        List<Charger> chargers = new ArrayList<>();
+        for (ChargingStation station : company.getCityStations()) {
+            chargers.addAll(station.getChargers());
+        }
+        return chargers;
+    }
+}
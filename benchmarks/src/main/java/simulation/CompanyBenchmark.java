@@ -0,0 +1,93 @@
+package simulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the registration of recharges and vehicles:
+ * {@link Charger#recharge(ElectricVehicle, int)},
+ * {@link EVCompany#registerRecharge(Charger, ElectricVehicle)} and
+ * {@link EVCompany#addElectricVehicle(ElectricVehicle)}.
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CompanyBenchmark
+{
+    /**
+     * The vehicles of the world with the company emptied before each invocation.
+     */
+    @State(Scope.Benchmark)
+    public static class EmptyCompany
+    {
+        /**
+         * Empties the company; the vehicles of the world are kept.
+         *
+         * @param world The benchmarked world.
+         */
+        @Setup(Level.Invocation)
+        public void empty(SimulationWorld world)
+        {
+            world.company.reset();
+        }
+    }
+
+    /**
+     * One recharge of the next vehicle at the next charger.
+     *
+     * @param world The benchmarked world.
+     * @return The cost of the recharge.
+     */
+    @Benchmark
+    public double recharge(SimulationWorld world)
+    {
+        int i = world.nextIndex();
+        return world.chargers.get(i % world.chargers.size()).recharge(world.vehicles.get(i), 10);
+    }
+
+    /**
+     * One registration of a recharge of the next vehicle at the next charger.
+     *
+     * @param world The benchmarked world.
+     * @return The company.
+     */
+    @Benchmark
+    public EVCompany registerRecharge(SimulationWorld world)
+    {
+        int i = world.nextIndex();
+        world.company.registerRecharge(world.chargers.get(i % world.chargers.size()), world.vehicles.get(i));
+        return world.company;
+    }
+
+    /**
+     * Adds every vehicle of the world to the emptied company.
+     *
+     * @param world The benchmarked world.
+     * @param empty The state that empties the company before the invocation.
+     * @return The number of vehicles of the company.
+     */
+    @Benchmark
+    public int addElectricVehicle(SimulationWorld world, EmptyCompany empty)
+    {
+        for (ElectricVehicle ev : world.vehicles) {
+            world.company.addElectricVehicle(ev);
+        }
+        return world.company.getVehicles().size();
+    }
+}
@@ -0,0 +1,88 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * World measured by the benchmarks: the company populated by a {@link ScenarioGenerator}.
+ * <p>
+ * The world is generated again before every iteration, outside the measured
+ * time, since most benchmarked operations change it. Its seed is fixed so
+ * every run measures the same world.
+ * </p>
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+@State(Scope.Benchmark)
+public class SimulationWorld
+{
+    /** Seed of the benchmarked world. */
+    private static final long SEED = 2026;
+    /** Chargers of each station of the benchmarked world. */
+    private static final int CHARGERS_PER_STATION = 4;
+
+    /** Number of vehicles of the world. */
+    @Param("10000")
+    public int numVehicles;
+
+    /** Number of stations of the world. */
+    @Param("1000")
+    public int numStations;
+
+    EVCompany company;
+    List<ElectricVehicle> vehicles;
+    List<ChargingStation> stations;
+    List<Charger> chargers;
+    /** Next step of the simulation, for the benchmarks that advance it. */
+    int step;
+    /** Position of the next vehicle, station or charger, for the benchmarks that take one at a time. */
+    int next;
+
+    /**
+     * Replaces the world of the company with a freshly generated one.
+     */
+    @Setup(Level.Iteration)
+    public void createWorld()
+    {
+        company = EVCompany.getInstance();
+        company.reset();
+        int side = Math.max(EVDemo.MAXX, (int) Math.ceil(Math.sqrt(numStations) * 4));
+        new ScenarioGenerator(SEED, side, side, numVehicles, numStations, CHARGERS_PER_STATION,
+            ScenarioGenerator.evenTierMix(), ScenarioGenerator.Distribution.UNIFORM).populate(company);
+        vehicles = new ArrayList<>(company.getVehicles());
+        stations = new ArrayList<>(company.getCityStations());
+        chargers = new ArrayList<>();
+        for (ChargingStation station : stations) {
+            chargers.addAll(station.getChargers());
+        }
+        step = 0;
+        next = 0;
+    }
+
+    /**
+     * Empties the company after the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void clear()
+    {
+        company.reset();
+    }
+
+    /**
+     * @return The position of the next element to use, cycling over the vehicles.
+     */
+    int nextIndex()
+    {
+        int index = next;
+        next = (next + 1) % vehicles.size();
+        return index;
+    }
+}
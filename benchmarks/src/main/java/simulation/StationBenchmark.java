@@ -0,0 +1,61 @@
+package simulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the charger queries of a station: {@link ChargingStation#getFreeCharger()},
+ * {@link ChargingStation#getCheapestCharger(ElectricVehicle)} and
+ * {@link ChargingStation#getFastestCharger(ElectricVehicle)}. An operation is one
+ * query to one station, for one vehicle, going round the stations and vehicles.
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StationBenchmark
+{
+    /**
+     * @param world The benchmarked world.
+     * @return The free charger of the next station.
+     */
+    @Benchmark
+    public Charger getFreeCharger(SimulationWorld world)
+    {
+        int i = world.nextIndex();
+        return world.stations.get(i % world.stations.size()).getFreeCharger();
+    }
+
+    /**
+     * @param world The benchmarked world.
+     * @return The cheapest charger of the next station for the next vehicle.
+     */
+    @Benchmark
+    public Charger getCheapestCharger(SimulationWorld world)
+    {
+        int i = world.nextIndex();
+        return world.stations.get(i % world.stations.size()).getCheapestCharger(world.vehicles.get(i));
+    }
+
+    /**
+     * @param world The benchmarked world.
+     * @return The fastest charger of the next station for the next vehicle.
+     */
+    @Benchmark
+    public Charger getFastestCharger(SimulationWorld world)
+    {
+        int i = world.nextIndex();
+        return world.stations.get(i % world.stations.size()).getFastestCharger(world.vehicles.get(i));
+    }
+}
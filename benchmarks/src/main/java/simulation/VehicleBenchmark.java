@@ -0,0 +1,110 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the work of the vehicles in a step: {@link ElectricVehicle#act(int)},
+ * with and without rendering the step log, and
+ * {@link ElectricVehicle#calculateRechargingPosition()} for each vehicle class.
+ *
+ * @author Ricardo Álvarez, Gonzalo Cortés y Sergio Zambrano
+ * @version 2026.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VehicleBenchmark
+{
+    /**
+     * Vehicles of one class of the world.
+     */
+    @State(Scope.Benchmark)
+    public static class VehicleClass
+    {
+        /** Simple name of the class of the vehicles. */
+        @Param({ "StandardEV", "PriorityEV", "VtcEV", "PremiumEV" })
+        public String vehicleClass;
+
+        List<ElectricVehicle> selected;
+
+        /**
+         * Selects the vehicles of the class, once the world has been generated.
+         *
+         * @param world The benchmarked world.
+         */
+        @Setup(Level.Iteration)
+        public void select(SimulationWorld world)
+        {
+            selected = new ArrayList<>();
+            for (ElectricVehicle ev : world.vehicles) {
+                if (ev.getClass().getSimpleName().equals(vehicleClass)) {
+                    selected.add(ev);
+                }
+            }
+        }
+    }
+
+    /**
+     * One step of every vehicle, rendering the step log as {@link ElectricVehicle#act(int)} does.
+     *
+     * @param world The benchmarked world.
+     * @param sink Consumer of the results.
+     */
+    @Benchmark
+    public void act(SimulationWorld world, Blackhole sink)
+    {
+        int step = world.step++;
+        for (ElectricVehicle ev : world.vehicles) {
+            sink.consume(ev.act(step));
+        }
+    }
+
+    /**
+     * One step of every vehicle without a sink of events, as in a simulation without output.
+     *
+     * @param world The benchmarked world.
+     * @param sink Consumer of the results.
+     */
+    @Benchmark
+    public void actHeadless(SimulationWorld world, Blackhole sink)
+    {
+        int step = world.step++;
+        for (ElectricVehicle ev : world.vehicles) {
+            ev.act(step, null);
+            sink.consume(ev.getBatteryLevel());
+        }
+    }
+
+    /**
+     * The recharging position of every vehicle of a class.
+     *
+     * @param type The vehicles of the class.
+     * @param sink Consumer of the results.
+     */
+    @Benchmark
+    public void calculateRechargingPosition(VehicleClass type, Blackhole sink)
+    {
+        for (ElectricVehicle ev : type.selected) {
+            ev.calculateRechargingPosition();
+            sink.consume(ev.getRechargingLocation());
+        }
+    }
+}